@@ -0,0 +1,187 @@
+import javax.swing.UIManager;
+import java.awt.BasicStroke;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Las operaciones que miden las pruebas de rendimiento. JMH no acepta pruebas en el paquete sin nombre y desde un
+ * paquete con nombre no se pueden usar las clases del paquete sin nombre, así que las pruebas del paquete rendimiento
+ * llaman a estos métodos por medio de MethodHandle. Todos reciben y devuelven Object en lugar de las clases de la
+ * aplicación para que la firma se pueda escribir desde allá y la llamada sea exacta, sin conversiones que midan de más.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public final class CasosRendimiento {
+    private CasosRendimiento() {
+    }
+
+    /**
+     * Crea un grafo de Erdős–Rényi con GeneradorGrafos.
+     * @param vertices El número de vértices.
+     * @param grado El grado promedio de los vértices, la densidad del grafo.
+     * @param semilla La semilla del generador, el mismo valor da el mismo grafo.
+     * @return El Grafo, con un lienzo que no se muestra.
+     */
+    public static Object grafo(int vertices, int grado, long semilla) {
+        Grafo grafo = new Grafo(new LienzoGrafo());
+        grafo.carga(GeneradorGrafos.genera(GeneradorGrafos.ERDOS_RENYI, vertices, grado, semilla));
+        return grafo;
+    }
+
+    /**
+     * @param grafo Un Grafo.
+     * @return Su ModeloGrafo.
+     */
+    public static Object modelo(Object grafo) {
+        return ((Grafo) grafo).getModelo();
+    }
+
+    /**
+     * @param modelo Un ModeloGrafo.
+     * @return Su AdyacenciaCSR, la que usan los algoritmos.
+     */
+    public static Object adyacencia(Object modelo) {
+        return ((ModeloGrafo) modelo).adyacencia();
+    }
+
+    /**
+     * @param modelo Un ModeloGrafo.
+     * @return Una AdyacenciaCSR nueva, sin usar la que el modelo tiene guardada.
+     */
+    public static Object construyeAdyacencia(Object modelo) {
+        return ((ModeloGrafo) modelo).construyeAdyacencia();
+    }
+
+    /**
+     * @return El ResultadoRecorrido del recorrido en amplitud desde el origen.
+     */
+    public static Object recorreEnAmplitud(Object adyacencia, int origen) {
+        return Recorridos.amplitud((AdyacenciaCSR) adyacencia, origen, new ControlEjecucion(),
+                TrazaAlgoritmo.DESACTIVADA);
+    }
+
+    /**
+     * @return El ResultadoRecorrido del recorrido en profundidad desde el origen.
+     */
+    public static Object recorreEnProfundidad(Object adyacencia, int origen) {
+        return Recorridos.profundidad((AdyacenciaCSR) adyacencia, origen, new ControlEjecucion(),
+                TrazaAlgoritmo.DESACTIVADA);
+    }
+
+    /**
+     * @return El ResultadoRecorrido de los caminos más cortos desde el origen.
+     */
+    public static Object algoritmoDijkstra(Object adyacencia, int origen) {
+        return Dijkstra.caminoMasCorto((AdyacenciaCSR) adyacencia, origen, new ControlEjecucion(),
+                TrazaAlgoritmo.DESACTIVADA);
+    }
+
+    /**
+     * @return Las aristas del bosque de expansión mínima, como int[].
+     */
+    public static Object arbolExpansionMinima(Object adyacencia) {
+        return Kruskal.arbolExpansionMinima((AdyacenciaCSR) adyacencia, new ControlEjecucion(),
+                TrazaAlgoritmo.DESACTIVADA);
+    }
+
+    /**
+     * Elige pares de IDs para las consultas: la mitad son los extremos de una arista existente y la otra mitad dos
+     * vértices al azar, que casi nunca son vecinos.
+     * @param grafo Un Grafo.
+     * @param pares El número de pares.
+     * @param semilla La semilla del generador.
+     * @return Los IDs, el par i en las posiciones 2i y 2i + 1.
+     */
+    public static String[] paresIDs(Object grafo, int pares, long semilla) {
+        ModeloGrafo modelo = ((Grafo) grafo).getModelo();
+        Random aleatorio = new Random(semilla);
+        String[] ids = new String[2 * pares];
+        for (int i = 0; i < pares; i++) {
+            if (i % 2 == 0 && modelo.getNumAristas() > 0) {
+                int arista = aleatorio.nextInt(modelo.getNumAristas());
+                ids[2 * i] = modelo.getID(modelo.getOrigen(arista));
+                ids[2 * i + 1] = modelo.getID(modelo.getDestino(arista));
+            } else {
+                ids[2 * i] = modelo.getID(aleatorio.nextInt(modelo.getNumVertices()));
+                ids[2 * i + 1] = modelo.getID(aleatorio.nextInt(modelo.getNumVertices()));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @return Grafo.existeArista() con los dos IDs.
+     */
+    public static boolean existeArista(Object grafo, String origen, String destino) {
+        return ((Grafo) grafo).existeArista(origen, destino);
+    }
+
+    /**
+     * @return Grafo.encuentraVerticeID() con el ID.
+     */
+    public static int encuentraVerticeID(Object grafo, String ID) {
+        return ((Grafo) grafo).encuentraVerticeID(ID);
+    }
+
+    /**
+     * @return Una imagen RGB del tamaño dado donde dibujar.
+     */
+    public static Object imagen(int ancho, int alto) {
+        return new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Dibuja todas las aristas con Arista.dibuja(), escaladas para que el grafo completo quepa en la imagen.
+     * @return La imagen.
+     */
+    public static Object dibujaAristas(Object modelo, Object imagen) {
+        ModeloGrafo grafo = (ModeloGrafo) modelo;
+        BufferedImage destino = (BufferedImage) imagen;
+        Graphics2D g = prepara(grafo, destino);
+        g.setStroke(Arista.TRAZO);
+        g.setColor(Grafo.COLOR_ARISTA);
+        for (int arista = 0; arista < grafo.getNumRanurasAristas(); arista++) {
+            Arista.dibuja(g, grafo, arista);
+        }
+        g.dispose();
+        return destino;
+    }
+
+    /**
+     * Dibuja todos los vértices con Vertice.dibuja(), escalados para que el grafo completo quepa en la imagen.
+     * @return La imagen.
+     */
+    public static Object dibujaVertices(Object modelo, Object imagen) {
+        ModeloGrafo grafo = (ModeloGrafo) modelo;
+        BufferedImage destino = (BufferedImage) imagen;
+        Graphics2D g = prepara(grafo, destino);
+        g.setStroke(new BasicStroke(1.0f));
+        g.setFont(UIManager.getFont("Label.font"));
+        FontMetrics metricas = g.getFontMetrics();
+        for (int vertice = 0; vertice < grafo.getNumRanurasVertices(); vertice++) {
+            Vertice.dibuja(g, metricas, grafo, vertice, Grafo.COLOR_VERTICE);
+        }
+        g.dispose();
+        return destino;
+    }
+
+    /**
+     * @return Un contexto gráfico de la imagen, limpio y con la escala para que quepa el grafo completo.
+     */
+    private static Graphics2D prepara(ModeloGrafo modelo, BufferedImage imagen) {
+        int ancho = 0;
+        int alto = 0;
+        for (int vertice = 0; vertice < modelo.getNumRanurasVertices(); vertice++) {
+            ancho = Math.max(ancho, modelo.getX(vertice));
+            alto = Math.max(alto, modelo.getY(vertice));
+        }
+        Graphics2D g = imagen.createGraphics();
+        g.clearRect(0, 0, imagen.getWidth(), imagen.getHeight());
+        double escala = Math.min((double) imagen.getWidth() / (ancho + Vertice.getvSize()),
+                (double) imagen.getHeight() / (alto + Vertice.getvSize()));
+        g.scale(escala, escala);
+        return g;
+    }
+}
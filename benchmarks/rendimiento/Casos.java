@@ -0,0 +1,41 @@
+package rendimiento;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Acceso a los métodos de CasosRendimiento, que está en el paquete sin nombre junto con la aplicación.
+ * Los MethodHandle se guardan en campos static final para que el compilador JIT los trate como constantes y la
+ * llamada con invokeExact cueste lo mismo que una llamada directa.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+final class Casos {
+    private static final Class<?> CASOS = clase();
+
+    private Casos() {
+    }
+
+    /**
+     * @param nombre El nombre de un método público y estático de CasosRendimiento.
+     * @param retorno El tipo que devuelve.
+     * @param parametros Los tipos de sus parámetros.
+     * @return El método, para llamarse con invokeExact y exactamente esos tipos.
+     */
+    static MethodHandle metodo(String nombre, Class<?> retorno, Class<?>... parametros) {
+        try {
+            return MethodHandles.publicLookup().findStatic(CASOS, nombre, MethodType.methodType(retorno, parametros));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No existe CasosRendimiento." + nombre, e);
+        }
+    }
+
+    private static Class<?> clase() {
+        try {
+            return Class.forName("CasosRendimiento");
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("CasosRendimiento no está en el classpath", e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package rendimiento;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * El grafo sobre el que corren las pruebas, compartido por todos los hilos de una prueba. Se genera siempre con la
+ * misma semilla, así los resultados de distintas versiones se comparan sobre el mismo grafo.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+@State(Scope.Benchmark)
+public class GrafoAleatorio {
+    /**
+     * La semilla de los grafos y de las consultas.
+     */
+    static final long SEMILLA = 20240601L;
+    private static final MethodHandle GRAFO = Casos.metodo("grafo", Object.class, int.class, int.class, long.class);
+    private static final MethodHandle MODELO = Casos.metodo("modelo", Object.class, Object.class);
+    private static final MethodHandle ADYACENCIA = Casos.metodo("adyacencia", Object.class, Object.class);
+
+    /**
+     * El número de vértices.
+     */
+    @Param({"1000", "100000"})
+    public int vertices;
+    /**
+     * El grado promedio de los vértices: el grafo tiene vertices * grado / 2 aristas.
+     */
+    @Param({"4", "16"})
+    public int grado;
+
+    /**
+     * El Grafo, con un lienzo que no se muestra.
+     */
+    Object grafo;
+    /**
+     * Su ModeloGrafo.
+     */
+    Object modelo;
+    /**
+     * Su AdyacenciaCSR.
+     */
+    Object adyacencia;
+
+    /**
+     * Genera el grafo y su adyacencia antes de medir.
+     * @throws Throwable Lo que lance CasosRendimiento.
+     */
+    @Setup(Level.Trial)
+    public void genera() throws Throwable {
+        grafo = (Object) GRAFO.invokeExact(vertices, grado, SEMILLA);
+        modelo = (Object) MODELO.invokeExact(grafo);
+        adyacencia = (Object) ADYACENCIA.invokeExact(modelo);
+    }
+}
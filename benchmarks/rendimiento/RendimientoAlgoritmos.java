@@ -0,0 +1,74 @@
+package rendimiento;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo de construir la adyacencia y de cada algoritmo sobre ella, desde el vértice 0. Son los mismos cálculos que
+ * hacen recorreEnAmplitud(), recorreEnProfundidad(), algoritmoDijkstra() y arbolExpansionMinima() de Grafo en el
+ * hilo de fondo, sin la traza ni la animación.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RendimientoAlgoritmos {
+    private static final MethodHandle CONSTRUYE_ADYACENCIA =
+            Casos.metodo("construyeAdyacencia", Object.class, Object.class);
+    private static final MethodHandle AMPLITUD = Casos.metodo("recorreEnAmplitud", Object.class, Object.class, int.class);
+    private static final MethodHandle PROFUNDIDAD =
+            Casos.metodo("recorreEnProfundidad", Object.class, Object.class, int.class);
+    private static final MethodHandle DIJKSTRA = Casos.metodo("algoritmoDijkstra", Object.class, Object.class, int.class);
+    private static final MethodHandle ARBOL = Casos.metodo("arbolExpansionMinima", Object.class, Object.class);
+
+    /**
+     * @return La adyacencia CSR construida desde los arreglos del modelo.
+     */
+    @Benchmark
+    public Object construyeAdyacencia(GrafoAleatorio grafo) throws Throwable {
+        return (Object) CONSTRUYE_ADYACENCIA.invokeExact(grafo.modelo);
+    }
+
+    /**
+     * @return El resultado del recorrido en amplitud.
+     */
+    @Benchmark
+    public Object recorreEnAmplitud(GrafoAleatorio grafo) throws Throwable {
+        return (Object) AMPLITUD.invokeExact(grafo.adyacencia, 0);
+    }
+
+    /**
+     * @return El resultado del recorrido en profundidad.
+     */
+    @Benchmark
+    public Object recorreEnProfundidad(GrafoAleatorio grafo) throws Throwable {
+        return (Object) PROFUNDIDAD.invokeExact(grafo.adyacencia, 0);
+    }
+
+    /**
+     * @return El árbol de caminos más cortos.
+     */
+    @Benchmark
+    public Object algoritmoDijkstra(GrafoAleatorio grafo) throws Throwable {
+        return (Object) DIJKSTRA.invokeExact(grafo.adyacencia, 0);
+    }
+
+    /**
+     * @return Las aristas del bosque de expansión mínima.
+     */
+    @Benchmark
+    public Object arbolExpansionMinima(GrafoAleatorio grafo) throws Throwable {
+        return (Object) ARBOL.invokeExact(grafo.adyacencia);
+    }
+}
@@ -0,0 +1,70 @@
+package rendimiento;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo de una consulta por ID, como las que hace el panel al crear una arista. Cada llamada usa el siguiente par
+ * de una lista fija, así se mide la búsqueda en tablas grandes y no un mismo ID que ya está en la caché.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class RendimientoConsultas {
+    private static final int PARES = 1 << 12;
+    private static final MethodHandle PARES_IDS =
+            Casos.metodo("paresIDs", String[].class, Object.class, int.class, long.class);
+    private static final MethodHandle EXISTE_ARISTA =
+            Casos.metodo("existeArista", boolean.class, Object.class, String.class, String.class);
+    private static final MethodHandle ENCUENTRA_VERTICE =
+            Casos.metodo("encuentraVerticeID", int.class, Object.class, String.class);
+
+    private String[] ids;
+    private int siguiente;
+
+    /**
+     * Elige los pares de IDs que se consultan.
+     * @param grafo El grafo de la prueba.
+     * @throws Throwable Lo que lance CasosRendimiento.
+     */
+    @Setup
+    public void eligeIDs(GrafoAleatorio grafo) throws Throwable {
+        ids = (String[]) PARES_IDS.invokeExact(grafo.grafo, PARES, GrafoAleatorio.SEMILLA);
+    }
+
+    /**
+     * @return Si existe una arista entre los dos vértices del par; la mitad de los pares son aristas.
+     */
+    @Benchmark
+    public boolean existeArista(GrafoAleatorio grafo) throws Throwable {
+        int i = siguiente;
+        siguiente = (i + 2) & (2 * PARES - 1);
+        return (boolean) EXISTE_ARISTA.invokeExact(grafo.grafo, ids[i], ids[i + 1]);
+    }
+
+    /**
+     * @return El índice del vértice con el ID dado.
+     */
+    @Benchmark
+    public int encuentraVerticeID(GrafoAleatorio grafo) throws Throwable {
+        int i = siguiente;
+        siguiente = (i + 1) & (2 * PARES - 1);
+        return (int) ENCUENTRA_VERTICE.invokeExact(grafo.grafo, ids[i]);
+    }
+}
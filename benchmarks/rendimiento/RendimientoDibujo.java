@@ -0,0 +1,64 @@
+package rendimiento;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo de dibujar el grafo completo en una imagen de 2048 x 2048 sin pantalla, con los mismos métodos de Arista y
+ * Vertice que usa el lienzo en la vista de cerca. Mide el costo de dibujar cada elemento, sin la capa estática ni el
+ * recorte a lo visible del lienzo.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class RendimientoDibujo {
+    private static final int LADO = 2048;
+    private static final MethodHandle IMAGEN = Casos.metodo("imagen", Object.class, int.class, int.class);
+    private static final MethodHandle DIBUJA_ARISTAS =
+            Casos.metodo("dibujaAristas", Object.class, Object.class, Object.class);
+    private static final MethodHandle DIBUJA_VERTICES =
+            Casos.metodo("dibujaVertices", Object.class, Object.class, Object.class);
+
+    private Object imagen;
+
+    /**
+     * Crea la imagen donde se dibuja.
+     * @throws Throwable Lo que lance CasosRendimiento.
+     */
+    @Setup
+    public void creaImagen() throws Throwable {
+        imagen = (Object) IMAGEN.invokeExact(LADO, LADO);
+    }
+
+    /**
+     * @return La imagen con todas las aristas.
+     */
+    @Benchmark
+    public Object dibujaAristas(GrafoAleatorio grafo) throws Throwable {
+        return (Object) DIBUJA_ARISTAS.invokeExact(grafo.modelo, imagen);
+    }
+
+    /**
+     * @return La imagen con todos los vértices.
+     */
+    @Benchmark
+    public Object dibujaVertices(GrafoAleatorio grafo) throws Throwable {
+        return (Object) DIBUJA_VERTICES.invokeExact(grafo.modelo, imagen);
+    }
+}
@@ -0,0 +1,236 @@
+/**
+ * Representación del grafo en formato CSR (Compressed Sparse Row).
+ * Los vecinos de cada vértice se guardan de forma contigua en un solo arreglo de enteros, el vértice u tiene sus
+ * vecinos en las posiciones [desplazamientos[u], desplazamientos[u + 1]) de los arreglos vecinos y pesos.
+ * A diferencia de la matriz de adyacencia ocupa memoria O(V + E) y no necesita objetos Integer.
+ * Como el grafo es no dirigido, cada arista aparece dos veces: una en la fila de cada extremo.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class AdyacenciaCSR {
+    private final int dimension;
+    private final int[] desplazamientos;
+    private final int[] vecinos;
+    private final int[] pesos;
+    // Índice (en el arreglo de aristas de entrada) de la arista guardada en cada posición.
+    private final int[] aristas;
+    // Lista de aristas con la que se construyó, algoritmos como Kruskal trabajan directamente con ella.
+    private final int numAristas;
+    private final int[] origenes;
+    private final int[] destinos;
+    private final int[] pesosAristas;
+    // Posición de cada arista dentro del modelo del grafo, null si coincide con su índice.
+    private final int[] ranuras;
+
+    /**
+     * Construye la representación CSR a partir de la lista de aristas en O(V + E).
+     * Las filas quedan ordenadas por el índice del vecino, así los recorridos visitan a los vecinos en el mismo orden
+     * en que lo hacía la matriz de adyacencia.
+     * @param dimension El número de vértices.
+     * @param origenes El índice del vértice de origen de cada arista.
+     * @param destinos El índice del vértice de destino de cada arista.
+     * @param pesosAristas El peso de cada arista.
+     * @param numAristas El número de aristas a tomar de los arreglos.
+     */
+    public AdyacenciaCSR(int dimension, int[] origenes, int[] destinos, int[] pesosAristas, int numAristas) {
+        this(dimension, origenes, destinos, pesosAristas, numAristas, null);
+    }
+
+    /**
+     * Construye la representación CSR recordando en qué posición del modelo está cada arista.
+     * @param dimension El número de vértices.
+     * @param origenes El índice del vértice de origen de cada arista.
+     * @param destinos El índice del vértice de destino de cada arista.
+     * @param pesosAristas El peso de cada arista.
+     * @param numAristas El número de aristas a tomar de los arreglos.
+     * @param ranuras La posición en el modelo de cada arista, o null si coincide con su índice.
+     */
+    public AdyacenciaCSR(int dimension, int[] origenes, int[] destinos, int[] pesosAristas, int numAristas, int[] ranuras) {
+        this.dimension = dimension;
+        this.ranuras = ranuras;
+        this.numAristas = numAristas;
+        this.origenes = origenes;
+        this.destinos = destinos;
+        this.pesosAristas = pesosAristas;
+        this.desplazamientos = new int[dimension + 1];
+        this.vecinos = new int[2 * numAristas];
+        this.pesos = new int[2 * numAristas];
+        this.aristas = new int[2 * numAristas];
+
+        // Primera pasada: se ordenan las medias aristas por su destino (counting sort).
+        int[] conteo = new int[dimension + 1];
+        for (int i = 0; i < numAristas; i++) {
+            conteo[origenes[i] + 1]++;
+            conteo[destinos[i] + 1]++;
+        }
+        for (int i = 0; i < dimension; i++) {
+            conteo[i + 1] += conteo[i];
+        }
+        int[] porDestinoOrigen = new int[2 * numAristas];
+        int[] porDestinoPeso = new int[2 * numAristas];
+        int[] porDestinoVecino = new int[2 * numAristas];
+        int[] porDestinoArista = new int[2 * numAristas];
+        for (int i = 0; i < numAristas; i++) {
+            int j = conteo[destinos[i]]++;
+            porDestinoOrigen[j] = origenes[i];
+            porDestinoVecino[j] = destinos[i];
+            porDestinoPeso[j] = pesosAristas[i];
+            porDestinoArista[j] = i;
+            j = conteo[origenes[i]]++;
+            porDestinoOrigen[j] = destinos[i];
+            porDestinoVecino[j] = origenes[i];
+            porDestinoPeso[j] = pesosAristas[i];
+            porDestinoArista[j] = i;
+        }
+
+        // Segunda pasada: se distribuyen por su origen, al ser estable cada fila queda ordenada por vecino.
+        for (int i = 0; i < 2 * numAristas; i++) {
+            desplazamientos[porDestinoOrigen[i] + 1]++;
+        }
+        for (int i = 0; i < dimension; i++) {
+            desplazamientos[i + 1] += desplazamientos[i];
+        }
+        int[] siguiente = new int[dimension];
+        System.arraycopy(desplazamientos, 0, siguiente, 0, dimension);
+        for (int i = 0; i < 2 * numAristas; i++) {
+            int j = siguiente[porDestinoOrigen[i]]++;
+            vecinos[j] = porDestinoVecino[i];
+            pesos[j] = porDestinoPeso[i];
+            aristas[j] = porDestinoArista[i];
+        }
+    }
+
+    /**
+     * Usa una representación CSR ya construida, por ejemplo leída de un archivo, sin copiar ni revisar los arreglos.
+     * @param desplazamientos La primera posición de los vecinos de cada vértice, con una posición final extra.
+     * @param vecinos El vecino guardado en cada posición.
+     * @param pesos El peso de la arista guardada en cada posición.
+     * @param aristas El índice de la arista guardada en cada posición.
+     * @param origenes El índice del vértice de origen de cada arista.
+     * @param destinos El índice del vértice de destino de cada arista.
+     * @param pesosAristas El peso de cada arista.
+     * @param numAristas El número de aristas.
+     * @param ranuras La posición en el modelo de cada arista, o null si coincide con su índice.
+     */
+    public AdyacenciaCSR(int[] desplazamientos, int[] vecinos, int[] pesos, int[] aristas,
+                         int[] origenes, int[] destinos, int[] pesosAristas, int numAristas, int[] ranuras) {
+        this.dimension = desplazamientos.length - 1;
+        this.desplazamientos = desplazamientos;
+        this.vecinos = vecinos;
+        this.pesos = pesos;
+        this.aristas = aristas;
+        this.origenes = origenes;
+        this.destinos = destinos;
+        this.pesosAristas = pesosAristas;
+        this.numAristas = numAristas;
+        this.ranuras = ranuras;
+    }
+
+    /**
+     * @return El número de vértices representados.
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * @return El número de aristas representadas.
+     */
+    public int getNumAristas() {
+        return numAristas;
+    }
+
+    /**
+     * @param arista El índice de la arista.
+     * @return El índice del vértice de origen de la arista.
+     */
+    public int origen(int arista) {
+        return origenes[arista];
+    }
+
+    /**
+     * @param arista El índice de la arista.
+     * @return El índice del vértice de destino de la arista.
+     */
+    public int destino(int arista) {
+        return destinos[arista];
+    }
+
+    /**
+     * @param arista El índice de la arista.
+     * @return El peso de la arista.
+     */
+    public int pesoDe(int arista) {
+        return pesosAristas[arista];
+    }
+
+    /**
+     * @param arista El índice de la arista en esta representación.
+     * @return La posición de la arista en el modelo del grafo.
+     */
+    public int ranuraArista(int arista) {
+        return ranuras == null ? arista : ranuras[arista];
+    }
+
+    /**
+     * @param vertice El índice del vértice.
+     * @return La primera posición de los vecinos del vértice.
+     */
+    public int inicioVecinos(int vertice) {
+        return desplazamientos[vertice];
+    }
+
+    /**
+     * @param vertice El índice del vértice.
+     * @return La posición siguiente a la del último vecino del vértice.
+     */
+    public int finVecinos(int vertice) {
+        return desplazamientos[vertice + 1];
+    }
+
+    /**
+     * @param posicion Una posición entre inicioVecinos y finVecinos.
+     * @return El índice del vecino guardado en esa posición.
+     */
+    public int vecino(int posicion) {
+        return vecinos[posicion];
+    }
+
+    /**
+     * @param posicion Una posición entre inicioVecinos y finVecinos.
+     * @return El peso de la arista guardada en esa posición.
+     */
+    public int peso(int posicion) {
+        return pesos[posicion];
+    }
+
+    /**
+     * @param posicion Una posición entre inicioVecinos y finVecinos.
+     * @return El índice de la arista guardada en esa posición.
+     */
+    public int arista(int posicion) {
+        return aristas[posicion];
+    }
+
+    /**
+     * Obtiene el peso de la arista entre dos vértices, como cada fila está ordenada se usa búsqueda binaria.
+     * @param origen El índice del vértice de origen.
+     * @param destino El índice del vértice de destino.
+     * @return El peso de la arista, o 0 si los vértices no están conectados.
+     */
+    public int pesoArista(int origen, int destino) {
+        int bajo = desplazamientos[origen];
+        int alto = desplazamientos[origen + 1] - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (vecinos[medio] < destino) {
+                bajo = medio + 1;
+            } else if (vecinos[medio] > destino) {
+                alto = medio - 1;
+            } else {
+                return pesos[medio];
+            }
+        }
+        return 0;
+    }
+}
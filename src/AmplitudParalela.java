@@ -0,0 +1,177 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Recorrido en amplitud paralelo por niveles que optimiza la dirección (direction-optimizing BFS).
+ * La frontera de cada nivel es un bitmap. Cuando la frontera es pequeña se expande de arriba hacia abajo: cada vértice
+ * de la frontera reclama a sus vecinos no visitados con compareAndSet. Cuando la frontera es grande conviene ir de
+ * abajo hacia arriba: cada vértice no visitado busca entre sus vecinos a uno que esté en la frontera y se detiene al
+ * primero, así se revisan muchas menos aristas en grafos anchos con diámetro pequeño. En ese modo cada tarea es dueña
+ * de palabras completas del bitmap, por lo que no hay contención.
+ * Los vértices se entregan nivel por nivel y, dentro de cada nivel, por índice; el padre de cada vértice puede ser
+ * distinto al del recorrido secuencial, pero siempre está en el nivel anterior. Cada tarea cuenta las aristas que
+ * revisa y las suma una vez al terminar su palabra del bitmap.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class AmplitudParalela {
+    // Parámetros de la heurística de Beamer para cambiar de dirección.
+    private static final int ALFA = 14;
+    private static final int BETA = 24;
+
+    private final AdyacenciaCSR adyacencia;
+    private final int palabras;
+    private final AtomicLongArray visitados;
+    private final int[] aristaPadre;
+    private final LongAdder aristasRevisadas = new LongAdder();
+
+    private AmplitudParalela(AdyacenciaCSR adyacencia) {
+        this.adyacencia = adyacencia;
+        this.palabras = (adyacencia.getDimension() + 63) >>> 6;
+        this.visitados = new AtomicLongArray(palabras);
+        this.aristaPadre = new int[adyacencia.getDimension()];
+    }
+
+    /**
+     * Recorre en amplitud a partir del vértice dado.
+     * @param adyacencia La representación CSR del grafo.
+     * @param inicio El índice del vértice de partida.
+     * @param control Recibe el avance y permite cancelar el recorrido.
+     * @return El orden de visita por niveles y las aristas del árbol.
+     */
+    public static ResultadoRecorrido amplitud(AdyacenciaCSR adyacencia, int inicio, ControlEjecucion control) {
+        return new AmplitudParalela(adyacencia).ejecuta(inicio, control);
+    }
+
+    private ResultadoRecorrido ejecuta(int inicio, ControlEjecucion control) {
+        int dimension = adyacencia.getDimension();
+        control.inicia(dimension);
+        ResultadoRecorrido resultado = new ResultadoRecorrido(dimension);
+        long[] frontera = new long[palabras];
+        frontera[inicio >>> 6] |= 1L << inicio;
+        visitados.set(inicio >>> 6, 1L << inicio);
+        resultado.agregaVertice(inicio);
+
+        long aristasFrontera = grado(inicio);
+        long aristasSinExplorar = 2L * adyacencia.getNumAristas() - aristasFrontera;
+        long verticesFrontera = 1;
+        boolean haciaArriba = false;
+        while (verticesFrontera > 0) {
+            control.avanza(resultado.getNumVertices());
+            if (!haciaArriba && aristasFrontera > aristasSinExplorar / ALFA) {
+                haciaArriba = true;
+            } else if (haciaArriba && verticesFrontera < dimension / BETA) {
+                haciaArriba = false;
+            }
+            long[] siguiente = haciaArriba ? pasoHaciaArriba(frontera) : pasoHaciaAbajo(frontera);
+
+            verticesFrontera = 0;
+            aristasFrontera = 0;
+            for (int p = 0; p < palabras; p++) {
+                long palabra = siguiente[p];
+                while (palabra != 0) {
+                    int v = (p << 6) | Long.numberOfTrailingZeros(palabra);
+                    palabra &= palabra - 1;
+                    resultado.agregaVertice(v);
+                    resultado.agregaArista(aristaPadre[v]);
+                    verticesFrontera++;
+                    aristasFrontera += grado(v);
+                }
+            }
+            aristasSinExplorar -= aristasFrontera;
+            frontera = siguiente;
+        }
+        control.registra(MetricasAlgoritmo.VERTICES_ASENTADOS, resultado.getNumVertices());
+        control.registra(MetricasAlgoritmo.ARISTAS_REVISADAS, aristasRevisadas.sum());
+        return resultado;
+    }
+
+    /**
+     * Expande la frontera de arriba hacia abajo, los vértices de la frontera reclaman a sus vecinos.
+     * @param frontera El bitmap de la frontera actual.
+     * @return El bitmap de la siguiente frontera.
+     */
+    private long[] pasoHaciaAbajo(long[] frontera) {
+        AtomicLongArray siguiente = new AtomicLongArray(palabras);
+        IntStream.range(0, palabras).parallel().forEach(p -> {
+            long palabra = frontera[p];
+            long revisadas = 0;
+            while (palabra != 0) {
+                int u = (p << 6) | Long.numberOfTrailingZeros(palabra);
+                palabra &= palabra - 1;
+                revisadas += grado(u);
+                for (int k = adyacencia.inicioVecinos(u); k < adyacencia.finVecinos(u); k++) {
+                    int v = adyacencia.vecino(k);
+                    if (reclama(v)) {
+                        aristaPadre[v] = adyacencia.arista(k);
+                        siguiente.getAndAccumulate(v >>> 6, 1L << v, (a, b) -> a | b);
+                    }
+                }
+            }
+            aristasRevisadas.add(revisadas);
+        });
+        long[] resultado = new long[palabras];
+        for (int p = 0; p < palabras; p++) {
+            resultado[p] = siguiente.get(p);
+        }
+        return resultado;
+    }
+
+    /**
+     * Expande la frontera de abajo hacia arriba, cada vértice no visitado busca un padre en la frontera.
+     * @param frontera El bitmap de la frontera actual.
+     * @return El bitmap de la siguiente frontera.
+     */
+    private long[] pasoHaciaArriba(long[] frontera) {
+        long[] siguiente = new long[palabras];
+        int dimension = adyacencia.getDimension();
+        IntStream.range(0, palabras).parallel().forEach(p -> {
+            long noVisitados = ~visitados.get(p);
+            long nuevos = 0;
+            long revisadas = 0;
+            while (noVisitados != 0) {
+                int v = (p << 6) | Long.numberOfTrailingZeros(noVisitados);
+                noVisitados &= noVisitados - 1;
+                if (v >= dimension) {
+                    break;
+                }
+                for (int k = adyacencia.inicioVecinos(v); k < adyacencia.finVecinos(v); k++) {
+                    int u = adyacencia.vecino(k);
+                    revisadas++;
+                    if ((frontera[u >>> 6] & (1L << u)) != 0) {
+                        aristaPadre[v] = adyacencia.arista(k);
+                        nuevos |= 1L << v;
+                        break;
+                    }
+                }
+            }
+            siguiente[p] = nuevos;
+            aristasRevisadas.add(revisadas);
+            visitados.set(p, visitados.get(p) | nuevos);
+        });
+        return siguiente;
+    }
+
+    /**
+     * Marca al vértice como visitado si nadie lo había hecho.
+     * @param vertice El índice del vértice.
+     * @return true si este hilo lo marcó.
+     */
+    private boolean reclama(int vertice) {
+        int p = vertice >>> 6;
+        long bit = 1L << vertice;
+        long actual = visitados.get(p);
+        while ((actual & bit) == 0) {
+            if (visitados.compareAndSet(p, actual, actual | bit)) {
+                return true;
+            }
+            actual = visitados.get(p);
+        }
+        return false;
+    }
+
+    private int grado(int vertice) {
+        return adyacencia.finVecinos(vertice) - adyacencia.inicioVecinos(vertice);
+    }
+}
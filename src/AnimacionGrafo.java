@@ -0,0 +1,297 @@
+import jdk.jfr.FlightRecorder;
+
+import javax.swing.Timer;
+import java.awt.Color;
+
+/**
+ * Reproduce una lista de cambios de color sobre el grafo con un Timer de Swing, sin hilos ni esperas.
+ * Cada cambio es un entero con el índice del elemento, si es vértice o arista y la posición de su color en una
+ * paleta, así una animación de millones de pasos cabe en un arreglo de enteros y los colores no se vuelven a
+ * interpretar en cada paso. En cada tic del Timer se aplican los cambios que tocan según el tiempo transcurrido y
+ * la velocidad, varios por cuadro si la velocidad es alta.
+ * Solo hay una animación a la vez: empezar otra o cancelarla detiene la anterior en el paso en que iba.
+ * También se puede retroceder: deshacer un cambio devuelve al elemento el color que le dio el cambio anterior
+ * sobre él, o el original del grafo si no lo hubo.
+ * Si Java Flight Recorder está iniciado, cada reproducción se registra como un EventoAnimacion.
+ * Todos los métodos deben llamarse desde el Event Dispatch Thread.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class AnimacionGrafo {
+    /**
+     * Pasos por segundo a velocidad 1, el mismo medio segundo por cambio que tenía la animación original.
+     */
+    public static final double PASOS_POR_SEGUNDO = 2;
+    /**
+     * Cuántos colores caben en una paleta.
+     */
+    public static final int MAX_COLORES = 8;
+    private static final int BITS_COLOR = 3;
+    private static final int INTERVALO_MINIMO = 1000 / 60;
+
+    private final Grafo grafo;
+    private final Timer temporizador = new Timer(INTERVALO_MINIMO, e -> avanza());
+    private int[] cambios = new int[0];
+    private Color[] paleta = new Color[0];
+    private Runnable alTerminar;
+    private int siguiente;
+    private double velocidad = 1;
+    // Fracción de paso que quedó pendiente del último tic, para no perder tiempo al redondear.
+    private double pasosAcumulados;
+    private long ultimoTic;
+    private boolean pausada;
+    // La reproducción en curso, null si ya terminó o si Java Flight Recorder no está iniciado.
+    private EventoAnimacion registro;
+
+    /**
+     * Crea el reproductor de animaciones de un grafo.
+     * @param grafo El grafo cuyos elementos se colorean.
+     */
+    public AnimacionGrafo(Grafo grafo) {
+        this.grafo = grafo;
+    }
+
+    /**
+     * @param vertice El índice del vértice.
+     * @param color La posición del color en la paleta.
+     * @return El cambio que colorea el vértice.
+     */
+    public static int cambioVertice(int vertice, int color) {
+        return vertice << (BITS_COLOR + 1) | color << 1;
+    }
+
+    /**
+     * @param arista El índice de la arista.
+     * @param color La posición del color en la paleta.
+     * @return El cambio que colorea la arista y su peso.
+     */
+    public static int cambioArista(int arista, int color) {
+        return arista << (BITS_COLOR + 1) | color << 1 | 1;
+    }
+
+    /**
+     * Cancela la animación en curso y empieza a reproducir la nueva desde el primer cambio, que se aplica de
+     * inmediato.
+     * @param cambios Los cambios, creados con cambioVertice() y cambioArista().
+     * @param paleta Los colores a los que se refieren los cambios, como mucho MAX_COLORES.
+     * @param alTerminar Se ejecuta al aplicar el último cambio, no si se cancela; puede ser null.
+     */
+    public void reproduce(int[] cambios, Color[] paleta, Runnable alTerminar) {
+        if (paleta.length > MAX_COLORES) {
+            throw new IllegalArgumentException("La paleta tiene más de " + MAX_COLORES + " colores");
+        }
+        cancela();
+        if (FlightRecorder.isInitialized()) {
+            registro = new EventoAnimacion();
+            registro.begin();
+        }
+        this.cambios = cambios;
+        this.paleta = paleta;
+        this.alTerminar = alTerminar;
+        pausada = false;
+        pasosAcumulados = 1;
+        ultimoTic = System.nanoTime();
+        avanza();
+        if (siguiente < cambios.length) {
+            temporizador.start();
+        }
+    }
+
+    /**
+     * Detiene la animación en el paso en que iba, los elementos se quedan con sus colores actuales.
+     */
+    public void cancela() {
+        temporizador.stop();
+        terminaRegistro(true);
+        cambios = new int[0];
+        alTerminar = null;
+        siguiente = 0;
+    }
+
+    /**
+     * Detiene la animación hasta que se llame a reanuda(); mientras tanto se puede avanzar con paso().
+     */
+    public void pausa() {
+        pausada = true;
+        temporizador.stop();
+    }
+
+    /**
+     * Continúa la animación pausada.
+     */
+    public void reanuda() {
+        pausada = false;
+        if (siguiente < cambios.length) {
+            pasosAcumulados = 0;
+            ultimoTic = System.nanoTime();
+            temporizador.start();
+        }
+    }
+
+    /**
+     * Pausa la animación y aplica un solo cambio.
+     */
+    public void paso() {
+        pausa();
+        aplica(1);
+    }
+
+    /**
+     * Pausa la animación y deshace el último cambio aplicado.
+     */
+    public void retrocede() {
+        irAPaso(siguiente - 1);
+    }
+
+    /**
+     * Pausa la animación y la deja como si se hubieran aplicado exactamente los primeros cambios indicados.
+     * Avanzar solo aplica los que faltan; retroceder un paso busca el color anterior del elemento y retroceder más
+     * devuelve su color original a lo que se deshace y vuelve a aplicar desde el principio.
+     * @param paso El número de cambios aplicados, se ajusta al rango de 0 a getNumPasos().
+     */
+    public void irAPaso(int paso) {
+        pausa();
+        paso = Math.max(0, Math.min(paso, cambios.length));
+        if (paso >= siguiente) {
+            aplica(paso - siguiente);
+        } else if (paso == siguiente - 1) {
+            siguiente = paso;
+            int cambio = cambios[paso];
+            int anterior = paso - 1;
+            while (anterior >= 0 && elemento(cambios[anterior]) != elemento(cambio)) {
+                anterior--;
+            }
+            pinta(cambio, anterior >= 0 ? color(cambios[anterior]) : null);
+        } else {
+            for (int i = paso; i < siguiente; i++) {
+                pinta(cambios[i], null);
+            }
+            siguiente = 0;
+            aplica(paso);
+        }
+    }
+
+    /**
+     * Aplica de una vez todos los cambios que faltan.
+     */
+    public void saltaAlFinal() {
+        temporizador.stop();
+        aplica(cambios.length - siguiente);
+    }
+
+    /**
+     * @return true si la animación está pausada.
+     */
+    public boolean isPausada() {
+        return pausada;
+    }
+
+    /**
+     * @return true si quedan cambios por aplicar.
+     */
+    public boolean estaActiva() {
+        return siguiente < cambios.length;
+    }
+
+    /**
+     * @return Cuántos cambios se han aplicado de la animación actual.
+     */
+    public int getPasoActual() {
+        return siguiente;
+    }
+
+    /**
+     * @return Cuántos cambios tiene la animación actual.
+     */
+    public int getNumPasos() {
+        return cambios.length;
+    }
+
+    /**
+     * @return El multiplicador de PASOS_POR_SEGUNDO con que se reproduce la animación.
+     */
+    public double getVelocidad() {
+        return velocidad;
+    }
+
+    /**
+     * Cambia la velocidad, también la de la animación en curso. A velocidades bajas el Timer espera lo que dura
+     * un paso en lugar de despertar en cada cuadro.
+     * @param velocidad El multiplicador de PASOS_POR_SEGUNDO, mayor a 0.
+     */
+    public void setVelocidad(double velocidad) {
+        if (!(velocidad > 0)) {
+            throw new IllegalArgumentException("La velocidad debe ser mayor a 0");
+        }
+        this.velocidad = velocidad;
+        temporizador.setDelay((int) Math.max(INTERVALO_MINIMO, 1000 / (PASOS_POR_SEGUNDO * velocidad)));
+    }
+
+    /**
+     * Aplica los cambios que corresponden al tiempo transcurrido desde el tic anterior.
+     */
+    private void avanza() {
+        long ahora = System.nanoTime();
+        pasosAcumulados += (ahora - ultimoTic) / 1e9 * PASOS_POR_SEGUNDO * velocidad;
+        ultimoTic = ahora;
+        int pasos = (int) Math.min(pasosAcumulados, cambios.length - siguiente);
+        pasosAcumulados -= pasos;
+        aplica(pasos);
+    }
+
+    private void aplica(int pasos) {
+        int fin = Math.min(cambios.length, siguiente + pasos);
+        for (; siguiente < fin; siguiente++) {
+            pinta(cambios[siguiente], color(cambios[siguiente]));
+        }
+        if (cambios.length > 0 && siguiente == cambios.length) {
+            temporizador.stop();
+            terminaRegistro(false);
+            Runnable terminado = alTerminar;
+            alTerminar = null;
+            if (terminado != null) {
+                terminado.run();
+            }
+        }
+    }
+
+    /**
+     * Termina y registra el evento de la reproducción en curso, si lo hay.
+     * @param cancelada true si la animación se detuvo antes de aplicar su último cambio.
+     */
+    private void terminaRegistro(boolean cancelada) {
+        if (registro == null) {
+            return;
+        }
+        registro.end();
+        if (registro.shouldCommit()) {
+            registro.cambios = cambios.length;
+            registro.pasos = siguiente;
+            registro.cancelada = cancelada;
+            registro.commit();
+        }
+        registro = null;
+    }
+
+    // El cambio sin su color: dice solo a qué vértice o arista se aplica.
+    private static int elemento(int cambio) {
+        return cambio & ~((MAX_COLORES - 1) << 1);
+    }
+
+    private Color color(int cambio) {
+        return paleta[(cambio >>> 1) & (MAX_COLORES - 1)];
+    }
+
+    /**
+     * Colorea el elemento del cambio; con null le devuelve su color original, explícito para que siga entre los
+     * resaltados y no se agregue de nuevo a la lista si se vuelve a colorear.
+     */
+    private void pinta(int cambio, Color color) {
+        int indice = cambio >>> (BITS_COLOR + 1);
+        if ((cambio & 1) == 0) {
+            grafo.setColorVertice(indice, color != null ? color : Grafo.COLOR_VERTICE);
+        } else {
+            grafo.setColorArista(indice, color != null ? color : Grafo.COLOR_ARISTA);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,342 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Lectura y escritura de grafos en archivos, sin depender de Swing para poder usarse en servidores sin pantalla.
+ * Los formatos de texto (lista de aristas, DIMACS y GraphML) los lee ImportadorGrafo.
+ * <p>
+ * El formato binario (extensión .grafo) guarda el modelo tal como se usa en memoria, para que un grafo grande se
+ * abra sin interpretar nada: cada sección se proyecta con FileChannel.map y se copia de un golpe a su arreglo.
+ * Todos los enteros son de 32 bits en little-endian. Después de un encabezado de 32 bytes (identificador "GRAF",
+ * versión, número de vértices, número de aristas y bytes de los IDs) vienen, en orden:
+ * <ol>
+ *     <li>la tabla de IDs: dónde empieza cada ID (V + 1 enteros) y los IDs en UTF-8, rellenos hasta múltiplo de 4;</li>
+ *     <li>las coordenadas x y después las y de los vértices (V enteros cada una);</li>
+ *     <li>el origen, el destino y el peso de cada arista (E enteros cada uno);</li>
+ *     <li>la adyacencia CSR: desplazamientos (V + 1), vecinos, pesos e índice de arista (2E enteros cada uno).</li>
+ * </ol>
+ * Al guardar se omiten las posiciones de los elementos eliminados, así los índices del archivo son consecutivos.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class ArchivoGrafo {
+    /**
+     * Distancia entre los vértices de la cuadrícula donde se acomodan los vértices leídos.
+     */
+    public static final int SEPARACION = 60;
+    /**
+     * Extensión de los archivos en el formato binario.
+     */
+    public static final String EXTENSION = "grafo";
+    private static final int MAGIA = 0x46415247;
+    private static final int VERSION = 1;
+    private static final int TAMANO_ENCABEZADO = 32;
+    // Cuántos enteros se copian por proyección, así ninguna pasa del límite de 2 GB de un MappedByteBuffer.
+    private static final int ENTEROS_POR_PROYECCION = 1 << 28;
+
+    private ArchivoGrafo() {
+    }
+
+    /**
+     * Lee un grafo en el formato binario o, si el archivo no empieza con su identificador, en el formato de texto que
+     * corresponde a su extensión.
+     * @param archivo La ruta del archivo.
+     * @return Un modelo nuevo con el grafo del archivo.
+     * @throws IOException Si no se pudo leer el archivo o no tiene el formato esperado.
+     */
+    public static ModeloGrafo lee(Path archivo) throws IOException {
+        return esBinario(archivo) ? leeBinario(archivo) : ImportadorGrafo.lee(archivo);
+    }
+
+    /**
+     * @param archivo La ruta del archivo.
+     * @return true si el archivo empieza con el identificador del formato binario.
+     * @throws IOException Si no se pudo leer el archivo.
+     */
+    public static boolean esBinario(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer magia = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (magia.hasRemaining() && canal.read(magia) != -1) {
+                // Se sigue leyendo hasta tener los 4 bytes o llegar al final.
+            }
+            return !magia.hasRemaining() && magia.getInt(0) == MAGIA;
+        }
+    }
+
+    /**
+     * Guarda el grafo en el formato binario. Se escribe primero un archivo temporal junto al destino y después se
+     * reemplaza, así un error a medio camino no deja el archivo anterior a medias.
+     * @param modelo El modelo a guardar.
+     * @param archivo La ruta del archivo.
+     * @throws IOException Si no se pudo escribir el archivo.
+     */
+    public static void escribeBinario(ModeloGrafo modelo, Path archivo) throws IOException {
+        escribeBinario(modelo, modelo.adyacencia(), archivo);
+    }
+
+    /**
+     * Guarda en el formato binario los vértices de un modelo y las aristas de una representación CSR con los mismos
+     * índices de vértices. Sirve para guardar en otro hilo: los vértices pueden venir de ModeloGrafo.copiaVertices()
+     * y la adyacencia de ModeloGrafo.preparaAdyacencia(), tomados juntos en el Event Dispatch Thread, y las aristas
+     * del archivo salen todas de la adyacencia, así no se mezclan con cambios posteriores del modelo.
+     * @param vertices El modelo del que se toman los vértices, sus aristas se ignoran.
+     * @param adyacencia La representación CSR de la que se toman las aristas.
+     * @param archivo La ruta del archivo.
+     * @throws IOException Si no se pudo escribir el archivo.
+     */
+    public static void escribeBinario(ModeloGrafo vertices, AdyacenciaCSR adyacencia, Path archivo)
+            throws IOException {
+        int numVertices = vertices.getNumVertices();
+        int numAristas = adyacencia.getNumAristas();
+        // Los vértices eliminados dejan huecos en el modelo; en el archivo los índices son consecutivos.
+        int[] nuevoIndice = new int[vertices.getNumRanurasVertices()];
+        int[] xs = new int[numVertices];
+        int[] ys = new int[numVertices];
+        int[] inicioIDs = new int[numVertices + 1];
+        ByteArrayOutputStream bytesIDs = new ByteArrayOutputStream();
+        int v = 0;
+        for (int vertice = 0; vertice < vertices.getNumRanurasVertices(); vertice++) {
+            if (vertices.existeVertice(vertice)) {
+                nuevoIndice[vertice] = v;
+                xs[v] = vertices.getX(vertice);
+                ys[v] = vertices.getY(vertice);
+                bytesIDs.writeBytes(vertices.getID(vertice).getBytes(StandardCharsets.UTF_8));
+                inicioIDs[++v] = bytesIDs.size();
+            }
+        }
+        // Las aristas de la adyacencia ya son consecutivas, en el mismo orden que en el modelo.
+        int[] origenes = new int[numAristas];
+        int[] destinos = new int[numAristas];
+        int[] pesos = new int[numAristas];
+        for (int arista = 0; arista < numAristas; arista++) {
+            origenes[arista] = nuevoIndice[adyacencia.origen(arista)];
+            destinos[arista] = nuevoIndice[adyacencia.destino(arista)];
+            pesos[arista] = adyacencia.pesoDe(arista);
+        }
+        AdyacenciaCSR csr = numVertices == vertices.getNumRanurasVertices()
+                ? adyacencia
+                : new AdyacenciaCSR(numVertices, origenes, destinos, pesos, numAristas);
+
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bufer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            bufer.putInt(MAGIA).putInt(VERSION).putInt(numVertices).putInt(numAristas).putInt(bytesIDs.size());
+            bufer.position(TAMANO_ENCABEZADO);
+            escribeEnteros(canal, bufer, inicioIDs, numVertices + 1);
+            byte[] ids = Arrays.copyOf(bytesIDs.toByteArray(), alinea(bytesIDs.size()));
+            for (int i = 0; i < ids.length; ) {
+                vacia(canal, bufer);
+                int parte = Math.min(bufer.remaining(), ids.length - i);
+                bufer.put(ids, i, parte);
+                i += parte;
+            }
+            escribeEnteros(canal, bufer, xs, numVertices);
+            escribeEnteros(canal, bufer, ys, numVertices);
+            escribeEnteros(canal, bufer, origenes, numAristas);
+            escribeEnteros(canal, bufer, destinos, numAristas);
+            escribeEnteros(canal, bufer, pesos, numAristas);
+            for (int vertice = 0; vertice <= numVertices; vertice++) {
+                escribeEntero(canal, bufer, vertice < numVertices ? csr.inicioVecinos(vertice) : 2 * numAristas);
+            }
+            for (int k = 0; k < 2 * numAristas; k++) {
+                escribeEntero(canal, bufer, csr.vecino(k));
+            }
+            for (int k = 0; k < 2 * numAristas; k++) {
+                escribeEntero(canal, bufer, csr.peso(k));
+            }
+            for (int k = 0; k < 2 * numAristas; k++) {
+                escribeEntero(canal, bufer, csr.arista(k));
+            }
+            bufer.flip();
+            while (bufer.hasRemaining()) {
+                canal.write(bufer);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Lee un grafo en el formato binario. Cada sección se proyecta en memoria y se copia entera a su arreglo; lo
+     * único que se recorre es la tabla de IDs, para crear sus cadenas, y los índices, para rechazar un archivo
+     * dañado antes de que un algoritmo se salga de sus arreglos.
+     * @param archivo La ruta del archivo.
+     * @return Un modelo nuevo con el grafo del archivo y su adyacencia ya construida.
+     * @throws IOException Si no se pudo leer el archivo o no está en el formato binario.
+     */
+    public static ModeloGrafo leeBinario(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            if (canal.size() < TAMANO_ENCABEZADO) {
+                throw new IOException("El archivo es demasiado corto para ser un grafo binario");
+            }
+            ByteBuffer encabezado = canal.map(FileChannel.MapMode.READ_ONLY, 0, TAMANO_ENCABEZADO)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (encabezado.getInt(0) != MAGIA) {
+                throw new IOException("El archivo no es un grafo binario");
+            }
+            int version = encabezado.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Versión " + version + " del formato no soportada, se esperaba " + VERSION);
+            }
+            int numVertices = encabezado.getInt(8);
+            int numAristas = encabezado.getInt(12);
+            int numBytesIDs = encabezado.getInt(16);
+            if (numVertices < 0 || numAristas < 0 || numBytesIDs < 0) {
+                throw new IOException("Encabezado dañado");
+            }
+            long tamano = TAMANO_ENCABEZADO + 4L * (numVertices + 1) + alinea(numBytesIDs) + 8L * numVertices
+                    + 12L * numAristas + 4L * (numVertices + 1) + 24L * numAristas;
+            if (canal.size() != tamano) {
+                throw new IOException("El archivo mide " + canal.size() + " bytes y debería medir " + tamano);
+            }
+
+            long posicion = TAMANO_ENCABEZADO;
+            int[] inicioIDs = leeEnteros(canal, posicion, numVertices + 1, 0);
+            posicion += 4L * (numVertices + 1);
+            byte[] bytesIDs = new byte[numBytesIDs];
+            if (numBytesIDs > 0) {
+                canal.map(FileChannel.MapMode.READ_ONLY, posicion, numBytesIDs).get(bytesIDs);
+            }
+            posicion += alinea(numBytesIDs);
+            // Los arreglos del modelo tienen al menos 16 posiciones para que agregar elementos después funcione.
+            int capacidad = 16;
+            int[] xs = leeEnteros(canal, posicion, numVertices, capacidad);
+            posicion += 4L * numVertices;
+            int[] ys = leeEnteros(canal, posicion, numVertices, capacidad);
+            posicion += 4L * numVertices;
+            int[] origenes = leeEnteros(canal, posicion, numAristas, 0);
+            posicion += 4L * numAristas;
+            int[] destinos = leeEnteros(canal, posicion, numAristas, 0);
+            posicion += 4L * numAristas;
+            int[] pesos = leeEnteros(canal, posicion, numAristas, 0);
+            posicion += 4L * numAristas;
+            int[] desplazamientos = leeEnteros(canal, posicion, numVertices + 1, 0);
+            posicion += 4L * (numVertices + 1);
+            int[] vecinos = leeEnteros(canal, posicion, 2 * numAristas, 0);
+            posicion += 8L * numAristas;
+            int[] pesosCSR = leeEnteros(canal, posicion, 2 * numAristas, 0);
+            posicion += 8L * numAristas;
+            int[] aristasCSR = leeEnteros(canal, posicion, 2 * numAristas, 0);
+
+            String[] ids = new String[Math.max(numVertices, capacidad)];
+            for (int v = 0; v < numVertices; v++) {
+                if (inicioIDs[v] < 0 || inicioIDs[v] > inicioIDs[v + 1] || inicioIDs[v + 1] > numBytesIDs) {
+                    throw new IOException("Tabla de IDs dañada en el vértice " + v);
+                }
+                ids[v] = new String(bytesIDs, inicioIDs[v], inicioIDs[v + 1] - inicioIDs[v], StandardCharsets.UTF_8);
+            }
+            verificaIndices(origenes, numAristas, numVertices, "origen");
+            verificaIndices(destinos, numAristas, numVertices, "destino");
+            verificaIndices(vecinos, 2 * numAristas, numVertices, "vecino");
+            verificaIndices(aristasCSR, 2 * numAristas, numAristas, "arista");
+            for (int v = 0; v < numVertices; v++) {
+                if (desplazamientos[v] > desplazamientos[v + 1]) {
+                    throw new IOException("Adyacencia dañada en el vértice " + v);
+                }
+            }
+            if (desplazamientos[0] != 0 || desplazamientos[numVertices] != 2 * numAristas) {
+                throw new IOException("Adyacencia dañada");
+            }
+
+            // La adyacencia es inmutable y el modelo cambia sus arreglos de aristas, cada uno tiene su copia.
+            AdyacenciaCSR csr = new AdyacenciaCSR(desplazamientos, vecinos, pesosCSR, aristasCSR,
+                    origenes, destinos, pesos, numAristas, null);
+            ModeloGrafo modelo = new ModeloGrafo();
+            modelo.cargaArreglos(ids, xs, ys, numVertices,
+                    Arrays.copyOf(origenes, Math.max(numAristas, capacidad)),
+                    Arrays.copyOf(destinos, Math.max(numAristas, capacidad)),
+                    Arrays.copyOf(pesos, Math.max(numAristas, capacidad)), numAristas, csr);
+            return modelo;
+        }
+    }
+
+    private static int[] leeEnteros(FileChannel canal, long posicion, int cantidad, int capacidad)
+            throws IOException {
+        int[] enteros = new int[Math.max(cantidad, capacidad)];
+        for (int hechos = 0; hechos < cantidad; hechos += ENTEROS_POR_PROYECCION) {
+            int parte = Math.min(cantidad - hechos, ENTEROS_POR_PROYECCION);
+            canal.map(FileChannel.MapMode.READ_ONLY, posicion + 4L * hechos, 4L * parte)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(enteros, hechos, parte);
+        }
+        return enteros;
+    }
+
+    private static void verificaIndices(int[] indices, int cantidad, int limite, String nombre) throws IOException {
+        for (int i = 0; i < cantidad; i++) {
+            if (indices[i] < 0 || indices[i] >= limite) {
+                throw new IOException("Índice de " + nombre + " fuera de rango en la posición " + i);
+            }
+        }
+    }
+
+    private static void escribeEnteros(FileChannel canal, ByteBuffer bufer, int[] enteros, int cantidad)
+            throws IOException {
+        for (int i = 0; i < cantidad; ) {
+            vacia(canal, bufer);
+            int parte = Math.min(cantidad - i, bufer.remaining() / 4);
+            bufer.asIntBuffer().put(enteros, i, parte);
+            bufer.position(bufer.position() + 4 * parte);
+            i += parte;
+        }
+    }
+
+    private static void escribeEntero(FileChannel canal, ByteBuffer bufer, int entero) throws IOException {
+        if (bufer.remaining() < 4) {
+            vacia(canal, bufer);
+        }
+        bufer.putInt(entero);
+    }
+
+    /**
+     * Escribe el contenido del búfer si ya no le cabe al menos un entero.
+     */
+    private static void vacia(FileChannel canal, ByteBuffer bufer) throws IOException {
+        if (bufer.remaining() >= 4) {
+            return;
+        }
+        bufer.flip();
+        while (bufer.hasRemaining()) {
+            canal.write(bufer);
+        }
+        bufer.clear();
+    }
+
+    /**
+     * @param n El número del vértice en el orden de lectura, desde 0.
+     * @return La coordenada x de su lugar en la cuadrícula; ver cuadriculaY().
+     */
+    public static int cuadriculaX(int n) {
+        int lado = (int) Math.sqrt(n);
+        int resto = n - lado * lado;
+        return SEPARACION * ((resto <= lado ? lado : resto - lado - 1) + 1);
+    }
+
+    /**
+     * La cuadrícula se llena por cuadrados cada vez más grandes: el vértice n cae en el borde derecho o en el de
+     * abajo del cuadrado de lado raíz de n, así el grafo se ve casi cuadrado mientras se lee, sin saber cuántos
+     * vértices tendrá.
+     * @param n El número del vértice en el orden de lectura, desde 0.
+     * @return La coordenada y de su lugar en la cuadrícula.
+     */
+    public static int cuadriculaY(int n) {
+        int lado = (int) Math.sqrt(n);
+        int resto = n - lado * lado;
+        return SEPARACION * ((resto <= lado ? resto : lado) + 1);
+    }
+
+    private static int alinea(int bytes) {
+        return (bytes + 3) & ~3;
+    }
+}
\ No newline at end of file
@@ -1,240 +1,158 @@
-import javax.swing.*;
 import java.awt.*;
-import java.awt.event.MouseAdapter;
-import java.awt.event.MouseEvent;
 import java.awt.geom.Line2D;
 
 /**
  * La clase representa una arista en el grafo para ser visualizado por la aplicación.
- * Se utiliza para dibujar una línea que conecta dos vértices.
+ * Las aristas se dibujan como una línea que conecta dos vértices y una etiqueta con su peso en el LienzoGrafo; aquí
+ * está su geometría y la respuesta a los clicks, los datos de la arista están en el modelo del grafo.
+ * Ningún método crea objetos, así dibujar o buscar miles de aristas no genera basura.
  * @author Luis-Rangel
  * @version 1.1
  */
-public class Arista extends JComponent implements Comparable<Arista>{
-    private final Vertice origen;
-    private final Vertice destino;
-    private final int peso;
-    private int origenX;
-    private int origenY;
-    private int destX;
-    private int destY;
-    private final JLabel pesoLabel;
-    private Color colorDeLinea = Color.decode("#7094FF");
-
-    /**
-     * @param origenX Establece la coordenada x del vértice de origen.
-     */
-    public void setOrigenX(int origenX) {
-        this.origenX = origenX;
-        actualizaPosicionLabel();
-    }
-
-    /**
-     * @param origenY Establece la coordenada y del vértice de origen.
-     */
-    public void setOrigenY(int origenY) {
-        this.origenY = origenY;
-        actualizaPosicionLabel();
-    }
-
-    /**
-     * @param destX Establece la coordenada x del vértice de destino.
-     */
-    public void setDestX(int destX) {
-        this.destX = destX;
-        actualizaPosicionLabel();
-    }
-
-    /**
-     * @param destY Establece la coordenada y del vértice de destino.
-     */
-    public void setDestY(int destY) {
-        this.destY = destY;
-        actualizaPosicionLabel();
-    }
-
-    /**
-     * @return El vértice de origen de la arista.
-     */
-    public Vertice getOrigen() {
-        return origen;
-    }
-
+public final class Arista {
     /**
-     * @return El vértice de destino de la arista.
+     * Trazo de las líneas, se comparte para no crear uno en cada pintado.
      */
-    public Vertice getDestino() {
-        return destino;
-    }
+    public static final BasicStroke TRAZO = new BasicStroke(2.0f);
+    // Puede ser difícil darle click a la posición exacta, por eso se le añade un mayor "hit-box":
+    private static final int TOLERANCIA = 10;
+    private static final int ANCHO_PESO = 30;
+    private static final int ALTO_PESO = 20;
 
-    /**
-     * @return La etiqueta de peso de la arista.
-     */
-    public JLabel getPesoLabel() {
-        return pesoLabel;
-    }
-
-    /**
-     * @return Peso de la arista.
-     */
-    public int getPeso() {
-        return peso;
-    }
-
-    /**
-     * Crea una instancia de la clase Arista que dibuja una línea que va desde el vértice origen hasta
-     * el vértice destino y añade una etiqueta con su peso.
-     * @param origen El vértice de origen de la arista.
-     * @param destino El vértice de destino de la arista.
-     * @param peso El peso de la arista.
-     */
-    public Arista(Vertice origen, Vertice destino, int peso) {
-        this.origen = origen;
-        this.destino = destino;
-        this.peso = peso;
-        this.origenX = (origen.getX() + origen.getWidth() / 2);
-        this.origenY = (origen.getY() + origen.getHeight() / 2);
-        this.destX = destino.getX() + destino.getWidth() / 2;
-        this.destY = destino.getY() + destino.getHeight() / 2;
-        origen.conectaArista(this);
-        destino.conectaArista(this);
-        setName("Arista <" + origen.getID() + " <-> " + destino.getID() + ">");
-        setBounds(0, 0, MainFrame.getMainPanel().getWidth(), MainFrame.getMainPanel().getHeight());
-        setOpaque(false);
-        pesoLabel = new JLabel(String.valueOf(peso));
-        pesoLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        pesoLabel.setForeground(colorDeLinea);
-        int labelX = (origenX + destX) / 2;
-        int labelY = (origenY + destY) / 2;
-        pesoLabel.setBounds(labelX, labelY, 30, 20);
-        pesoLabel.setName("EdgeLabel <" + origen.getID() + " -> " + destino.getID() + ">");
-        JPanel mainPanel = MainFrame.getMainPanel();
-
-        addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseClicked(MouseEvent e) {
-                int clickX = e.getX();
-                int clickY = e.getY();
-                if (estaTocandoArista(clickX, clickY)) {
-                    if (MainFrame.getModo().equals("Eliminar Vértice/Arista")) {
-                        getOrigen().desconectaArista(Arista.this);
-                        getDestino().desconectaArista(Arista.this);
-                        MainFrame.getGrafo().eliminaArista(Arista.this);
-                        mainPanel.remove(pesoLabel);
-                        mainPanel.remove(Arista.this);
-                        mainPanel.repaint();
-                        mainPanel.revalidate();
-                    }
-                }
-            }
-        });
-        mainPanel.add(pesoLabel);
+    private Arista() {
     }
 
     /**
      * Verifica si el punto (x, y) está tocando la arista.
+     * @param modelo El modelo del grafo.
+     * @param arista El índice de la arista.
      * @param x La coordenada x del punto.
      * @param y La coordenada y del punto.
      * @return true si el punto está tocando la arista, de lo contrario false.
      */
-    private boolean estaTocandoArista(int x, int y) {
-        int[] inicio = new int[2];
-        int[] fin = new int[2];
-        encuentraXY(inicio, fin);
+    public static boolean estaTocandoArista(ModeloGrafo modelo, int arista, int x, int y) {
+        int origen = modelo.getOrigen(arista);
+        int destino = modelo.getDestino(arista);
+        int deltaX = modelo.getX(destino) - modelo.getX(origen);
+        int deltaY = modelo.getY(destino) - modelo.getY(origen);
+        double distancia = Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+        int offsetX = recorte(deltaX, distancia);
+        int offsetY = recorte(deltaY, distancia);
+        int inicioX = modelo.getX(origen) + offsetX;
+        int inicioY = modelo.getY(origen) + offsetY;
+        int finX = modelo.getX(destino) - offsetX;
+        int finY = modelo.getY(destino) - offsetY;
         /*Verifica si el punto está en los puntos de origen o destino:
         Esto se debe a que la coordenada de origen/destino de la arista está "tocando" a un vértice.
         Retorna falso para evitar que el usuario haga miss-click."
         */
-        if ((x == inicio[0] && y == inicio[1]) || (x == fin[0] && y == fin[1])) {
+        if ((x == inicioX && y == inicioY) || (x == finX && y == finY)) {
             return false;
         }
         // Calcula la distancia más corta entre el punto dado y el segmento de línea:
-        Line2D.Double linea = new Line2D.Double(inicio[0], inicio[1], fin[0], fin[1]);
-        double distanciaAlPunto = linea.ptSegDist(x, y);
-        // Puede ser difícil darle click a la posición exacta, por eso se le añade un mayor "hit-box":
-        int tolerancia = 10;
-        return distanciaAlPunto <= tolerancia;
+        return Line2D.ptSegDistSq(inicioX, inicioY, finX, finY, x, y) <= TOLERANCIA * TOLERANCIA;
     }
 
     /**
-     * Calcula las coordenadas de los puntos de inicio y fin de la arista.
-     * @param inicio Arreglo de dos elementos para almacenar las coordenadas del punto de inicio.
-     * @param fin Arreglo de dos elementos para almacenar las coordenadas del punto de fin.
+     * Dibuja la línea de la arista, que va del borde de un vértice al borde del otro.
+     * @param g El contexto gráfico del lienzo, ya con el trazo y el color de la arista.
+     * @param modelo El modelo del grafo.
+     * @param arista El índice de la arista.
      */
-    private void encuentraXY(int[] inicio, int[] fin) {
-        inicio[0] = origenX;
-        inicio[1] = origenY;
-        fin[0] = destX;
-        fin[1] = destY;
-
-        int radio = Vertice.getvSize() / 2;
-        int deltaX = fin[0] - inicio[0];
-        int deltaY = fin[1] - inicio[1];
+    public static void dibuja(Graphics g, ModeloGrafo modelo, int arista) {
+        int origen = modelo.getOrigen(arista);
+        int destino = modelo.getDestino(arista);
+        int deltaX = modelo.getX(destino) - modelo.getX(origen);
+        int deltaY = modelo.getY(destino) - modelo.getY(origen);
         double distancia = Math.sqrt(deltaX * deltaX + deltaY * deltaY);
-        int offsetX = (int) (radio * deltaX / distancia);
-        int offsetY = (int) (radio * deltaY / distancia);
-        inicio[0] += offsetX;
-        inicio[1] += offsetY;
-        fin[0] -= offsetX;
-        fin[1] -= offsetY;
+        int offsetX = recorte(deltaX, distancia);
+        int offsetY = recorte(deltaY, distancia);
+        g.drawLine(modelo.getX(origen) + offsetX, modelo.getY(origen) + offsetY,
+                modelo.getX(destino) - offsetX, modelo.getY(destino) - offsetY);
     }
 
     /**
-     * Actualiza la posición de la etiqueta de peso de la arista.
+     * Calcula el área que ocupa el dibujo de la arista: la caja de su línea, engrosada por el trazo, unida con la
+     * etiqueta de su peso, que se ensancha por si el número no cabe en la caja de 30 píxeles.
+     * @param modelo El modelo del grafo.
+     * @param arista El índice de la arista.
+     * @param area Recibe el área de la arista.
      */
-    private void actualizaPosicionLabel() {
-        if (pesoLabel != null) {
-            int labelX = (origenX + destX) / 2;
-            int labelY = (origenY + destY) / 2;
-            pesoLabel.setLocation(labelX, labelY);
-        }
+    public static void area(ModeloGrafo modelo, int arista, Rectangle area) {
+        int origen = modelo.getOrigen(arista);
+        int destino = modelo.getDestino(arista);
+        int x1 = modelo.getX(origen);
+        int y1 = modelo.getY(origen);
+        int x2 = modelo.getX(destino);
+        int y2 = modelo.getY(destino);
+        int grosor = (int) Math.ceil(TRAZO.getLineWidth());
+        int margenPeso = 40;
+        int labelX = (x1 + x2) / 2;
+        int labelY = (y1 + y2) / 2;
+        int minX = Math.min(Math.min(x1, x2) - grosor, labelX - margenPeso);
+        int minY = Math.min(Math.min(y1, y2) - grosor, labelY);
+        int maxX = Math.max(Math.max(x1, x2) + grosor, labelX + ANCHO_PESO + margenPeso);
+        int maxY = Math.max(Math.max(y1, y2) + grosor, labelY + ALTO_PESO);
+        area.setBounds(minX, minY, maxX - minX + 1, maxY - minY + 1);
     }
 
     /**
-     * Verifica si los ID de los vértices de origen y destino son iguales a los ID especificados.
-     * De momento estoy trabajando con grafos no-dirigidos, por lo que la arista A → B es igual que B → A
-     * @param v1 El ID del vértice de origen a comparar.
-     * @param v2 El ID del vértice de destino a comparar.
-     * @return true si los ID coinciden, de lo contrario false.
+     * Escribe el peso de la arista centrado en una caja de 30x20 cuya esquina está en el punto medio de la línea.
+     * @param g El contexto gráfico del lienzo, ya con el color de la arista.
+     * @param metricas Las métricas de la fuente con la que se escribe el peso.
+     * @param digitos Arreglo reutilizable donde se escriben los dígitos, de al menos 11 posiciones.
+     * @param modelo El modelo del grafo.
+     * @param arista El índice de la arista.
      */
-    public boolean sonIguales(String v1, String v2) {
-        if (v1.equals(origen.getID()) && v2.equals(destino.getID())) {
-            return true;
-        } else return v2.equals(origen.getID()) && v1.equals(destino.getID());
+    public static void dibujaPeso(Graphics g, FontMetrics metricas, char[] digitos, ModeloGrafo modelo, int arista) {
+        int origen = modelo.getOrigen(arista);
+        int destino = modelo.getDestino(arista);
+        int labelX = (modelo.getX(origen) + modelo.getX(destino)) / 2;
+        int labelY = (modelo.getY(origen) + modelo.getY(destino)) / 2;
+        int inicio = escribeDigitos(modelo.getPeso(arista), digitos);
+        int longitud = digitos.length - inicio;
+        g.drawChars(digitos, inicio, longitud,
+                labelX + (ANCHO_PESO - metricas.charsWidth(digitos, inicio, longitud)) / 2,
+                labelY + (ALTO_PESO - metricas.getHeight()) / 2 + metricas.getAscent());
     }
 
     /**
-     * @param color Actualiza el color de la arista y su peso.
+     * Maneja el evento de click del ratón en la arista: en el modo "Eliminar..." la elimina.
+     * @param grafo El grafo al que pertenece la arista.
+     * @param arista El índice de la arista a la que se le dio click.
      */
-    public void setColor(Color color) {
-        this.colorDeLinea = color;
-        pesoLabel.setForeground(color);
-        repaint();
-    }
-
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-
-        Graphics2D g2d = (Graphics2D) g.create();
-        g2d.setColor(colorDeLinea);
-        g2d.setStroke(new BasicStroke(2.0f));
-
-        int[] inicio = new int[2];
-        int[] fin = new int[2];
-        encuentraXY(inicio, fin);
-
-        g2d.drawLine(inicio[0], inicio[1], fin[0], fin[1]);
-        g2d.dispose();
+    public static void leeClick(Grafo grafo, int arista) {
+        if (MainFrame.getModo().equals("Eliminar Vértice/Arista")) {
+            grafo.eliminaArista(arista);
+        }
     }
 
-    @Override
-    public boolean contains(int x, int y) {
-        return estaTocandoArista(x, y);
+    /**
+     * La línea empieza y termina en el borde de los vértices, no en su centro.
+     * @param delta La diferencia entre las coordenadas de los extremos en un eje.
+     * @param distancia La longitud de la arista.
+     * @return Lo que se recorta la línea en ese eje.
+     */
+    private static int recorte(int delta, double distancia) {
+        return (int) (Vertice.getvSize() / 2 * delta / distancia);
     }
 
-    @Override
-    public int compareTo(Arista otra) {
-        return Integer.compare(this.peso, otra.peso);
+    /**
+     * Escribe el número al final del arreglo para no crear una cadena por cada peso que se dibuja.
+     * @param numero El número a escribir.
+     * @param digitos El arreglo donde se escribe.
+     * @return La posición del primer carácter escrito.
+     */
+    private static int escribeDigitos(int numero, char[] digitos) {
+        int i = digitos.length;
+        long resto = Math.abs((long) numero);
+        do {
+            digitos[--i] = (char) ('0' + resto % 10);
+            resto /= 10;
+        } while (resto > 0);
+        if (numero < 0) {
+            digitos[--i] = '-';
+        }
+        return i;
     }
 }
\ No newline at end of file
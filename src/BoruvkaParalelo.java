@@ -0,0 +1,95 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Algoritmo de Borůvka paralelo para el bosque de expansión mínima, pensado para grafos con millones de aristas.
+ * En cada ronda todos los núcleos buscan a la vez la arista más barata que sale de cada componente y después se
+ * contraen las componentes con un union-find concurrente; el número de componentes al menos se divide entre dos por
+ * ronda. Las tareas corren en el ForkJoinPool común a través de streams paralelos.
+ * Las aristas se comparan por peso y después por índice, el mismo orden total que usa Kruskal, así el bosque no tiene
+ * ciclos y su peso es exactamente el mismo que el del algoritmo secuencial. Al terminar registra en el control las
+ * aristas revisadas en todas las rondas y las búsquedas y uniones del union-find.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class BoruvkaParalelo {
+    private static final long SIN_ARISTA = Long.MAX_VALUE;
+
+    private BoruvkaParalelo() {
+    }
+
+    /**
+     * Calcula el bosque de expansión mínima.
+     * @param adyacencia La representación CSR del grafo.
+     * @param control Recibe el avance y permite cancelar el algoritmo.
+     * @return Los índices de las aristas del bosque, agrupados por la ronda en que se aceptaron.
+     */
+    public static int[] arbolExpansionMinima(AdyacenciaCSR adyacencia, ControlEjecucion control) {
+        int dimension = adyacencia.getDimension();
+        control.inicia(dimension - 1L);
+        ConjuntosDisjuntosConcurrentes componentes = new ConjuntosDisjuntosConcurrentes(dimension);
+        int[] componente = new int[dimension];
+        AtomicLongArray masBarata = new AtomicLongArray(dimension);
+        int[] aceptadas = new int[Math.max(dimension - 1, 0)];
+        AtomicInteger numAceptadas = new AtomicInteger();
+        int[] activas = IntStream.range(0, adyacencia.getNumAristas()).toArray();
+        long revisadas = 0;
+        long busquedas = 0;
+        LongAdder uniones = new LongAdder();
+
+        while (activas.length > 0) {
+            control.avanza(numAceptadas.get());
+            IntStream.range(0, dimension).parallel().forEach(v -> {
+                componente[v] = componentes.encuentra(v);
+                masBarata.set(v, SIN_ARISTA);
+            });
+
+            // Se descartan las aristas que ya quedaron dentro de una componente, nunca volverán a servir.
+            activas = Arrays.stream(activas).parallel()
+                    .filter(a -> componente[adyacencia.origen(a)] != componente[adyacencia.destino(a)])
+                    .toArray();
+
+            int[] candidatas = activas;
+            revisadas += candidatas.length;
+            busquedas += dimension;
+            IntStream.range(0, candidatas.length).parallel().forEach(i -> {
+                int arista = candidatas[i];
+                long llave = ((long) adyacencia.pesoDe(arista) << 32) | arista;
+                actualizaMinimo(masBarata, componente[adyacencia.origen(arista)], llave);
+                actualizaMinimo(masBarata, componente[adyacencia.destino(arista)], llave);
+            });
+
+            // Cada componente se une por su arista más barata; si dos componentes eligieron la misma arista solo una
+            // de las uniones tiene éxito y la arista se cuenta una vez.
+            IntStream.range(0, dimension).parallel().forEach(v -> {
+                long llave = masBarata.get(v);
+                if (componente[v] == v && llave != SIN_ARISTA) {
+                    int arista = (int) llave;
+                    uniones.increment();
+                    if (componentes.une(adyacencia.origen(arista), adyacencia.destino(arista))) {
+                        aceptadas[numAceptadas.getAndIncrement()] = arista;
+                    }
+                }
+            });
+        }
+        control.registra(MetricasAlgoritmo.ARISTAS_REVISADAS, revisadas);
+        control.registra(MetricasAlgoritmo.OPERACIONES_UNION_FIND, busquedas + uniones.sum());
+        return Arrays.copyOf(aceptadas, numAceptadas.get());
+    }
+
+    /**
+     * Guarda la llave en la posición dada si es menor que la actual.
+     * @param minimos El arreglo de mínimos compartido entre hilos.
+     * @param posicion La posición a actualizar.
+     * @param llave La llave candidata.
+     */
+    private static void actualizaMinimo(AtomicLongArray minimos, int posicion, long llave) {
+        long actual = minimos.get(posicion);
+        while (llave < actual && !minimos.compareAndSet(posicion, actual, llave)) {
+            actual = minimos.get(posicion);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Estructura de conjuntos disjuntos (union-find) con compresión de caminos y unión por rango.
+ * Cada operación cuesta tiempo prácticamente constante, se usa para saber si una arista une dos componentes.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class ConjuntosDisjuntos {
+    private final int[] padres;
+    private final byte[] rangos;
+
+    /**
+     * Crea un conjunto por cada elemento.
+     * @param tamano El número de elementos.
+     */
+    public ConjuntosDisjuntos(int tamano) {
+        padres = new int[tamano];
+        rangos = new byte[tamano];
+        for (int i = 0; i < tamano; i++) {
+            padres[i] = i;
+        }
+    }
+
+    /**
+     * Encuentra el representante del conjunto del elemento, de paso hace que todo el camino apunte a él.
+     * @param elemento El elemento a buscar.
+     * @return El representante de su conjunto.
+     */
+    public int encuentra(int elemento) {
+        int raiz = elemento;
+        while (padres[raiz] != raiz) {
+            raiz = padres[raiz];
+        }
+        while (padres[elemento] != raiz) {
+            int siguiente = padres[elemento];
+            padres[elemento] = raiz;
+            elemento = siguiente;
+        }
+        return raiz;
+    }
+
+    /**
+     * Une los conjuntos de ambos elementos, el árbol de menor rango cuelga del de mayor rango.
+     * @param a Un elemento.
+     * @param b Otro elemento.
+     * @return true si estaban en conjuntos distintos, false si ya estaban unidos.
+     */
+    public boolean une(int a, int b) {
+        int raizA = encuentra(a);
+        int raizB = encuentra(b);
+        if (raizA == raizB) {
+            return false;
+        }
+        if (rangos[raizA] < rangos[raizB]) {
+            padres[raizA] = raizB;
+        } else if (rangos[raizA] > rangos[raizB]) {
+            padres[raizB] = raizA;
+        } else {
+            padres[raizB] = raizA;
+            rangos[raizA]++;
+        }
+        return true;
+    }
+}
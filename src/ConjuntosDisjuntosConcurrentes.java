@@ -0,0 +1,62 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Estructura de conjuntos disjuntos que varios hilos pueden usar al mismo tiempo sin bloqueos.
+ * Las uniones se hacen con compareAndSet colgando siempre la raíz de mayor índice de la de menor índice, así no se
+ * forman ciclos aunque dos hilos unan los mismos conjuntos a la vez. La búsqueda aplica compresión por mitades.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class ConjuntosDisjuntosConcurrentes {
+    private final AtomicIntegerArray padres;
+
+    /**
+     * Crea un conjunto por cada elemento.
+     * @param tamano El número de elementos.
+     */
+    public ConjuntosDisjuntosConcurrentes(int tamano) {
+        padres = new AtomicIntegerArray(tamano);
+        for (int i = 0; i < tamano; i++) {
+            padres.set(i, i);
+        }
+    }
+
+    /**
+     * @param elemento El elemento a buscar.
+     * @return El representante actual de su conjunto.
+     */
+    public int encuentra(int elemento) {
+        while (true) {
+            int padre = padres.get(elemento);
+            if (padre == elemento) {
+                return elemento;
+            }
+            int abuelo = padres.get(padre);
+            if (padre != abuelo) {
+                padres.compareAndSet(elemento, padre, abuelo);
+            }
+            elemento = abuelo;
+        }
+    }
+
+    /**
+     * Une los conjuntos de ambos elementos.
+     * @param a Un elemento.
+     * @param b Otro elemento.
+     * @return true si este hilo hizo la unión, false si ya estaban unidos.
+     */
+    public boolean une(int a, int b) {
+        while (true) {
+            int raizA = encuentra(a);
+            int raizB = encuentra(b);
+            if (raizA == raizB) {
+                return false;
+            }
+            int menor = Math.min(raizA, raizB);
+            int mayor = Math.max(raizA, raizB);
+            if (padres.compareAndSet(mayor, mayor, menor)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+import java.util.concurrent.CancellationException;
+
+/**
+ * Permite seguir y cancelar un algoritmo que corre en otro hilo.
+ * El algoritmo avisa cada cierto tiempo cuánto trabajo lleva y, en ese momento, se revisa si se pidió cancelarlo;
+ * usar una bandera en lugar de interrumpir el hilo permite cancelar también las tareas del ForkJoinPool.
+ * También recibe las métricas del algoritmo cuando se activó su medición; si no, registrarlas no hace nada.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class ControlEjecucion {
+    /**
+     * Cada cuántas iteraciones los algoritmos avisan su avance, debe ser una potencia de dos menos uno.
+     */
+    public static final int INTERVALO = 4095;
+
+    private volatile boolean cancelado;
+    private volatile long total = 1;
+    private volatile long hechos;
+    private volatile String detalle;
+    // Los contadores de MetricasAlgoritmo, null si no se mide el algoritmo.
+    private long[] contadores;
+    private long inicioMedicion;
+
+    /**
+     * Pide que el algoritmo se detenga en cuanto vuelva a avisar su avance.
+     */
+    public void cancela() {
+        cancelado = true;
+    }
+
+    /**
+     * @return true si se pidió cancelar el algoritmo, de lo contrario false.
+     */
+    public boolean isCancelado() {
+        return cancelado;
+    }
+
+    /**
+     * @param total Establece la cantidad total de trabajo que hará el algoritmo.
+     */
+    public void inicia(long total) {
+        this.total = Math.max(total, 1);
+        this.hechos = 0;
+        verifica();
+    }
+
+    /**
+     * Registra el avance del algoritmo y revisa si se pidió cancelarlo.
+     * @param hechos La cantidad de trabajo terminado hasta ahora.
+     */
+    public void avanza(long hechos) {
+        this.hechos = hechos;
+        verifica();
+    }
+
+    /**
+     * @throws CancellationException Si se pidió cancelar el algoritmo.
+     */
+    public void verifica() {
+        if (cancelado) {
+            throw new CancellationException("Algoritmo cancelado");
+        }
+    }
+
+    /**
+     * @param detalle Establece un texto que acompaña al avance, como la velocidad del algoritmo; null si no hay.
+     */
+    public void setDetalle(String detalle) {
+        this.detalle = detalle;
+    }
+
+    /**
+     * @return El texto que acompaña al avance, o null si no hay.
+     */
+    public String getDetalle() {
+        return detalle;
+    }
+
+    /**
+     * Empieza a medir el algoritmo: desde aquí corre su tiempo y se guardan los contadores que registre.
+     * Debe llamarse desde el hilo del algoritmo, antes de que empiece.
+     */
+    public void activaMetricas() {
+        contadores = new long[MetricasAlgoritmo.NUM_CONTADORES];
+        inicioMedicion = System.nanoTime();
+    }
+
+    /**
+     * Suma una cantidad a un contador de las métricas. Los algoritmos lo llaman una vez por contador al terminar,
+     * no dentro de sus ciclos, así el costo es el mismo esté o no activada la medición.
+     * @param contador Una de las constantes de MetricasAlgoritmo, como ARISTAS_REVISADAS.
+     * @param cantidad La cantidad a sumar.
+     */
+    public void registra(int contador, long cantidad) {
+        if (contadores != null) {
+            contadores[contador] += cantidad;
+        }
+    }
+
+    /**
+     * Termina la medición del algoritmo.
+     * @param algoritmo El nombre del algoritmo.
+     * @return El tiempo desde activaMetricas y los contadores registrados, o null si no se activó la medición.
+     */
+    public MetricasAlgoritmo terminaMetricas(String algoritmo) {
+        if (contadores == null) {
+            return null;
+        }
+        return new MetricasAlgoritmo(algoritmo, System.nanoTime() - inicioMedicion, contadores);
+    }
+
+    /**
+     * @return La fracción del trabajo terminada, entre 0 y 1.
+     */
+    public double getFraccion() {
+        return Math.min(1.0, (double) hechos / total);
+    }
+}
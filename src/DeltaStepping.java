@@ -0,0 +1,318 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Algoritmo delta-stepping para el camino más corto desde un vértice, una alternativa paralela a Dijkstra.
+ * Los vértices se agrupan en cubetas de ancho delta según su distancia tentativa. Las aristas ligeras (peso menor o
+ * igual a delta) de la cubeta actual se relajan en paralelo hasta que la cubeta queda vacía, y después las pesadas una
+ * sola vez. Las relajaciones corren en el ForkJoinPool común y actualizan las distancias con compareAndSet.
+ * Como todos los pesos son enteros positivos, al final se elige como padre de cada vértice el primer vecino que está
+ * sobre un camino mínimo y se ordenan por distancia, así el resultado tiene la misma forma que el de Dijkstra.
+ * Las aristas revisadas y las relajaciones se cuentan por vértice y se suman en contadores repartidos entre hilos.
+ * Las cubetas forman un arreglo circular de a lo más MAX_CUBETAS listas que se crean hasta que se usan; los vértices
+ * cuya distancia cae más allá de la ventana que cubre el arreglo esperan en una lista aparte y se reparten cuando la
+ * cubeta actual la alcanza, así un peso muy grande con un delta chico no reserva una lista por cada cubeta posible.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class DeltaStepping {
+    // Con menos vértices que este número la relajación se hace en el mismo hilo.
+    private static final int UMBRAL_PARALELO = 1024;
+    // Máximo de cubetas del arreglo circular, una potencia de 2.
+    private static final int MAX_CUBETAS = 1 << 16;
+
+    private final AdyacenciaCSR adyacencia;
+    private final int delta;
+    private final AtomicLongArray distancias;
+    private final ListaEnteros[] cubetas;
+    private final int mascara;
+    // Vértices cuya cubeta no cabía en la ventana del arreglo al distribuirlos, y la menor de esas cubetas.
+    private final ListaEnteros lejanos = new ListaEnteros();
+    private long cubetaLejana = Long.MAX_VALUE;
+    private long cubeta;
+    // Vértices cuya distancia cambió en la fase actual, cada uno aparece una sola vez gracias a la marca.
+    private final AtomicIntegerArray marcados;
+    private final int[] cambiados;
+    private final AtomicInteger numCambiados = new AtomicInteger();
+    private final LongAdder aristasRevisadas = new LongAdder();
+    private final LongAdder relajaciones = new LongAdder();
+
+    private DeltaStepping(AdyacenciaCSR adyacencia, int delta) {
+        this.adyacencia = adyacencia;
+        this.delta = delta;
+        int dimension = adyacencia.getDimension();
+        distancias = new AtomicLongArray(dimension);
+        marcados = new AtomicIntegerArray(dimension);
+        cambiados = new int[dimension];
+        int pesoMaximo = 0;
+        for (int i = 0; i < adyacencia.getNumAristas(); i++) {
+            pesoMaximo = Math.max(pesoMaximo, adyacencia.pesoDe(i));
+        }
+        // Las distancias tentativas nunca están a más de pesoMaximo de la cubeta actual, basta un arreglo circular
+        // con ese alcance; si sería más grande que MAX_CUBETAS, lo que no cabe espera en la lista de lejanos.
+        long necesarias = (long) pesoMaximo / delta + 2;
+        int numCubetas = necesarias >= MAX_CUBETAS ? MAX_CUBETAS : Integer.highestOneBit((int) necesarias - 1) << 1;
+        cubetas = new ListaEnteros[numCubetas];
+        mascara = numCubetas - 1;
+    }
+
+    /**
+     * Calcula un delta razonable para el grafo: el peso promedio de sus aristas.
+     * @param adyacencia La representación CSR del grafo.
+     * @return El delta sugerido, al menos 1.
+     */
+    public static int deltaSugerido(AdyacenciaCSR adyacencia) {
+        int numAristas = adyacencia.getNumAristas();
+        if (numAristas == 0) {
+            return 1;
+        }
+        long suma = 0;
+        for (int i = 0; i < numAristas; i++) {
+            suma += adyacencia.pesoDe(i);
+        }
+        return (int) Math.max(1, suma / numAristas);
+    }
+
+    /**
+     * Encuentra el camino más corto desde el vértice de origen hasta todos los demás vértices del grafo.
+     * @param adyacencia La representación CSR del grafo.
+     * @param origen El índice del vértice de origen.
+     * @param delta El ancho de cada cubeta, si no es mayor a 0 se usa deltaSugerido.
+     * @param control Recibe el avance y permite cancelar el algoritmo.
+     * @return Los vértices ordenados por distancia y, para cada uno, la arista que lo une a su padre en el árbol de
+     * caminos más cortos.
+     */
+    public static ResultadoRecorrido caminoMasCorto(AdyacenciaCSR adyacencia, int origen, int delta,
+                                                    ControlEjecucion control) {
+        DeltaStepping algoritmo = new DeltaStepping(adyacencia, delta > 0 ? delta : deltaSugerido(adyacencia));
+        return algoritmo.ejecuta(origen, control);
+    }
+
+    private ResultadoRecorrido ejecuta(int origen, ControlEjecucion control) {
+        int dimension = adyacencia.getDimension();
+        control.inicia(dimension);
+        for (int i = 0; i < dimension; i++) {
+            distancias.set(i, Dijkstra.INFINITO);
+        }
+        int[] enFrontera = new int[dimension];
+        int sello = 0;
+        long[] fijados = new long[(dimension + 63) >>> 6];
+        ListaEnteros orden = new ListaEnteros();
+
+        distancias.set(origen, 0);
+        cubetaDe(0).agrega(origen);
+        cubeta = 0;
+        while (true) {
+            control.avanza(orden.tamano());
+            int vacias = 0;
+            while (vacias < cubetas.length && cubeta < cubetaLejana && estaVacia(cubeta)) {
+                cubeta++;
+                vacias++;
+            }
+            if (cubeta == cubetaLejana || vacias == cubetas.length) {
+                if (lejanos.estaVacia()) {
+                    break;
+                }
+                // La ventana ya llegó a los lejanos o no queda nada en ella: se salta a la menor cubeta lejana.
+                cubeta = cubetaLejana;
+                acercaLejanos();
+                continue;
+            }
+            ListaEnteros actual = cubetaDe(cubeta);
+            ListaEnteros fijadosEnCubeta = new ListaEnteros();
+            while (!actual.estaVacia()) {
+                // Se descartan las entradas viejas de vértices que ya bajaron a otra cubeta y las repetidas.
+                sello++;
+                ListaEnteros frontera = new ListaEnteros(actual.tamano());
+                for (int i = 0; i < actual.tamano(); i++) {
+                    int v = actual.obten(i);
+                    if (distancias.get(v) / delta == cubeta && enFrontera[v] != sello) {
+                        enFrontera[v] = sello;
+                        frontera.agrega(v);
+                        if ((fijados[v >>> 6] & (1L << v)) == 0) {
+                            fijados[v >>> 6] |= 1L << v;
+                            fijadosEnCubeta.agrega(v);
+                        }
+                    }
+                }
+                actual.limpia();
+                relaja(frontera, true);
+                distribuyeCambiados();
+            }
+            relaja(fijadosEnCubeta, false);
+            distribuyeCambiados();
+            agregaOrdenados(fijadosEnCubeta, cubeta * delta, orden);
+        }
+        control.registra(MetricasAlgoritmo.VERTICES_ASENTADOS, orden.tamano());
+        control.registra(MetricasAlgoritmo.ARISTAS_REVISADAS, aristasRevisadas.sum());
+        control.registra(MetricasAlgoritmo.RELAJACIONES, relajaciones.sum());
+        return construyeResultado(origen, orden);
+    }
+
+    /**
+     * Relaja en paralelo las aristas ligeras o pesadas de los vértices dados.
+     * @param vertices Los vértices cuyas aristas se relajan.
+     * @param ligeras true para relajar las aristas con peso menor o igual a delta, false para las demás.
+     */
+    private void relaja(ListaEnteros vertices, boolean ligeras) {
+        IntStream rango = IntStream.range(0, vertices.tamano());
+        if (vertices.tamano() >= UMBRAL_PARALELO) {
+            rango = rango.parallel();
+        }
+        rango.forEach(i -> {
+            int u = vertices.obten(i);
+            long distanciaU = distancias.get(u);
+            int mejoradas = 0;
+            for (int k = adyacencia.inicioVecinos(u); k < adyacencia.finVecinos(u); k++) {
+                int peso = adyacencia.peso(k);
+                if ((peso <= delta) != ligeras) {
+                    continue;
+                }
+                int v = adyacencia.vecino(k);
+                if (actualizaMinimo(v, distanciaU + peso)) {
+                    mejoradas++;
+                    if (marcados.compareAndSet(v, 0, 1)) {
+                        cambiados[numCambiados.getAndIncrement()] = v;
+                    }
+                }
+            }
+            aristasRevisadas.add(adyacencia.finVecinos(u) - adyacencia.inicioVecinos(u));
+            if (mejoradas != 0) {
+                relajaciones.add(mejoradas);
+            }
+        });
+    }
+
+    /**
+     * Guarda la distancia del vértice si es menor que la actual.
+     * @param vertice El índice del vértice.
+     * @param distancia La distancia candidata.
+     * @return true si la distancia se actualizó.
+     */
+    private boolean actualizaMinimo(int vertice, long distancia) {
+        long actual = distancias.get(vertice);
+        while (distancia < actual) {
+            if (distancias.compareAndSet(vertice, actual, distancia)) {
+                return true;
+            }
+            actual = distancias.get(vertice);
+        }
+        return false;
+    }
+
+    /**
+     * Pasa los vértices que cambiaron de distancia a la cubeta que les corresponde, o a los lejanos si su cubeta
+     * no cabe en la ventana que empieza en la cubeta actual.
+     */
+    private void distribuyeCambiados() {
+        int total = numCambiados.get();
+        for (int i = 0; i < total; i++) {
+            int v = cambiados[i];
+            marcados.set(v, 0);
+            distribuye(v);
+        }
+        numCambiados.set(0);
+    }
+
+    private void distribuye(int v) {
+        long destino = distancias.get(v) / delta;
+        if (destino - cubeta < cubetas.length) {
+            cubetaDe(destino).agrega(v);
+        } else {
+            lejanos.agrega(v);
+            cubetaLejana = Math.min(cubetaLejana, destino);
+        }
+    }
+
+    /**
+     * Reparte los lejanos cuya cubeta ya cabe en la ventana que empieza en la cubeta actual; los demás siguen
+     * esperando. Se descartan las entradas de vértices que después bajaron a una cubeta ya procesada, pues ya
+     * quedaron en la cubeta correcta al bajar.
+     */
+    private void acercaLejanos() {
+        int total = lejanos.tamano();
+        int[] pendientes = lejanos.aArreglo();
+        lejanos.limpia();
+        cubetaLejana = Long.MAX_VALUE;
+        for (int i = 0; i < total; i++) {
+            int v = pendientes[i];
+            if (distancias.get(v) / delta >= cubeta) {
+                distribuye(v);
+            }
+        }
+    }
+
+    /**
+     * @param indice El número de la cubeta, dentro de la ventana actual.
+     * @return La lista de la cubeta, que se crea la primera vez que se pide.
+     */
+    private ListaEnteros cubetaDe(long indice) {
+        int posicion = (int) (indice & mascara);
+        if (cubetas[posicion] == null) {
+            cubetas[posicion] = new ListaEnteros();
+        }
+        return cubetas[posicion];
+    }
+
+    private boolean estaVacia(long indice) {
+        ListaEnteros lista = cubetas[(int) (indice & mascara)];
+        return lista == null || lista.estaVacia();
+    }
+
+    /**
+     * Agrega al orden final los vértices fijados en una cubeta, ordenados por distancia y luego por índice.
+     * @param vertices Los vértices fijados en la cubeta.
+     * @param base La distancia donde empieza la cubeta.
+     * @param orden El orden final.
+     */
+    private void agregaOrdenados(ListaEnteros vertices, long base, ListaEnteros orden) {
+        long[] llaves = new long[vertices.tamano()];
+        for (int i = 0; i < llaves.length; i++) {
+            int v = vertices.obten(i);
+            llaves[i] = ((distancias.get(v) - base) << 32) | v;
+        }
+        Arrays.sort(llaves);
+        for (long llave : llaves) {
+            orden.agrega((int) llave);
+        }
+    }
+
+    /**
+     * Elige el padre de cada vértice alcanzado y arma el resultado en el orden de distancia.
+     * @param origen El índice del vértice de origen.
+     * @param orden Los vértices alcanzados ordenados por distancia.
+     * @return El resultado con el mismo formato que el de Dijkstra.
+     */
+    private ResultadoRecorrido construyeResultado(int origen, ListaEnteros orden) {
+        int[] aristaPadre = new int[adyacencia.getDimension()];
+        IntStream rango = IntStream.range(0, orden.tamano());
+        if (orden.tamano() >= UMBRAL_PARALELO) {
+            rango = rango.parallel();
+        }
+        rango.forEach(i -> {
+            int v = orden.obten(i);
+            long distanciaV = distancias.get(v);
+            for (int k = adyacencia.inicioVecinos(v); k < adyacencia.finVecinos(v); k++) {
+                long distanciaVecino = distancias.get(adyacencia.vecino(k));
+                if (distanciaVecino != Dijkstra.INFINITO && distanciaVecino + adyacencia.peso(k) == distanciaV) {
+                    aristaPadre[v] = adyacencia.arista(k);
+                    break;
+                }
+            }
+        });
+
+        ResultadoRecorrido resultado = new ResultadoRecorrido(adyacencia.getDimension());
+        for (int i = 0; i < orden.tamano(); i++) {
+            int v = orden.obten(i);
+            resultado.agregaVertice(v);
+            if (v != origen) {
+                resultado.agregaArista(aristaPadre[v]);
+            }
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,92 @@
+import java.util.Arrays;
+
+/**
+ * Algoritmo de Dijkstra sobre la representación CSR.
+ * Las distancias y los padres se guardan en arreglos primitivos, los vértices por procesar en un montículo indexado
+ * con disminución de llave y los vértices ya procesados en un bitset, así cuesta O(E log V) sin crear objetos.
+ * En la traza cada vértice fijado es una visita precedida por la arista a su padre, y cada arista revisada se anota
+ * como relajada si mejoró la distancia de su destino o como rechazada si no. Al terminar registra en el control los
+ * vértices fijados, las aristas revisadas, las relajaciones y las operaciones del montículo.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class Dijkstra {
+    /**
+     * Distancia de los vértices a los que no se puede llegar desde el origen.
+     */
+    public static final long INFINITO = Long.MAX_VALUE;
+
+    private Dijkstra() {
+    }
+
+    /**
+     * Encuentra el camino más corto desde el vértice de origen hasta todos los demás vértices del grafo.
+     * @param adyacencia La representación CSR del grafo.
+     * @param origen El índice del vértice de origen.
+     * @param control Recibe el avance y permite cancelar el algoritmo.
+     * @param traza Recibe los pasos del algoritmo, puede ser TrazaAlgoritmo.DESACTIVADA.
+     * @return Los vértices en el orden en que se fijó su distancia y, para cada uno, la arista que lo une a su padre
+     * en el árbol de caminos más cortos.
+     */
+    public static ResultadoRecorrido caminoMasCorto(AdyacenciaCSR adyacencia, int origen, ControlEjecucion control,
+                                                    TrazaAlgoritmo traza) {
+        int dimension = adyacencia.getDimension();
+        control.inicia(dimension);
+        ResultadoRecorrido resultado = new ResultadoRecorrido(dimension);
+        long[] distancias = new long[dimension];
+        int[] aristaPadre = new int[dimension];
+        long[] visitados = new long[(dimension + 63) >>> 6];
+        MonticuloIndexado monticulo = new MonticuloIndexado(dimension);
+
+        Arrays.fill(distancias, INFINITO);
+        distancias[origen] = 0;
+        aristaPadre[origen] = -1;
+        monticulo.insertaODisminuye(origen, 0);
+        long revisadas = 0;
+        long relajaciones = 0;
+        long inserciones = 1;
+
+        while (!monticulo.estaVacio()) {
+            int actual = monticulo.extraeMinimo();
+            visitados[actual >>> 6] |= 1L << actual;
+            resultado.agregaVertice(actual);
+            if ((resultado.getNumVertices() & ControlEjecucion.INTERVALO) == 0) {
+                control.avanza(resultado.getNumVertices());
+            }
+            if (aristaPadre[actual] != -1) {
+                resultado.agregaArista(aristaPadre[actual]);
+                traza.acepta(aristaPadre[actual]);
+            }
+            traza.visita(actual);
+            long distanciaActual = distancias[actual];
+            revisadas += adyacencia.finVecinos(actual) - adyacencia.inicioVecinos(actual);
+            for (int k = adyacencia.inicioVecinos(actual); k < adyacencia.finVecinos(actual); k++) {
+                int vecino = adyacencia.vecino(k);
+                if ((visitados[vecino >>> 6] & (1L << vecino)) != 0) {
+                    traza.rechaza(adyacencia.arista(k));
+                    continue;
+                }
+                long distancia = distanciaActual + adyacencia.peso(k);
+                if (distancia < distancias[vecino]) {
+                    relajaciones++;
+                    if (distancias[vecino] == INFINITO) {
+                        inserciones++;
+                    }
+                    distancias[vecino] = distancia;
+                    aristaPadre[vecino] = adyacencia.arista(k);
+                    monticulo.insertaODisminuye(vecino, distancia);
+                    traza.relaja(adyacencia.arista(k));
+                } else {
+                    traza.rechaza(adyacencia.arista(k));
+                }
+            }
+        }
+        // Cada vértice fijado salió una vez del montículo.
+        control.registra(MetricasAlgoritmo.VERTICES_ASENTADOS, resultado.getNumVertices());
+        control.registra(MetricasAlgoritmo.ARISTAS_REVISADAS, revisadas);
+        control.registra(MetricasAlgoritmo.RELAJACIONES, relajaciones);
+        control.registra(MetricasAlgoritmo.INSERCIONES_MONTICULO, inserciones);
+        control.registra(MetricasAlgoritmo.EXTRACCIONES_MONTICULO, resultado.getNumVertices());
+        return resultado;
+    }
+}
@@ -0,0 +1,142 @@
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Ejecuta los algoritmos en un hilo de fondo para que la ventana siga respondiendo mientras se calculan.
+ * Solo hay un algoritmo a la vez: empezar uno nuevo cancela el anterior. Mientras corre, un Timer de Swing muestra
+ * su avance en la etiqueta de progreso; el resultado se entrega en el Event Dispatch Thread. Si la medición está
+ * activada, junto con el resultado quedan las métricas de la ejecución.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class EjecutorAlgoritmos {
+    private final ExecutorService hilo = Executors.newSingleThreadExecutor(tarea -> {
+        Thread thread = new Thread(tarea, "Algoritmos");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Timer temporizador = new Timer(100, e -> muestraProgreso());
+    private JLabel etiquetaProgreso;
+    private ControlEjecucion controlActual;
+    private Future<?> tareaActual;
+    private String descripcionActual;
+    private boolean midiendo = true;
+    private MetricasAlgoritmo ultimasMetricas;
+
+    /**
+     * @param etiquetaProgreso Establece la etiqueta donde se muestra el avance del algoritmo.
+     */
+    public void setEtiquetaProgreso(JLabel etiquetaProgreso) {
+        this.etiquetaProgreso = etiquetaProgreso;
+    }
+
+    /**
+     * @return true si se miden el tiempo y los contadores de cada algoritmo, de lo contrario false.
+     */
+    public boolean isMidiendo() {
+        return midiendo;
+    }
+
+    /**
+     * @param midiendo Establece si se miden el tiempo y los contadores de los algoritmos que se ejecuten después.
+     */
+    public void setMidiendo(boolean midiendo) {
+        this.midiendo = midiendo;
+    }
+
+    /**
+     * @return Las métricas del último algoritmo que terminó sin ser cancelado, o null si no se midió.
+     */
+    public MetricasAlgoritmo getUltimasMetricas() {
+        return ultimasMetricas;
+    }
+
+    /**
+     * Cancela el algoritmo en curso y ejecuta el nuevo en el hilo de fondo.
+     * Debe llamarse desde el Event Dispatch Thread.
+     * @param descripcion El nombre del algoritmo que se muestra junto a su avance.
+     * @param calculo El algoritmo, solo debe leer datos que no cambien mientras corre.
+     * @param alTerminar Recibe el resultado en el Event Dispatch Thread si el algoritmo no fue cancelado; cuando se
+     * llama, getUltimasMetricas ya tiene las de esta ejecución.
+     * @return El futuro del resultado.
+     */
+    public <T> Future<T> ejecuta(String descripcion, Function<ControlEjecucion, T> calculo, Consumer<T> alTerminar) {
+        cancela();
+        ControlEjecucion control = new ControlEjecucion();
+        controlActual = control;
+        descripcionActual = descripcion;
+        boolean mide = midiendo;
+        Future<T> futuro = hilo.submit(() -> {
+            try {
+                if (mide) {
+                    control.activaMetricas();
+                }
+                T resultado = calculo.apply(control);
+                MetricasAlgoritmo metricas = control.terminaMetricas(descripcion);
+                SwingUtilities.invokeLater(() -> {
+                    if (control == controlActual && !control.isCancelado()) {
+                        termina();
+                        ultimasMetricas = metricas;
+                        alTerminar.accept(resultado);
+                    }
+                });
+                return resultado;
+            } catch (CancellationException cancelacion) {
+                throw cancelacion;
+            } catch (RuntimeException | Error error) {
+                SwingUtilities.invokeLater(() -> {
+                    if (control == controlActual) {
+                        termina();
+                        if (etiquetaProgreso != null) {
+                            etiquetaProgreso.setText("Error en " + descripcion + ": " + error);
+                        }
+                    }
+                });
+                throw error;
+            }
+        });
+        tareaActual = futuro;
+        temporizador.restart();
+        return futuro;
+    }
+
+    /**
+     * Cancela el algoritmo en curso, si lo hay.
+     */
+    public void cancela() {
+        if (controlActual != null) {
+            controlActual.cancela();
+            tareaActual.cancel(true);
+            termina();
+        }
+    }
+
+    /**
+     * @return true si hay un algoritmo en curso, de lo contrario false.
+     */
+    public boolean estaOcupado() {
+        return controlActual != null;
+    }
+
+    private void termina() {
+        temporizador.stop();
+        controlActual = null;
+        tareaActual = null;
+    }
+
+    private void muestraProgreso() {
+        if (controlActual != null && etiquetaProgreso != null) {
+            int porcentaje = (int) (controlActual.getFraccion() * 100);
+            String detalle = controlActual.getDetalle();
+            etiquetaProgreso.setText("Calculando " + descripcionActual + "... " + porcentaje + "%"
+                    + (detalle != null ? " (" + detalle + ")" : ""));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder que cubre la construcción de la representación CSR del modelo.
+ * En la ventana la construcción ocurre dentro de la tarea en segundo plano de un algoritmo o de un guardado, con lo
+ * que se tomó de ModeloGrafo.preparaAdyacencia(); en el modo por lotes, en el hilo principal. Se guarda la pila de
+ * llamadas para saber qué tarea la pidió. Como los demás eventos, solo se crea si Java Flight Recorder está iniciado.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+@Name("visualizador.Adyacencia")
+@Label("Construcción de la adyacencia")
+@Category({"Visualizador de Grafos", "Modelo"})
+@Description("Construcción de la representación CSR del grafo")
+@StackTrace(true)
+public class EventoAdyacencia extends Event {
+    @Label("Vértices")
+    @Description("Ranuras de vértices del modelo, incluidas las eliminadas")
+    int vertices;
+
+    @Label("Aristas")
+    @Description("Ranuras de aristas del modelo, incluidas las eliminadas")
+    int aristas;
+
+    @Label("Aristas en la adyacencia")
+    @Description("Aristas vivas que quedaron en la representación CSR")
+    int aristasAdyacencia;
+}
@@ -0,0 +1,67 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder que cubre una ejecución completa de un algoritmo, desde que empieza en su hilo hasta
+ * que entrega el resultado. Las ejecuciones canceladas no se registran.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+@Name("visualizador.Algoritmo")
+@Label("Algoritmo")
+@Category({"Visualizador de Grafos", "Algoritmos"})
+@Description("Ejecución de un algoritmo sobre la representación CSR")
+@StackTrace(false)
+public class EventoAlgoritmo extends Event {
+    @Label("Algoritmo")
+    String algoritmo;
+
+    @Label("Vértices")
+    int vertices;
+
+    @Label("Aristas")
+    int aristas;
+
+    @Label("Vértices del resultado")
+    @Description("Vértices alcanzados, 0 en el árbol de expansión mínima")
+    int verticesResultado;
+
+    @Label("Aristas del resultado")
+    @Description("Aristas del árbol de recorrido, de caminos más cortos o de expansión mínima")
+    int aristasResultado;
+
+    /**
+     * Crea el evento y empieza a medir su duración. Solo se debe llamar si FlightRecorder.isInitialized(): la
+     * primera clase de evento que se carga sin Java Flight Recorder iniciado lo inicializa, lo que cuesta cientos de
+     * milisegundos, así que sin grabación no se debe tocar ninguna clase de evento.
+     * @param algoritmo El nombre del algoritmo.
+     * @param adyacencia La representación CSR sobre la que corre.
+     * @return El evento empezado.
+     */
+    public static EventoAlgoritmo inicia(String algoritmo, AdyacenciaCSR adyacencia) {
+        EventoAlgoritmo evento = new EventoAlgoritmo();
+        evento.begin();
+        evento.algoritmo = algoritmo;
+        evento.vertices = adyacencia.getDimension();
+        evento.aristas = adyacencia.getNumAristas();
+        return evento;
+    }
+
+    /**
+     * Termina el evento y lo registra si se está grabando.
+     * @param verticesResultado El número de vértices del resultado.
+     * @param aristasResultado El número de aristas del resultado.
+     */
+    public void termina(int verticesResultado, int aristasResultado) {
+        end();
+        if (shouldCommit()) {
+            this.verticesResultado = verticesResultado;
+            this.aristasResultado = aristasResultado;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder que cubre la reproducción de una animación, desde que empieza hasta que se aplica
+ * su último cambio, sea al ritmo del Timer o al saltar al final, o hasta que se cancela o la reemplaza otra.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+@Name("visualizador.Animacion")
+@Label("Animación")
+@Category({"Visualizador de Grafos", "Interfaz"})
+@Description("Reproducción de los cambios de color de la animación de un algoritmo")
+@StackTrace(false)
+public class EventoAnimacion extends Event {
+    @Label("Cambios de color")
+    @Description("Cambios que tiene la animación, dos por cada vértice visitado y por cada arista aceptada")
+    int cambios;
+
+    @Label("Pasos aplicados")
+    @Description("Cambios que se habían aplicado al terminar, menos que los cambios si se canceló")
+    int pasos;
+
+    @Label("Cancelada")
+    boolean cancelada;
+}
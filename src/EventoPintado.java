@@ -0,0 +1,41 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder que cubre un pintado del lienzo del grafo, incluida la parte de la capa estática
+ * que haya que volver a dibujar. Junto con los eventos de la ventana permite ver qué cuadros tardaron y por qué.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+@Name("visualizador.Pintado")
+@Label("Pintado del grafo")
+@Category({"Visualizador de Grafos", "Interfaz"})
+@Description("Pintado del lienzo del grafo")
+@StackTrace(false)
+public class EventoPintado extends Event {
+    @Label("Vértices")
+    int vertices;
+
+    @Label("Aristas")
+    int aristas;
+
+    @Label("Vértices visibles")
+    @Description("Vértices que caían en las zonas pintadas, sumando la capa estática y la de resaltados")
+    int verticesVisibles;
+
+    @Label("Aristas visibles")
+    @Description("Aristas que caían en las zonas pintadas, sumando la capa estática y la de resaltados")
+    int aristasVisibles;
+
+    @Label("Capa estática redibujada")
+    @Description("Si hubo que volver a dibujar alguna zona de la capa estática")
+    boolean capaRedibujada;
+
+    @Label("Simplificado")
+    @Description("Si se dibujó la versión de lejos, sin textos")
+    boolean simplificado;
+}
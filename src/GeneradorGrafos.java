@@ -0,0 +1,365 @@
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Generadores de grafos de prueba con semilla: la misma semilla y los mismos parámetros dan siempre el mismo grafo,
+ * así cualquier medición se puede repetir. Los vértices y aristas se entregan en lotes igual que en ImportadorGrafo,
+ * por lo que un grafo de millones de elementos se arma con el camino por lotes del modelo y se ve crecer en el lienzo.
+ * Los vértices se llaman 0, 1, 2, ... y los pesos van de 1 a 100 al azar.
+ * <p>
+ * Tipos:
+ * <ul>
+ *     <li>ERDOS_RENYI: cada par de vértices es arista con la misma probabilidad, elegida para que el grado promedio sea
+ *     el parámetro. Se generan solo las aristas saltando los pares que no lo son, así el costo es proporcional al
+ *     número de aristas y no al de pares.</li>
+ *     <li>CUADRICULA: una red de calles, cada vértice unido con sus vecinos de la derecha y de abajo. El parámetro es
+ *     el porcentaje de calles cortadas al azar; el peso es el largo de la calle, de 1 a 100.</li>
+ *     <li>BARABASI_ALBERT: libre de escala, cada vértice nuevo se une a tantos vértices anteriores como diga el
+ *     parámetro, eligiendo con más probabilidad los que ya tienen más aristas.</li>
+ *     <li>COMPLETO: todos los pares de vértices.</li>
+ *     <li>CAMINO: un camino simple 0 - 1 - 2 - ..., el peor caso de profundidad para los recorridos.</li>
+ * </ul>
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class GeneradorGrafos {
+    /**
+     * Grafo aleatorio de Erdős–Rényi.
+     */
+    public static final int ERDOS_RENYI = 0;
+    /**
+     * Cuadrícula con calles cortadas.
+     */
+    public static final int CUADRICULA = 1;
+    /**
+     * Grafo libre de escala de Barabási–Albert.
+     */
+    public static final int BARABASI_ALBERT = 2;
+    /**
+     * Grafo completo.
+     */
+    public static final int COMPLETO = 3;
+    /**
+     * Camino simple.
+     */
+    public static final int CAMINO = 4;
+    /**
+     * El nombre de cada tipo en la línea de comandos, por su número.
+     */
+    public static final String[] NOMBRES = {"erdos-renyi", "cuadricula", "barabasi-albert", "completo", "camino"};
+    /**
+     * El nombre de cada tipo en la interfaz, por su número.
+     */
+    public static final String[] TITULOS = {"Erdős–Rényi", "Cuadrícula de calles", "Barabási–Albert", "Completo",
+            "Camino"};
+    // Un grafo completo más grande tendría más aristas de las que caben en los arreglos del modelo.
+    private static final int MAX_COMPLETO = 46_000;
+    // Las aristas de ese grafo completo, el límite para los demás tipos; el doble aún cabe en un arreglo.
+    private static final long MAX_ARISTAS = (long) MAX_COMPLETO * (MAX_COMPLETO - 1) / 2;
+
+    private final int tipo;
+    private final int vertices;
+    private final double parametro;
+    private final SplittableRandom aleatorio;
+    private final Consumer<LoteGrafo> alLote;
+    private LoteGrafo lote = new LoteGrafo();
+    private volatile long numAristas;
+    private long inicio;
+
+    /**
+     * @param tipo ERDOS_RENYI, CUADRICULA, BARABASI_ALBERT, COMPLETO o CAMINO.
+     * @param vertices El número de vértices.
+     * @param parametro El grado promedio, el porcentaje de calles cortadas o las aristas por vértice nuevo, según el
+     * tipo; los grafos completos y los caminos no lo usan.
+     * @param semilla La semilla del generador.
+     * @param alLote Recibe cada lote lleno y el último, igual que en ImportadorGrafo.
+     * @throws IllegalArgumentException Si el tipo no existe o los números no sirven para ese tipo.
+     */
+    public GeneradorGrafos(int tipo, int vertices, double parametro, long semilla, Consumer<LoteGrafo> alLote) {
+        verifica(tipo, vertices, parametro);
+        this.tipo = tipo;
+        this.vertices = vertices;
+        this.parametro = parametro;
+        this.aleatorio = new SplittableRandom(semilla);
+        this.alLote = alLote;
+    }
+
+    /**
+     * Revisa que los argumentos sirvan para generar un grafo, sin generarlo.
+     * @throws IllegalArgumentException Si el tipo no existe o los números no sirven para ese tipo.
+     */
+    public static void verifica(int tipo, int vertices, double parametro) {
+        if (tipo < 0 || tipo >= NOMBRES.length) {
+            throw new IllegalArgumentException("Tipo de grafo desconocido: " + tipo);
+        }
+        if (vertices < 1) {
+            throw new IllegalArgumentException("El número de vértices debe ser mayor a 0");
+        }
+        switch (tipo) {
+            case ERDOS_RENYI -> {
+                if (!(parametro >= 0) || parametro > vertices - 1) {
+                    throw new IllegalArgumentException("El grado promedio debe estar entre 0 y " + (vertices - 1));
+                }
+                verificaAristas(vertices * parametro / 2);
+            }
+            case CUADRICULA -> {
+                if (!(parametro >= 0) || parametro > 100) {
+                    throw new IllegalArgumentException("El porcentaje de calles cortadas debe estar entre 0 y 100");
+                }
+            }
+            case BARABASI_ALBERT -> {
+                if (parametro < 1 || parametro >= vertices || parametro != Math.floor(parametro)) {
+                    throw new IllegalArgumentException("Las aristas por vértice nuevo deben ser un entero entre 1 y "
+                            + (vertices - 1));
+                }
+                verificaAristas((double) vertices * parametro);
+            }
+            case COMPLETO -> {
+                if (vertices > MAX_COMPLETO) {
+                    throw new IllegalArgumentException("Un grafo completo puede tener hasta " + MAX_COMPLETO
+                            + " vértices");
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static void verificaAristas(double aristas) {
+        if (aristas > MAX_ARISTAS) {
+            throw new IllegalArgumentException(String.format(Locale.ROOT,
+                    "El grafo tendría unas %.0f aristas y puede tener hasta %d", aristas, MAX_ARISTAS));
+        }
+    }
+
+    /**
+     * @param nombre Un nombre de NOMBRES, sin importar mayúsculas, o su abreviatura: er, grid, ba.
+     * @return El tipo con ese nombre, o -1 si no existe.
+     */
+    public static int tipoDe(String nombre) {
+        String minusculas = nombre.toLowerCase(Locale.ROOT);
+        return switch (minusculas) {
+            case "er" -> ERDOS_RENYI;
+            case "grid", "calles" -> CUADRICULA;
+            case "ba" -> BARABASI_ALBERT;
+            default -> {
+                for (int i = 0; i < NOMBRES.length; i++) {
+                    if (NOMBRES[i].equals(minusculas)) {
+                        yield i;
+                    }
+                }
+                yield -1;
+            }
+        };
+    }
+
+    /**
+     * @param tipo Un tipo de grafo.
+     * @return Qué significa el parámetro para ese tipo, o null si no lo usa.
+     */
+    public static String descripcionParametro(int tipo) {
+        return switch (tipo) {
+            case ERDOS_RENYI -> "Grado promedio";
+            case CUADRICULA -> "Porcentaje de calles cortadas";
+            case BARABASI_ALBERT -> "Aristas por vértice nuevo";
+            default -> null;
+        };
+    }
+
+    /**
+     * @param tipo Un tipo de grafo.
+     * @return El parámetro que se usa si no se da otro.
+     */
+    public static double parametroPorOmision(int tipo) {
+        return switch (tipo) {
+            case ERDOS_RENYI -> 8;
+            case CUADRICULA -> 10;
+            case BARABASI_ALBERT -> 3;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Genera todo el grafo en un modelo nuevo, sin hilos ni avance.
+     * @return Un modelo nuevo con el grafo.
+     * @throws IllegalArgumentException Si los argumentos no sirven; ver el constructor.
+     */
+    public static ModeloGrafo genera(int tipo, int vertices, double parametro, long semilla) {
+        ModeloGrafo modelo = new ModeloGrafo();
+        ListaEnteros indices = new ListaEnteros(vertices);
+        new GeneradorGrafos(tipo, vertices, parametro, semilla, lote -> modelo.agregaLote(lote, indices))
+                .genera(new ControlEjecucion());
+        return modelo;
+    }
+
+    /**
+     * Genera el grafo y entrega sus lotes. El avance se informa en aristas generadas sobre las esperadas, y el
+     * detalle lleva cuántas van y cuántas por segundo.
+     * @param control Recibe el avance; si se cancela, la generación se detiene en el siguiente lote.
+     * @throws java.util.concurrent.CancellationException Si se canceló la generación.
+     */
+    public void genera(ControlEjecucion control) {
+        inicio = System.nanoTime();
+        control.inicia(Math.max(aristasEsperadas(), 1));
+        if (tipo == CUADRICULA) {
+            generaCuadricula(control);
+        } else {
+            for (int i = 0; i < vertices; i++) {
+                agregaVertice(i, ArchivoGrafo.cuadriculaX(i), ArchivoGrafo.cuadriculaY(i), control);
+            }
+            switch (tipo) {
+                case ERDOS_RENYI -> generaErdosRenyi(control);
+                case BARABASI_ALBERT -> generaBarabasiAlbert(control);
+                case COMPLETO -> generaCompleto(control);
+                default -> generaCamino(control);
+            }
+        }
+        entregaLote(control);
+    }
+
+    /**
+     * @return Las aristas generadas hasta ahora.
+     */
+    public long getNumAristas() {
+        return numAristas;
+    }
+
+    private long aristasEsperadas() {
+        return switch (tipo) {
+            case ERDOS_RENYI -> (long) (vertices * parametro / 2);
+            case CUADRICULA -> 2L * vertices;
+            case BARABASI_ALBERT -> (long) vertices * (long) parametro;
+            case COMPLETO -> (long) vertices * (vertices - 1) / 2;
+            default -> vertices - 1;
+        };
+    }
+
+    /**
+     * Método de Batagelj y Brandes: los pares (v, w) con w menor que v se recorren en orden saltando de una arista a
+     * la siguiente con un salto geométrico, que es lo que tardaría en salir la siguiente arista probando par por par.
+     */
+    private void generaErdosRenyi(ControlEjecucion control) {
+        double probabilidad = vertices > 1 ? parametro / (vertices - 1) : 0;
+        if (probabilidad <= 0) {
+            return;
+        }
+        if (probabilidad >= 1) {
+            generaCompleto(control);
+            return;
+        }
+        double logaritmo = Math.log(1 - probabilidad);
+        long v = 1;
+        long w = -1;
+        while (v < vertices) {
+            w += 1 + (long) (Math.log(1 - aleatorio.nextDouble()) / logaritmo);
+            while (w >= v && v < vertices) {
+                w -= v;
+                v++;
+            }
+            if (v < vertices) {
+                agregaArista((int) v, (int) w, 1 + aleatorio.nextInt(100), control);
+            }
+        }
+    }
+
+    private void generaCuadricula(ControlEjecucion control) {
+        int columnas = (int) Math.ceil(Math.sqrt(vertices));
+        for (int i = 0; i < vertices; i++) {
+            agregaVertice(i, ArchivoGrafo.SEPARACION * (i % columnas + 1),
+                    ArchivoGrafo.SEPARACION * (i / columnas + 1), control);
+        }
+        double cortadas = parametro / 100;
+        for (int i = 0; i < vertices; i++) {
+            if ((i + 1) % columnas != 0 && i + 1 < vertices && aleatorio.nextDouble() >= cortadas) {
+                agregaArista(i, i + 1, 1 + aleatorio.nextInt(100), control);
+            }
+            if (i + columnas < vertices && aleatorio.nextDouble() >= cortadas) {
+                agregaArista(i, i + columnas, 1 + aleatorio.nextInt(100), control);
+            }
+        }
+    }
+
+    /**
+     * Cada extremo de cada arista se anota en una lista, así elegir un elemento de la lista al azar es elegir un
+     * vértice con probabilidad proporcional a su grado. Los primeros m + 1 vértices forman un grafo completo.
+     */
+    private void generaBarabasiAlbert(ControlEjecucion control) {
+        int m = (int) parametro;
+        // verifica() limita m * vertices a MAX_ARISTAS, así los extremos siempre caben.
+        int[] extremos = new int[(int) (2L * m * vertices)];
+        int numExtremos = 0;
+        for (int v = 1; v <= m; v++) {
+            for (int w = 0; w < v; w++) {
+                agregaArista(v, w, 1 + aleatorio.nextInt(100), control);
+                extremos[numExtremos++] = v;
+                extremos[numExtremos++] = w;
+            }
+        }
+        int[] elegidos = new int[m];
+        for (int v = m + 1; v < vertices; v++) {
+            for (int k = 0; k < m; k++) {
+                int elegido;
+                do {
+                    elegido = extremos[aleatorio.nextInt(numExtremos)];
+                } while (yaElegido(elegidos, k, elegido));
+                elegidos[k] = elegido;
+            }
+            for (int k = 0; k < m; k++) {
+                agregaArista(v, elegidos[k], 1 + aleatorio.nextInt(100), control);
+                extremos[numExtremos++] = v;
+                extremos[numExtremos++] = elegidos[k];
+            }
+        }
+    }
+
+    private static boolean yaElegido(int[] elegidos, int cantidad, int vertice) {
+        for (int i = 0; i < cantidad; i++) {
+            if (elegidos[i] == vertice) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void generaCompleto(ControlEjecucion control) {
+        for (int v = 1; v < vertices; v++) {
+            for (int w = 0; w < v; w++) {
+                agregaArista(v, w, 1 + aleatorio.nextInt(100), control);
+            }
+        }
+    }
+
+    private void generaCamino(ControlEjecucion control) {
+        for (int v = 1; v < vertices; v++) {
+            agregaArista(v - 1, v, 1 + aleatorio.nextInt(100), control);
+        }
+    }
+
+    private void agregaVertice(int vertice, int x, int y, ControlEjecucion control) {
+        lote.agregaVertice(String.valueOf(vertice), x, y);
+        if (lote.estaLleno()) {
+            entregaLote(control);
+        }
+    }
+
+    private void agregaArista(int origen, int destino, int peso, ControlEjecucion control) {
+        lote.agregaArista(origen, destino, peso);
+        numAristas++;
+        if (lote.estaLleno()) {
+            entregaLote(control);
+        }
+    }
+
+    private void entregaLote(ControlEjecucion control) {
+        control.verifica();
+        control.avanza(numAristas);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        control.setDetalle(String.format("%,d aristas, %,d aristas/s", numAristas,
+                segundos > 0 ? (long) (numAristas / segundos) : 0));
+        if (!lote.estaVacio()) {
+            alLote.accept(lote);
+            lote = new LoteGrafo();
+        }
+    }
+}
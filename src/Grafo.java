@@ -1,77 +1,478 @@
-import javax.swing.*;
+import jdk.jfr.FlightRecorder;
+
 import java.awt.*;
-import java.util.*;
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Clase que representa un grafo, se encarga llevar un control de los vértices y aristas, así como mostrar y
  * actualizar información para así poder aplicar los algoritmos sobre el grafo representado en el panel.
+ * Los datos viven en un ModeloGrafo sin Swing, identificados por índices enteros, y un solo LienzoGrafo los dibuja;
+ * el grafo solo guarda además el color con el que se muestra cada elemento.
  * @author Luis-Rangel
  * @version 1.1
  */
 public class Grafo {
-    private final ArrayList<Vertice> vertices = new ArrayList<>();
-    private final ArrayList<Arista> aristas = new ArrayList<>();
-    private ArrayList<Arista> aristasDeRecubrimiento;
-    private ArrayList<ArrayList<Integer>> matrizAdyacencia;
-    private int dimension;
+    /**
+     * Color original de los vértices.
+     */
+    public static final Color COLOR_VERTICE = Color.decode("#ED94FF");
+    /**
+     * Color original de las aristas y sus pesos.
+     */
+    public static final Color COLOR_ARISTA = Color.decode("#7094FF");
+    private static final Color COLOR_VISITANDO = Color.decode("#FFFF70");
+    /**
+     * Color de los elementos que ya visitó un algoritmo y del vértice elegido como origen de una arista.
+     */
+    public static final Color COLOR_VISITADO = Color.decode("#25AD6B");
+    private static final Color COLOR_INNECESARIA = Color.decode("#463F57");
+    private final ModeloGrafo modelo = new ModeloGrafo();
+    // Para saber qué vértice o arista está debajo del cursor sin revisarlos todos.
+    private final IndiceEspacial indiceEspacial = new IndiceEspacial(modelo);
+    private final LienzoGrafo panel;
+    // Área reutilizable para marcar lo que hay que repintar al mover un vértice o cambiar un color.
+    private final Rectangle areaCambio = new Rectangle();
+    // Color de cada posición del modelo, null si el elemento tiene su color original.
+    private Color[] coloresVertices = new Color[16];
+    private Color[] coloresAristas = new Color[16];
+    // Elementos a los que se les cambió el color desde que el lienzo dibujó por última vez toda su capa estática,
+    // que ya lleva los colores de entonces; solo estos se dibujan encima. Los bits evitan repetirlos en las listas.
+    private final ListaEnteros verticesResaltados = new ListaEnteros();
+    private final ListaEnteros aristasResaltadas = new ListaEnteros();
+    private long[] bitsVerticesResaltados = new long[1];
+    private long[] bitsAristasResaltadas = new long[1];
+    // Aristas del último árbol de expansión mínima calculado, como conjunto de bits sobre las posiciones del modelo.
+    private long[] aristasDeRecubrimiento;
+    // A partir de este número de aristas el árbol de expansión mínima se calcula con Borůvka en paralelo.
+    private int umbralBoruvka = 1_000_000;
+    // A partir de este número de aristas el recorrido en amplitud se hace por niveles en paralelo.
+    private int umbralAmplitudParalela = 1_000_000;
+    // Motor del camino más corto: Dijkstra secuencial o delta-stepping paralelo con el delta dado (0 = automático).
+    private boolean usaDeltaStepping;
+    private int delta;
+    // Los algoritmos corren en segundo plano sobre una copia inmutable de la adyacencia.
+    private final EjecutorAlgoritmos ejecutor = new EjecutorAlgoritmos();
+    // Los recorridos se muestran coloreando sus elementos paso a paso.
+    private final AnimacionGrafo animacion = new AnimacionGrafo(this);
+    // Los pasos del último algoritmo terminado, la animación se construye a partir de ellos.
+    private TrazaAlgoritmo ultimaTraza;
+    private static final Color[] PALETA_RECORRIDO = {COLOR_VISITANDO, COLOR_VISITADO};
+    // Lotes de una importación o generación que pueden esperar a la vez su turno en el Event Dispatch Thread.
+    private static final int LOTES_EN_ESPERA = 2;
+    // Cada cuánto se muestra lo agregado por lotes, en nanosegundos; repintar por lote frenaría la lectura.
+    private static final long INTERVALO_IMPORTACION = 250_000_000L;
+    // Identifica la importación o generación en curso; clear() la cancela y lo borra para que sus lotes pendientes
+    // se descarten.
+    private Object importacion;
+    private long ultimoAvanceImportacion;
+
+    /**
+     * Crea un grafo vacío que se dibuja en el panel dado.
+     * @param panel El panel que dibuja el grafo, se repinta cada vez que el grafo cambia.
+     */
+    public Grafo(LienzoGrafo panel) {
+        this.panel = panel;
+    }
+
+    /**
+     * @return El modelo con los datos del grafo.
+     */
+    public ModeloGrafo getModelo() {
+        return modelo;
+    }
 
     /**
-     * Crea un nuevo vértice y lo agrega a la lista.
+     * @return El panel donde se dibuja el grafo.
+     */
+    public LienzoGrafo getPanel() {
+        return panel;
+    }
+
+    /**
+     * @return La versión actual de la estructura del grafo, cambia cada vez que se agrega o elimina un elemento.
+     */
+    public long getVersion() {
+        return modelo.getVersion();
+    }
+
+    /**
+     * @return El ejecutor donde corren los algoritmos del grafo.
+     */
+    public EjecutorAlgoritmos getEjecutor() {
+        return ejecutor;
+    }
+
+    /**
+     * @return El reproductor de la animación de los recorridos.
+     */
+    public AnimacionGrafo getAnimacion() {
+        return animacion;
+    }
+
+    /**
+     * @return Los pasos del último algoritmo que terminó, sobre las aristas de su representación CSR; null si
+     * todavía no ha terminado ninguno.
+     */
+    public TrazaAlgoritmo getUltimaTraza() {
+        return ultimaTraza;
+    }
+
+    /**
+     * @return El tiempo y los contadores de operaciones de la última tarea en segundo plano que terminó, sea un
+     * algoritmo, una importación o una generación; null si no se midió o todavía no ha terminado ninguna.
+     */
+    public MetricasAlgoritmo getUltimasMetricas() {
+        return ejecutor.getUltimasMetricas();
+    }
+
+    /**
+     * @return true si se miden los algoritmos, de lo contrario false.
+     */
+    public boolean isMidiendo() {
+        return ejecutor.isMidiendo();
+    }
+
+    /**
+     * Sin medición los algoritmos cuentan igual en sus variables locales, solo dejan de tomarse el tiempo y de
+     * guardarse las métricas.
+     * @param midiendo Establece si se miden el tiempo y los contadores de los algoritmos.
+     */
+    public void setMidiendo(boolean midiendo) {
+        ejecutor.setMidiendo(midiendo);
+    }
+
+    /**
+     * Cancela el algoritmo que se esté calculando y la animación que se esté mostrando, si los hay.
+     */
+    public void cancelaAlgoritmo() {
+        ejecutor.cancela();
+        animacion.cancela();
+    }
+
+    /**
+     * @return El número de aristas a partir del cual se usa Borůvka paralelo en lugar de Kruskal.
+     */
+    public int getUmbralBoruvka() {
+        return umbralBoruvka;
+    }
+
+    /**
+     * @param umbralBoruvka Establece el número de aristas a partir del cual se usa Borůvka paralelo.
+     */
+    public void setUmbralBoruvka(int umbralBoruvka) {
+        this.umbralBoruvka = umbralBoruvka;
+    }
+
+    /**
+     * @return El número de aristas a partir del cual el recorrido en amplitud se hace en paralelo.
+     */
+    public int getUmbralAmplitudParalela() {
+        return umbralAmplitudParalela;
+    }
+
+    /**
+     * @param umbralAmplitudParalela Establece el número de aristas a partir del cual la amplitud es paralela.
+     */
+    public void setUmbralAmplitudParalela(int umbralAmplitudParalela) {
+        this.umbralAmplitudParalela = umbralAmplitudParalela;
+    }
+
+    /**
+     * @return true si el camino más corto se calcula con delta-stepping en lugar de Dijkstra.
+     */
+    public boolean isUsaDeltaStepping() {
+        return usaDeltaStepping;
+    }
+
+    /**
+     * @param usaDeltaStepping Establece si el camino más corto se calcula con delta-stepping en paralelo.
+     */
+    public void setUsaDeltaStepping(boolean usaDeltaStepping) {
+        this.usaDeltaStepping = usaDeltaStepping;
+    }
+
+    /**
+     * @return El ancho de las cubetas de delta-stepping, 0 si se calcula automáticamente.
+     */
+    public int getDelta() {
+        return delta;
+    }
+
+    /**
+     * @param delta Establece el ancho de las cubetas de delta-stepping, 0 para calcularlo automáticamente.
+     */
+    public void setDelta(int delta) {
+        this.delta = delta;
+    }
+
+    /**
+     * Crea un nuevo vértice.
      * @param ID El ID del vértice.
      * @param x  La coordenada x del vértice.
      * @param y  La coordenada y del vértice.
-     * @return El vértice creado, o null si ya existe un vértice con el mismo ID.
-     */
-    public Vertice creaVertice(String ID, int x, int y) {
-        if (existeVertice(ID)) {
-            return null;
-        } else {
-            Vertice vertice = new Vertice(x, y, ID);
-            vertices.add(vertice);
-            return vertice;
+     * @return El índice del vértice creado, o -1 si ya existe un vértice con el mismo ID.
+     */
+    public int creaVertice(String ID, int x, int y) {
+        int vertice = modelo.agregaVertice(ID, x, y);
+        if (vertice != -1) {
+            indiceEspacial.agregaVertice(vertice);
+            if (modelo.getNumRanurasVertices() > coloresVertices.length) {
+                coloresVertices = Arrays.copyOf(coloresVertices,
+                        Math.max(coloresVertices.length * 2, modelo.getNumRanurasVertices()));
+            }
+            panel.repaint();
         }
+        return vertice;
     }
 
     /**
-     * @param vertice Elimina vértice dado de la lista de vértices.
+     * Elimina el vértice junto con todas las aristas conectadas a él.
+     * @param vertice El índice del vértice.
      */
-    public void eliminaVertice(Vertice vertice) {
-        vertices.remove(vertice);
+    public void eliminaVertice(int vertice) {
+        if (!modelo.existeVertice(vertice)) {
+            return;
+        }
+        for (int arista : modelo.aristasIncidentes(vertice)) {
+            eliminaArista(arista);
+        }
+        indiceEspacial.quitaVertice(vertice);
+        modelo.eliminaVertice(vertice);
+        coloresVertices[vertice] = null;
+        panel.repaint();
     }
 
     /**
-     * Crea una nueva arista entre dos vértices y la agrega a la lista.
+     * Crea una nueva arista entre dos vértices.
      * @param origenID  El ID del vértice de origen.
      * @param destinoID El ID del vértice de destino.
      * @param peso      El peso de la arista.
-     * @return La arista creada, o null si alguno de los vértices no existe.
+     * @return El índice de la arista creada, o -1 si alguno de los vértices no existe o ya estaban conectados.
      */
-    public Arista creaArista(String origenID, String destinoID, int peso) {
-        Vertice vOrigen = encuentraVerticeID(origenID);
-        Vertice vDestino = encuentraVerticeID(destinoID);
-
-        if (vOrigen != null && vDestino != null) {
-            Arista arista = new Arista(vOrigen, vDestino, peso);
-            aristas.add(arista);
-            return arista;
+    public int creaArista(String origenID, String destinoID, int peso) {
+        int arista = modelo.agregaArista(modelo.buscaVertice(origenID), modelo.buscaVertice(destinoID), peso);
+        if (arista != -1) {
+            indiceEspacial.agregaArista(arista);
+            if (modelo.getNumRanurasAristas() > coloresAristas.length) {
+                coloresAristas = Arrays.copyOf(coloresAristas,
+                        Math.max(coloresAristas.length * 2, modelo.getNumRanurasAristas()));
+            }
+            panel.repaint();
         }
-        return null;
+        return arista;
     }
 
     /**
-     * @param arista Elimina la arista de la lista de aristas.
+     * Elimina la arista.
+     * @param arista El índice de la arista.
      */
-    public void eliminaArista(Arista arista) {
-        aristas.remove(arista);
+    public void eliminaArista(int arista) {
+        if (!modelo.existeArista(arista)) {
+            return;
+        }
+        indiceEspacial.quitaArista(arista);
+        modelo.eliminaArista(arista);
+        coloresAristas[arista] = null;
+        panel.repaint();
     }
 
     /**
-     * Elimina todos los vértices y aristas de sus respectivas listas.
+     * Elimina todos los vértices y aristas.
      */
     public void clear() {
-        vertices.clear();
-        aristas.clear();
+        animacion.cancela();
+        if (importacion != null) {
+            importacion = null;
+            ejecutor.cancela();
+        }
+        modelo.limpia();
+        indiceEspacial.invalida();
+        coloresVertices = new Color[16];
+        coloresAristas = new Color[16];
+        incorporaResaltados();
+        aristasDeRecubrimiento = null;
+        panel.repaint();
+    }
+
+    /**
+     * Reemplaza el grafo por el de otro modelo, que no debe volver a usarse.
+     * @param nuevo El modelo con el grafo que se muestra a partir de ahora.
+     */
+    public void carga(ModeloGrafo nuevo) {
+        clear();
+        modelo.reemplaza(nuevo);
+        indiceEspacial.invalida();
+        coloresVertices = new Color[Math.max(modelo.getNumRanurasVertices(), 16)];
+        coloresAristas = new Color[Math.max(modelo.getNumRanurasAristas(), 16)];
+        panel.repaint();
+    }
+
+    /**
+     * Lee un grafo en segundo plano, en el formato binario o como lista de aristas, y al terminar reemplaza el
+     * actual. Cancela cualquier algoritmo en curso; si el archivo no se puede leer el error se muestra en la
+     * etiqueta de progreso y el grafo no cambia.
+     * @param archivo La ruta del archivo.
+     * @param alTerminar Se ejecuta después de mostrar el grafo leído.
+     * @return El futuro del modelo leído.
+     */
+    public Future<ModeloGrafo> abre(Path archivo, Runnable alTerminar) {
+        animacion.cancela();
+        return ejecutor.ejecuta("carga de " + archivo.getFileName(), control -> {
+            try {
+                return ArchivoGrafo.lee(archivo);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e.getMessage(), e);
+            }
+        }, nuevo -> {
+            carga(nuevo);
+            alTerminar.run();
+        });
+    }
+
+    /**
+     * Importa en segundo plano un archivo de texto (lista de aristas, DIMACS o GraphML, según su extensión) en lugar
+     * del grafo actual. Los vértices y aristas se agregan por lotes mientras se leen, así el grafo aparece en el lienzo
+     * poco a poco y el avance muestra las aristas leídas por segundo. Si la importación se cancela o falla, lo
+     * importado hasta ese momento se queda; clear() también la cancela.
+     * @param archivo La ruta del archivo.
+     * @param alAvanzar Se ejecuta cada vez que se muestra lo importado, a lo más cuatro veces por segundo.
+     * @param alTerminar Se ejecuta después de agregar el último lote.
+     * @return El futuro del número de aristas leídas.
+     */
+    public Future<Long> importa(Path archivo, Runnable alAvanzar, Runnable alTerminar) {
+        return agregaPorLotes("importación de " + archivo.getFileName(), (control, alLote) -> {
+            ImportadorGrafo importador = new ImportadorGrafo(archivo, ImportadorGrafo.formatoDe(archivo), alLote);
+            try {
+                importador.importa(control);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e.getMessage(), e);
+            }
+            return importador.getNumAristas();
+        }, alAvanzar, alTerminar);
+    }
+
+    /**
+     * Genera en segundo plano un grafo de prueba en lugar del actual, con GeneradorGrafos. Igual que al importar, los
+     * elementos se agregan por lotes y el grafo aparece poco a poco.
+     * @param tipo El tipo de grafo, una constante de GeneradorGrafos.
+     * @param vertices El número de vértices.
+     * @param parametro El parámetro del tipo de grafo.
+     * @param semilla La semilla, la misma semilla da el mismo grafo.
+     * @param alAvanzar Se ejecuta cada vez que se muestra lo generado, a lo más cuatro veces por segundo.
+     * @param alTerminar Se ejecuta después de agregar el último lote.
+     * @return El futuro del número de aristas generadas.
+     * @throws IllegalArgumentException Si los números no sirven para ese tipo de grafo; el grafo actual no cambia.
+     */
+    public Future<Long> genera(int tipo, int vertices, double parametro, long semilla, Runnable alAvanzar,
+                               Runnable alTerminar) {
+        // Se valida antes de limpiar, así un error no borra el grafo actual.
+        GeneradorGrafos.verifica(tipo, vertices, parametro);
+        return agregaPorLotes("generación de " + GeneradorGrafos.TITULOS[tipo], (control, alLote) -> {
+            GeneradorGrafos generador = new GeneradorGrafos(tipo, vertices, parametro, semilla, alLote);
+            generador.genera(control);
+            return generador.getNumAristas();
+        }, alAvanzar, alTerminar);
+    }
+
+    /**
+     * Reemplaza el grafo por el que entrega un productor de lotes en segundo plano. Cada lote se agrega en el Event
+     * Dispatch Thread; si el EDT se atrasa, el productor espera, así no se acumulan lotes en memoria.
+     * @param descripcion Lo que se muestra junto al avance.
+     * @param productor Recibe el control y a quién entregar los lotes; devuelve el número de aristas producidas.
+     */
+    private Future<Long> agregaPorLotes(String descripcion,
+                                        BiFunction<ControlEjecucion, Consumer<LoteGrafo>, Long> productor,
+                                        Runnable alAvanzar, Runnable alTerminar) {
+        clear();
+        Object esta = new Object();
+        importacion = esta;
+        ultimoAvanceImportacion = System.nanoTime();
+        // Índice en el modelo de cada vértice importado, por orden de aparición; solo lo usa el EDT.
+        ListaEnteros indices = new ListaEnteros();
+        Semaphore lotesEnEspera = new Semaphore(LOTES_EN_ESPERA);
+        return ejecutor.ejecuta(descripcion, control -> productor.apply(control, lote -> {
+            lotesEnEspera.acquireUninterruptibly();
+            EventQueue.invokeLater(() -> {
+                try {
+                    if (importacion == esta && !control.isCancelado()) {
+                        agregaLote(lote, indices, alAvanzar);
+                    }
+                } finally {
+                    lotesEnEspera.release();
+                }
+            });
+        }), producidas -> {
+            importacion = null;
+            panel.repaint();
+            alTerminar.run();
+        });
+    }
+
+    /**
+     * Agrega un lote al modelo, al índice espacial y a los colores, y muestra lo agregado si ya pasó el intervalo
+     * desde la última vez.
+     */
+    private void agregaLote(LoteGrafo lote, ListaEnteros indices, Runnable alAvanzar) {
+        int primerVertice = modelo.getNumRanurasVertices();
+        int primeraArista = modelo.getNumRanurasAristas();
+        modelo.agregaLote(lote, indices);
+        for (int vertice = primerVertice; vertice < modelo.getNumRanurasVertices(); vertice++) {
+            indiceEspacial.agregaVertice(vertice);
+        }
+        for (int arista = primeraArista; arista < modelo.getNumRanurasAristas(); arista++) {
+            indiceEspacial.agregaArista(arista);
+        }
+        if (modelo.getNumRanurasVertices() > coloresVertices.length) {
+            coloresVertices = Arrays.copyOf(coloresVertices,
+                    Math.max(coloresVertices.length * 2, modelo.getNumRanurasVertices()));
+        }
+        if (modelo.getNumRanurasAristas() > coloresAristas.length) {
+            coloresAristas = Arrays.copyOf(coloresAristas,
+                    Math.max(coloresAristas.length * 2, modelo.getNumRanurasAristas()));
+        }
+        long ahora = System.nanoTime();
+        if (ahora - ultimoAvanceImportacion >= INTERVALO_IMPORTACION) {
+            ultimoAvanceImportacion = ahora;
+            alAvanzar.run();
+            panel.repaint();
+        }
+    }
+
+    /**
+     * Guarda el grafo en segundo plano en el formato binario. En el Event Dispatch Thread solo se copian los arreglos
+     * de los vértices y se toman los de las aristas; la adyacencia se construye, si hace falta, y el archivo se escribe
+     * dentro de la tarea, así el grafo se puede seguir editando mientras se guarda. El archivo tiene los vértices y las
+     * aristas de cuando se pidió guardar; una arista eliminada mientras se escribe puede quedar fuera, como si se
+     * hubiera eliminado antes.
+     * Cancela cualquier algoritmo en curso, y empezar otro cancela el guardado sin tocar el archivo anterior.
+     * @param archivo La ruta del archivo.
+     * @param alTerminar Recibe en el Event Dispatch Thread el error al escribir, o null si el grafo se guardó.
+     * @return El futuro del error al escribir, null si el grafo se guardó.
+     */
+    public Future<IOException> guarda(Path archivo, Consumer<IOException> alTerminar) {
+        ModeloGrafo vertices = modelo.copiaVertices();
+        Supplier<AdyacenciaCSR> construccion = modelo.preparaAdyacencia();
+        PreparacionAlgoritmo preparacion = new PreparacionAlgoritmo(modelo.getVersion());
+        return ejecutor.ejecuta("guardado de " + archivo.getFileName(), control -> {
+            preparacion.adyacencia = construccion.get();
+            try {
+                ArchivoGrafo.escribeBinario(vertices, preparacion.adyacencia, archivo);
+                return null;
+            } catch (IOException e) {
+                return e;
+            }
+        }, error -> {
+            modelo.guardaAdyacencia(preparacion.adyacencia, preparacion.version);
+            alTerminar.accept(error);
+        });
     }
 
     /**
@@ -80,12 +481,7 @@ public class Grafo {
      * @return true si el vértice existe, de lo contrario false.
      */
     public boolean existeVertice(String ID) {
-        for (Vertice vertice : vertices) {
-            if (vertice.getID().equals(ID)) {
-                return true;
-            }
-        }
-        return false;
+        return modelo.buscaVertice(ID) != -1;
     }
 
     /**
@@ -95,404 +491,444 @@ public class Grafo {
      * @return true si la arista existe, de lo contrario false.
      */
     public boolean existeArista(String v1, String v2) {
-        for (Arista arista : aristas) {
-            if (arista.sonIguales(v1, v2)) {
-                return true;
-            }
-        }
-        return false;
+        int origen = modelo.buscaVertice(v1);
+        int destino = modelo.buscaVertice(v2);
+        return origen != -1 && destino != -1 && modelo.buscaArista(origen, destino) != -1;
     }
 
     /**
      * Encuentra un vértice en el grafo utilizando su ID.
      * @param ID El ID del vértice a buscar.
-     * @return El vértice encontrado, o null si no se encontró ningún vértice con el ID especificado.
+     * @return El índice del vértice encontrado, o -1 si no se encontró ningún vértice con el ID especificado.
      */
-    public Vertice encuentraVerticeID(String ID) {
-        for (Vertice vertice : vertices) {
-            if (vertice.getID().equals(ID)) {
-                return vertice;
-            }
-        }
-        return null;
+    public int encuentraVerticeID(String ID) {
+        return modelo.buscaVertice(ID);
     }
 
     /**
      * Devuelve una arista si existe entre dos vértices dados.
-     * @param origen El vértice de origen.
-     * @param destino El vértice de destino.
-     * @return Arista si existe, null en otro caso.
-     */
-    public Arista aristaConectada(Vertice origen, Vertice destino) {
-        for (Arista a: aristas) {
-            if ((a.getOrigen() == origen && a.getDestino() == destino) || (a.getOrigen() == destino && a.getDestino() == origen)) {
-                return a;
-            }
-        }
-        return null;
+     * @param origen El índice del vértice de origen.
+     * @param destino El índice del vértice de destino.
+     * @return El índice de la arista si existe, -1 en otro caso.
+     */
+    public int aristaConectada(int origen, int destino) {
+        return modelo.buscaArista(origen, destino);
     }
 
     /**
-     * Hasta ahora hemos representado el grafo con dos listas: vértices y aristas, eso es muy útil y práctico para
-     * la mayoría de los casos, sin embargo, para poder aplicar algoritmos en el grafo se necesita una representación
-     * que nos permita modelar una relación entre ellos, por eso yo he decidido utilizar una matriz de adyacencia,
-     * ya que es muy útil cuando se tienen grafos muy densos y podemos aprovechar las dos listas que ya tenemos.
+     * Busca el vértice que se dibuja en el punto dado; si hay varios encimados gana el más reciente, que se dibuja
+     * encima de los demás.
+     * @param x La coordenada x del punto.
+     * @param y La coordenada y del punto.
+     * @return El índice del vértice, o -1 si el punto no toca ningún vértice.
      */
-    public void crearMatrizAdyacencia() {
-        dimension = vertices.size();
-        matrizAdyacencia = new ArrayList<>();
+    public int verticeEn(int x, int y) {
+        return indiceEspacial.verticeEn(x, y);
+    }
 
-        // Inicializar la matriz de adyacencia con ceros
-        for (int i = 0; i < dimension; i++) {
-            matrizAdyacencia.add(new ArrayList<>());
-            for (int j = 0; j < dimension; j++) {
-                matrizAdyacencia.get(i).add(0);
-            }
+    /**
+     * Busca la arista que pasa por el punto dado, con la tolerancia de Arista.estaTocandoArista().
+     * @param x La coordenada x del punto.
+     * @param y La coordenada y del punto.
+     * @return El índice de la arista, o -1 si el punto no toca ninguna arista.
+     */
+    public int aristaEn(int x, int y) {
+        return indiceEspacial.aristaEn(x, y);
+    }
+
+    /**
+     * Junta los vértices y aristas que pueden verse dentro del área dada, sin revisar todo el grafo.
+     * @param area El área, en coordenadas del grafo.
+     * @param vertices Recibe los vértices, ordenados por índice.
+     * @param aristas Recibe las aristas.
+     */
+    public void elementosEn(Rectangle area, ListaEnteros vertices, ListaEnteros aristas) {
+        indiceEspacial.elementosEn(area.x, area.y, area.x + area.width, area.y + area.height, vertices, aristas);
+    }
+
+    /**
+     * Mueve un vértice y repinta solo la zona afectada: la unión de las áreas del vértice, sus aristas y sus pesos
+     * antes y después de moverlo. El lienzo junta las zonas de los eventos que llegan en el mismo cuadro.
+     * El vértice se vuelve a anotar en el índice espacial con su nueva posición y sus aristas se sacan de él hasta
+     * la próxima búsqueda, así el arrastre no recalcula sus celdas en cada evento.
+     * @param vertice El índice del vértice.
+     * @param x La nueva coordenada x del centro del vértice.
+     * @param y La nueva coordenada y del centro del vértice.
+     */
+    public void mueveVertice(int vertice, int x, int y) {
+        int[] incidentes = modelo.aristasIncidentes(vertice);
+        marcaAreaMovimiento(vertice, incidentes);
+        indiceEspacial.quitaVertice(vertice);
+        for (int arista : incidentes) {
+            indiceEspacial.aplazaArista(arista);
         }
+        modelo.setPosicion(vertice, x, y);
+        indiceEspacial.agregaVertice(vertice);
+        marcaAreaMovimiento(vertice, incidentes);
+    }
 
-        // Llenar la matriz de adyacencia con las conexiones existentes
-        for (Arista arista : aristas) {
-            Vertice origen = arista.getOrigen();
-            Vertice destino = arista.getDestino();
-            int indiceOrigen = vertices.indexOf(origen);
-            int indiceDestino = vertices.indexOf(destino);
-            matrizAdyacencia.get(indiceOrigen).set(indiceDestino, arista.getPeso());
-            matrizAdyacencia.get(indiceDestino).set(indiceOrigen, arista.getPeso());
+    private void marcaAreaMovimiento(int vertice, int[] incidentes) {
+        Vertice.area(modelo, vertice, areaCambio);
+        panel.marcaSucia(areaCambio);
+        for (int arista : incidentes) {
+            Arista.area(modelo, arista, areaCambio);
+            panel.marcaSucia(areaCambio);
         }
     }
 
     /**
-     * Realiza un recorrido en amplitud en el gráfico y devuelve los vértices visitados.
-     * @param inicio El vértice al que se le aplicará el algoritmo.
-     * @return Una representación en cadena de los vértices visitados.
+     * @param vertice El índice del vértice.
+     * @return El color con el que se dibuja el vértice.
+     */
+    public Color getColorVertice(int vertice) {
+        return coloresVertices[vertice] != null ? coloresVertices[vertice] : COLOR_VERTICE;
+    }
+
+    /**
+     * @param arista El índice de la arista.
+     * @return El color con el que se dibuja la arista y su peso.
      */
-    public String recorreEnAmplitud(Vertice inicio) {
-        ArrayList<Vertice> verticesVisitados = new ArrayList<>();
-        ArrayList<Arista> aristasVisitadas = new ArrayList<>();
-        Queue<Vertice> verticesAVisitar = new LinkedList<>();
-        amplitud(inicio, verticesVisitados, verticesAVisitar, aristasVisitadas);
-        return muestraRecorrido(verticesVisitados, aristasVisitadas);
+    public Color getColorArista(int arista) {
+        return coloresAristas[arista] != null ? coloresAristas[arista] : COLOR_ARISTA;
     }
 
     /**
-     * Método auxiliar del recorrido en amplitud, recorre el grafo recursivamente.
-     * @param origen Es el vértice origen desde donde buscarán vecinos.
-     * @param verticesVisitados Un arreglo que representa los vértices visitados.
-     * @param verticesAVisitar Una cola que representa los vértices aún por visitar.
-     * @param aristasVisitadas Un arreglo que representa las aristas visitadas.
+     * @param vertice El índice del vértice.
+     * @param color Establece el color del vértice.
      */
-    private void amplitud(Vertice origen, ArrayList<Vertice> verticesVisitados, Queue<Vertice> verticesAVisitar, ArrayList<Arista> aristasVisitadas) {
-        if (verticesVisitados.isEmpty()) {
-            verticesAVisitar.offer(origen);
-            verticesVisitados.add(origen);
-            amplitud(origen, verticesVisitados, verticesAVisitar, aristasVisitadas);
+    public void setColorVertice(int vertice, Color color) {
+        if (modelo.existeVertice(vertice)) {
+            if (vertice >>> 6 >= bitsVerticesResaltados.length) {
+                bitsVerticesResaltados = Arrays.copyOf(bitsVerticesResaltados,
+                        Math.max(bitsVerticesResaltados.length * 2, (vertice >>> 6) + 1));
+            }
+            if ((bitsVerticesResaltados[vertice >>> 6] & (1L << vertice)) == 0) {
+                bitsVerticesResaltados[vertice >>> 6] |= 1L << vertice;
+                verticesResaltados.agrega(vertice);
+            }
+            coloresVertices[vertice] = color;
+            Vertice.area(modelo, vertice, areaCambio);
+            panel.marcaResaltado(areaCambio);
         }
-        else {
-            if (!verticesAVisitar.isEmpty() && origen != null) {
-                Vertice destino = null;
-                origen = verticesAVisitar.poll();
-                int indiceActual = vertices.indexOf(origen);
-                for (int i = 0; i < dimension; i++) {
-                    if (matrizAdyacencia.get(indiceActual).get(i) != 0) {
-                        destino = vertices.get(i);
-                        if (!verticesVisitados.contains(destino)) {
-                            verticesVisitados.add(destino);
-                            verticesAVisitar.offer(destino);
-                            aristasVisitadas.add(aristaConectada(origen, destino));
-                        }
-                    }
-                }
-                amplitud(destino, verticesVisitados, verticesAVisitar, aristasVisitadas);
+    }
+
+    /**
+     * @param arista El índice de la arista.
+     * @param color Establece el color de la arista y su peso.
+     */
+    public void setColorArista(int arista, Color color) {
+        if (modelo.existeArista(arista)) {
+            if (arista >>> 6 >= bitsAristasResaltadas.length) {
+                bitsAristasResaltadas = Arrays.copyOf(bitsAristasResaltadas,
+                        Math.max(bitsAristasResaltadas.length * 2, (arista >>> 6) + 1));
+            }
+            if ((bitsAristasResaltadas[arista >>> 6] & (1L << arista)) == 0) {
+                bitsAristasResaltadas[arista >>> 6] |= 1L << arista;
+                aristasResaltadas.agrega(arista);
             }
+            coloresAristas[arista] = color;
+            Arista.area(modelo, arista, areaCambio);
+            panel.marcaResaltado(areaCambio);
         }
     }
 
     /**
-     * Realiza un recorrido en profundidad en el gráfico y devuelve los vértices visitados.
-     * @param inicio El vértice al que se le aplicará el algoritmo.
-     * @return Una representación en cadena de los vértices visitados.
+     * Colorea de una vez muchas aristas, como las que quedan fuera del árbol de expansión mínima. No se anotan entre
+     * los resaltados: el lienzo vuelve a dibujar toda su capa estática una sola vez, ya con el nuevo color.
+     * @param aristas Los índices de las aristas, se ignoran las que ya no existan.
+     * @param color El color de las aristas y sus pesos.
      */
-    public String recorreEnProfundidad(Vertice inicio) {
-        ArrayList<Vertice> verticesVisitados = new ArrayList<>();
-        ArrayList<Arista> aristasVisitados = new ArrayList<>();
-        profundidad(inicio, verticesVisitados, aristasVisitados);
-        return muestraRecorrido(verticesVisitados, aristasVisitados);
+    public void coloreaAristas(int[] aristas, Color color) {
+        for (int arista : aristas) {
+            if (modelo.existeArista(arista)) {
+                coloresAristas[arista] = color;
+            }
+        }
+        panel.invalidaCapa();
     }
 
     /**
-     * Método auxiliar del recorrido en profundidad, visita los vértices recursivamente.
-     * @param origen Es el vértice origen desde donde buscarán vecinos.
-     * @param verticesVisitados Un arreglo que representa los vértices visitados.
-     * @param aristasVisitadas Un arreglo que representa las aristas visitadas.
+     * El lienzo avisa que acaba de dibujar toda su capa estática con los colores actuales, así los elementos
+     * resaltados hasta ahora ya no tienen que dibujarse encima.
      */
-    private void profundidad(Vertice origen, ArrayList<Vertice> verticesVisitados, ArrayList<Arista> aristasVisitadas) {
-        if (verticesVisitados.isEmpty()) {
-            verticesVisitados.add(origen);
-            profundidad(origen, verticesVisitados, aristasVisitadas);
+    public void incorporaResaltados() {
+        for (int i = 0; i < verticesResaltados.tamano(); i++) {
+            bitsVerticesResaltados[verticesResaltados.obten(i) >>> 6] = 0;
         }
-        else {
-            int indiceActual = vertices.indexOf(origen);
-            for (int i = 0; i < dimension; i++) {
-                if (matrizAdyacencia.get(indiceActual).get(i) != 0) {
-                    Vertice destino = vertices.get(i);
-                    if (!verticesVisitados.contains(destino)) {
-                        verticesVisitados.add(destino);
-                        aristasVisitadas.add(aristaConectada(origen, destino));
-                        profundidad(destino, verticesVisitados, aristasVisitadas);
-                    }
-                }
-            }
+        for (int i = 0; i < aristasResaltadas.tamano(); i++) {
+            bitsAristasResaltadas[aristasResaltadas.obten(i) >>> 6] = 0;
         }
+        verticesResaltados.limpia();
+        aristasResaltadas.limpia();
     }
 
     /**
-     * El algoritmo de Dijkstra encuentra el camino más corto de una gráfica ponderada.
-     * Hace uso de una matriz de adyacencia y eso le permite trabajar tanto con grafos no dirigidos como dirigidos.
-     * @param inicio El vértice al que se le aplicará el algoritmo.
-     * @return Una representación en cadena del recorrido más corto.
+     * @return Cuántos vértices han cambiado de color desde que el lienzo dibujó toda su capa estática.
      */
-    public String algoritmoDijkstra(Vertice inicio) {
-        ArrayList<Arista> aristasVisitadas = new ArrayList<>();
-        ArrayList<Vertice> verticesVisitados = new ArrayList<>();
-        encontrarCaminoMasCorto(inicio, verticesVisitados, aristasVisitadas);
-        return muestraRecorrido(verticesVisitados, aristasVisitadas);
+    public int getNumVerticesResaltados() {
+        return verticesResaltados.tamano();
     }
 
     /**
-     * Encuentra el camino más corto desde el vértice de origen hasta todos los demás vértices del grafo.
-     * @param origen Es el vértice origen desde donde buscarán vecinos.
-     * @param verticesVisitados Un arreglo que representa los vertices visitados.
-     * @param aristasVisitadas Un arreglo que representa las aristas visitadas.
+     * Los vértices coloreados pueden haberse eliminado después, hay que verificar que sigan en el modelo.
+     * @param i La posición en la lista, de 0 a getNumVerticesResaltados() - 1.
+     * @return El índice del i-ésimo vértice coloreado.
      */
-    private void encontrarCaminoMasCorto(Vertice origen, ArrayList<Vertice> verticesVisitados, ArrayList<Arista> aristasVisitadas) {
-        HashMap<Vertice, Integer> distancias = new HashMap<>();
-        HashMap<Vertice, Vertice> padres = new HashMap<>();
+    public int getVerticeResaltado(int i) {
+        return verticesResaltados.obten(i);
+    }
 
-        // Inicializar distancias con valor infinito para todos los vértices excepto el origen
-        for (Vertice v : vertices) {
-            if (v == origen) {
-                distancias.put(v, 0);
-            } else {
-                distancias.put(v, Integer.MAX_VALUE);
-            }
-        }
+    /**
+     * @return Cuántas aristas han cambiado de color desde que el lienzo dibujó toda su capa estática.
+     */
+    public int getNumAristasResaltadas() {
+        return aristasResaltadas.tamano();
+    }
 
-        PriorityQueue<Vertice> colaPrioridad = new PriorityQueue<>(Comparator.comparingInt(distancias::get));
-        colaPrioridad.offer(origen);
+    /**
+     * Las aristas coloreadas pueden haberse eliminado después, hay que verificar que sigan en el modelo.
+     * @param i La posición en la lista, de 0 a getNumAristasResaltadas() - 1.
+     * @return El índice de la i-ésima arista coloreada.
+     */
+    public int getAristaResaltada(int i) {
+        return aristasResaltadas.obten(i);
+    }
 
-        while (!colaPrioridad.isEmpty()) {
-            Vertice actual = colaPrioridad.poll();
-            // Verificar si el vértice actual ya ha sido visitado
-            if (verticesVisitados.contains(actual)) {
-                continue;
-            }
-            verticesVisitados.add(actual);
-            for (Vertice vecino : obtenerVecinos(actual)) {
-                int distancia = distancias.get(actual) + obtenerPesoArista(actual, vecino);
-                if (distancia < distancias.get(vecino)) {
-                    distancias.put(vecino, distancia);
-                    padres.put(vecino, actual);
-                    colaPrioridad.offer(vecino);
-                }
-            }
-        }
-        // Construir la lista de aristas visitadas a partir de los padres
-        for (Vertice vertice : verticesVisitados) {
-            Vertice padre = padres.get(vertice);
-            if (padre != null) {
-                Arista arista = aristaConectada(padre, vertice);
-                aristasVisitadas.add(arista);
-            }
-        }
+    /**
+     * Realiza un recorrido en amplitud en el gráfico y devuelve los vértices visitados.
+     * En grafos con muchas aristas se recorre por niveles en paralelo, los vértices de cada nivel salen por índice.
+     * El cálculo se hace en segundo plano y cancela cualquier otro algoritmo en curso.
+     * @param inicio El índice del vértice al que se le aplicará el algoritmo.
+     * @param alTerminar Recibe una representación en cadena de los vértices visitados.
+     * @return El futuro del resultado.
+     */
+    public Future<ResultadoRecorrido> recorreEnAmplitud(int inicio, Consumer<String> alTerminar) {
+        int umbral = umbralAmplitudParalela;
+        TrazaAlgoritmo traza = new TrazaAlgoritmo();
+        return ejecutaRecorrido("recorrido en amplitud", traza, (csr, control) -> csr.getNumAristas() >= umbral
+                ? registra(AmplitudParalela.amplitud(csr, inicio, control), traza)
+                : Recorridos.amplitud(csr, inicio, control, traza), alTerminar);
     }
 
     /**
-     * Obtiene los vértices vecinos del vértice dado.
-     * @param vertice El vértice del cual se obtienen los vecinos.
-     * @return Una lista de vértices vecinos al vértice dado.
+     * Realiza un recorrido en profundidad en el gráfico y devuelve los vértices visitados.
+     * El cálculo se hace en segundo plano y cancela cualquier otro algoritmo en curso.
+     * @param inicio El índice del vértice al que se le aplicará el algoritmo.
+     * @param alTerminar Recibe una representación en cadena de los vértices visitados.
+     * @return El futuro del resultado.
      */
-    private List<Vertice> obtenerVecinos(Vertice vertice) {
-        List<Vertice> vecinos = new ArrayList<>();
-        int indice = vertices.indexOf(vertice);
-        for (int i = 0; i < dimension; i++) {
-            if (matrizAdyacencia.get(indice).get(i) != 0) {
-                vecinos.add(vertices.get(i));
-            }
-        }
-        return vecinos;
+    public Future<ResultadoRecorrido> recorreEnProfundidad(int inicio, Consumer<String> alTerminar) {
+        TrazaAlgoritmo traza = new TrazaAlgoritmo();
+        return ejecutaRecorrido("recorrido en profundidad", traza,
+                (csr, control) -> Recorridos.profundidad(csr, inicio, control, traza), alTerminar);
     }
 
     /**
-     * Obtiene el peso de la arista entre el vértice de origen y el vértice de destino.
-     * @param origen El vértice de origen.
-     * @param destino El vértice de destino.
-     * @return El peso de la arista entre los vértices origen y destino.
+     * El algoritmo de Dijkstra encuentra el camino más corto de una gráfica ponderada.
+     * Hace uso de la representación de adyacencia y eso le permite trabajar tanto con grafos no dirigidos como dirigidos.
+     * Si está activado delta-stepping se usa ese motor paralelo, el árbol que devuelve se muestra igual.
+     * El cálculo se hace en segundo plano y cancela cualquier otro algoritmo en curso.
+     * @param inicio El índice del vértice al que se le aplicará el algoritmo.
+     * @param alTerminar Recibe una representación en cadena del recorrido más corto.
+     * @return El futuro del resultado.
      */
-    private int obtenerPesoArista(Vertice origen, Vertice destino) {
-        int indiceOrigen = vertices.indexOf(origen);
-        int indiceDestino = vertices.indexOf(destino);
-        return matrizAdyacencia.get(indiceOrigen).get(indiceDestino);
+    public Future<ResultadoRecorrido> algoritmoDijkstra(int inicio, Consumer<String> alTerminar) {
+        boolean paralelo = usaDeltaStepping;
+        int anchoCubeta = delta;
+        TrazaAlgoritmo traza = new TrazaAlgoritmo();
+        return ejecutaRecorrido("camino más corto", traza, (csr, control) -> paralelo
+                ? registra(DeltaStepping.caminoMasCorto(csr, inicio, anchoCubeta, control), traza)
+                : Dijkstra.caminoMasCorto(csr, inicio, control, traza), alTerminar);
     }
 
     /**
      * El árbol de expansión mínima representa las conexiones mínimas necesarias para conectar
      * todos los vértices del grafo con el menor peso posible.
+     * Se calcula con el algoritmo de Kruskal, por lo que si el grafo no es conexo se obtiene un bosque que cubre
+     * cada componente. En grafos con muchas aristas se usa Borůvka paralelo, que da un bosque con el mismo peso.
+     * Las aristas que no forman parte del bosque se colorean de gris.
+     * El cálculo, la construcción de la adyacencia y la búsqueda de las aristas que quedan fuera se hacen en segundo
+     * plano y cancelan cualquier otro algoritmo en curso.
+     * @param alTerminar Se ejecuta después de colorear el árbol.
+     * @return El futuro con los índices de las aristas del árbol.
      */
-    public void arbolExpansionMinima(Vertice inicio) {
-        ArrayList<Vertice> verticesVisitados = new ArrayList<>();
-        ArrayList<Arista> aristasVisitados = new ArrayList<>();
-        PriorityQueue<Arista> aristasConectadas = new PriorityQueue<>(inicio.getAristasConectadas());
-        verticesVisitados.add(inicio);
-        algoritmoKruskal(verticesVisitados, aristasVisitados, aristasConectadas);
-        aristasDeRecubrimiento = new ArrayList<>(aristasVisitados);
-        for (Arista arista : aristas) {
-            if (!aristasDeRecubrimiento.contains(arista)) {
-                arista.setColor(Color.decode("#463F57"));
+    public Future<int[]> arbolExpansionMinima(Runnable alTerminar) {
+        Supplier<AdyacenciaCSR> construccion = modelo.preparaAdyacencia();
+        PreparacionAlgoritmo preparacion = new PreparacionAlgoritmo(modelo.getVersion());
+        int ranurasAristas = modelo.getNumRanurasAristas();
+        int umbral = umbralBoruvka;
+        TrazaAlgoritmo traza = new TrazaAlgoritmo();
+        animacion.cancela();
+        return ejecutor.ejecuta("árbol de expansión mínima", control -> {
+            AdyacenciaCSR csr = construccion.get();
+            boolean paralelo = csr.getNumAristas() >= umbral;
+            EventoAlgoritmo evento = FlightRecorder.isInitialized()
+                    ? EventoAlgoritmo.inicia(paralelo ? "borůvka" : "kruskal", csr) : null;
+            int[] bosque = paralelo
+                    ? BoruvkaParalelo.arbolExpansionMinima(csr, control)
+                    : Kruskal.arbolExpansionMinima(csr, control, traza);
+            if (evento != null) {
+                evento.termina(0, bosque.length);
             }
-        }
+            if (paralelo) {
+                for (int arista : bosque) {
+                    traza.acepta(arista);
+                }
+            }
+            long[] recubrimiento = new long[(ranurasAristas + 63) >>> 6];
+            for (int arista : bosque) {
+                int ranura = csr.ranuraArista(arista);
+                recubrimiento[ranura >>> 6] |= 1L << ranura;
+            }
+            int[] innecesarias = new int[csr.getNumAristas() - bosque.length];
+            int i = 0;
+            for (int arista = 0; arista < csr.getNumAristas() && i < innecesarias.length; arista++) {
+                int ranura = csr.ranuraArista(arista);
+                if ((recubrimiento[ranura >>> 6] & (1L << ranura)) == 0) {
+                    innecesarias[i++] = ranura;
+                }
+            }
+            preparacion.adyacencia = csr;
+            preparacion.aristasDeRecubrimiento = recubrimiento;
+            preparacion.aristasInnecesarias = innecesarias;
+            return bosque;
+        }, aceptadas -> {
+            modelo.guardaAdyacencia(preparacion.adyacencia, preparacion.version);
+            ultimaTraza = traza;
+            aristasDeRecubrimiento = preparacion.aristasDeRecubrimiento;
+            coloreaAristas(preparacion.aristasInnecesarias, COLOR_INNECESARIA);
+            alTerminar.run();
+        });
     }
 
     /**
-     * El algoritmo de Kruskal es un algoritmo greedy utilizado para encontrar un árbol de expansión mínima en un grafo ponderado.
-     * La idea principal del algoritmo es seleccionar las aristas de menor peso y agregarlas a la cola de prioridad
-     * hasta visitar todos los vértices conectados.
-     * @param verticesVisitados Un arreglo que representa los vertices visitados.
-     * @param aristasVisitados Un arreglo que representa las aristas visitadas.
-     * @param vecinos Una cola de prioridad que representa las aristas de menor peso.
-     */
-    private void algoritmoKruskal(ArrayList<Vertice> verticesVisitados, ArrayList<Arista> aristasVisitados, PriorityQueue<Arista> vecinos) {
-        if (!vecinos.isEmpty()) {
-            Arista aristaOptima = vecinos.poll();
-            if (!aristasVisitados.contains(aristaOptima)) {
-                Vertice origen = aristaOptima.getOrigen();
-                Vertice destino = aristaOptima.getDestino();
-                if (!verticesVisitados.contains(origen)) {
-                    verticesVisitados.add(origen);
-                    aristasVisitados.add(aristaOptima);
-                    vecinos = uneColaPrioridad(vecinos, new PriorityQueue<>(origen.getAristasConectadas()));
-                }
-                if (!verticesVisitados.contains(destino)) {
-                    verticesVisitados.add(destino);
-                    aristasVisitados.add(aristaOptima);
-                    vecinos = uneColaPrioridad(vecinos, new PriorityQueue<>(destino.getAristasConectadas()));
+     * @return Los índices de las aristas que no forman parte del último árbol de expansión mínima calculado.
+     */
+    public int[] aristasInnecesarias() {
+        ListaEnteros aristasInnecesarias = new ListaEnteros();
+        if (aristasDeRecubrimiento != null) {
+            for (int arista = 0; arista < modelo.getNumRanurasAristas(); arista++) {
+                if (modelo.existeArista(arista) && !enRecubrimiento(arista)) {
+                    aristasInnecesarias.agrega(arista);
                 }
             }
-            algoritmoKruskal(verticesVisitados, aristasVisitados, vecinos);
         }
+        return aristasInnecesarias.aArreglo();
     }
 
-    public ArrayList<Arista> aristasInnecesarias() {
-        ArrayList<Arista> aristasInnecesarias = new ArrayList<>();
-        if (aristasDeRecubrimiento != null && !aristasDeRecubrimiento.isEmpty()) {
-            for (Arista arista : aristas) {
-                if (!aristasDeRecubrimiento.contains(arista)) {
-                    aristasInnecesarias.add(arista);
-                }
+    private boolean enRecubrimiento(int arista) {
+        return (arista >>> 6) < aristasDeRecubrimiento.length
+                && (aristasDeRecubrimiento[arista >>> 6] & (1L << arista)) != 0;
+    }
+
+    /**
+     * Ejecuta un recorrido en segundo plano y, al terminar, lo muestra en el panel. Si Java Flight Recorder está
+     * iniciado, la ejecución se registra como un EventoAlgoritmo.
+     * En el Event Dispatch Thread solo se toman los arreglos del modelo; la adyacencia se construye, el algoritmo
+     * escribe su traza y la traza se convierte en los cambios de la animación dentro de la tarea, y al terminar solo
+     * se reproducen esos cambios.
+     * @param descripcion El nombre del algoritmo.
+     * @param traza La traza donde el cálculo anota sus pasos, sobre las aristas de la representación CSR.
+     * @param calculo El algoritmo sobre la representación CSR.
+     * @param alTerminar Recibe la representación en cadena del recorrido.
+     * @return El futuro del resultado.
+     */
+    private Future<ResultadoRecorrido> ejecutaRecorrido(String descripcion, TrazaAlgoritmo traza,
+            BiFunction<AdyacenciaCSR, ControlEjecucion, ResultadoRecorrido> calculo, Consumer<String> alTerminar) {
+        Supplier<AdyacenciaCSR> construccion = modelo.preparaAdyacencia();
+        PreparacionAlgoritmo preparacion = new PreparacionAlgoritmo(modelo.getVersion());
+        animacion.cancela();
+        return ejecutor.ejecuta(descripcion, control -> {
+            AdyacenciaCSR csr = construccion.get();
+            EventoAlgoritmo evento = FlightRecorder.isInitialized() ? EventoAlgoritmo.inicia(descripcion, csr) : null;
+            ResultadoRecorrido resultado = calculo.apply(csr, control);
+            if (evento != null) {
+                evento.termina(resultado.getNumVertices(), resultado.getNumAristas());
             }
-        }
-        return  aristasInnecesarias;
+            preparacion.adyacencia = csr;
+            preparacion.cambios = cambiosDe(traza, csr);
+            return resultado;
+        }, resultado -> {
+            modelo.guardaAdyacencia(preparacion.adyacencia, preparacion.version);
+            ultimaTraza = traza;
+            animacion.reproduce(preparacion.cambios, PALETA_RECORRIDO, null);
+            alTerminar.accept(muestraRecorrido(resultado));
+        });
     }
 
-    private PriorityQueue<Arista> uneColaPrioridad(PriorityQueue<Arista> cola1, PriorityQueue<Arista> cola2) {
-        Set<Arista> resultado = new HashSet<>();
-        while (!cola1.isEmpty()) {
-            Arista arista = cola1.poll();
-            resultado.add(arista);
-        }
-        while (!cola2.isEmpty()) {
-            Arista arista = cola2.poll();
-            resultado.add(arista);
-        }
-        return new PriorityQueue<>(resultado);
+    /**
+     * Los motores paralelos no pueden anotar sus pasos en orden mientras corren, su traza se escribe con el
+     * resultado: cada vértice en el orden entregado, precedido por la arista que lo une a su padre.
+     */
+    private static ResultadoRecorrido registra(ResultadoRecorrido resultado, TrazaAlgoritmo traza) {
+        traza.registraRecorrido(resultado);
+        return resultado;
     }
 
     /**
      * En los recorridos en profundidad y amplitud y en el algoritmo de Dijkstra se desea poder mostrarle al usuario
      * el recorrido, este método se encarga de mostrarlo en una cadena.
-     * @param verticesVisitados Un arreglo de vértices a mostrar en orden.
-     * @param aristasVisitados Un arreglo de aristas a mostrar en orden.
+     * @param resultado El resultado del algoritmo.
      * @return Representación en cadena del recorrido.
      */
-    private String muestraRecorrido(ArrayList<Vertice> verticesVisitados, ArrayList<Arista> aristasVisitados) {
+    private String muestraRecorrido(ResultadoRecorrido resultado) {
         StringBuilder recorrido = new StringBuilder();
-        for (int i = 0; i < verticesVisitados.size(); i++) {
-            Vertice nodo = verticesVisitados.get(i);
-            recorrido.append(nodo.getID());
-            if (i < verticesVisitados.size() - 1) {
+        for (int i = 0; i < resultado.getNumVertices(); i++) {
+            recorrido.append(modelo.getID(resultado.getVertice(i)));
+            if (i < resultado.getNumVertices() - 1) {
                 recorrido.append(" -> ");
             }
         }
-        coloreaGrafo(verticesVisitados, aristasVisitados);
         return "[" + recorrido + "]";
     }
 
     /**
-     * Colorea los vértices para tener una representación visual de los algoritmos.
-     * @param verticesVisitados Un arreglo de vértices a colorear, se colorean en orden.
-     * @param aristasVisitadas Un arreglo de aristas a colorear, se colorean en orden.
-     */
-    private void coloreaGrafo(ArrayList<Vertice> verticesVisitados, ArrayList<Arista> aristasVisitadas) {
-        SwingWorker<Void, Object> worker = new SwingWorker<>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                int espera = 500;
-                // Colorea el vértice de azul, espera 1 segundo y lo colorea de verde.
-                // Si hay una arista correspondiente, la colorea de amarillo y luego de verde.
-                for (int i = 0; i < verticesVisitados.size(); i++) {
-                    Vertice vertice = verticesVisitados.get(i);
-                    vertice.setColorDeVertice(Color.decode("#FFFF70"));
-                    publish(vertice);
-                    Thread.sleep(espera);
-                    vertice.setColorDeVertice(Color.decode("#25AD6B"));
-                    publish(vertice);
-                    Thread.sleep(espera);
-
-                    if (i < aristasVisitadas.size()) {
-                        Arista arista = aristasVisitadas.get(i);
-                        arista.setColor(Color.decode("#FFFF70"));
-                        publish(arista);
-                        Thread.sleep(espera);
-                        arista.setColor(Color.decode("#25AD6B"));
-                        publish(arista);
-                        Thread.sleep(espera);
-                    }
-                }
-                return null;
+     * Convierte la traza de un recorrido en los cambios de color de su animación: cada vértice visitado se pinta de
+     * amarillo y luego de verde, y también cada arista aceptada, en el orden de la traza; las aristas relajadas o
+     * rechazadas no se muestran. Los cambios se reproducen con la animación del grafo, que permite pausarlos,
+     * avanzarlos, retrocederlos o saltar al final. No toca el modelo ni la interfaz, así que corre dentro de la tarea
+     * del algoritmo.
+     * @param traza Los pasos del algoritmo.
+     * @param csr La adyacencia sobre la que se calculó, sus vértices tienen los mismos índices que en el modelo y
+     * sus aristas se traducen.
+     * @return Los cambios que reproduce la animación.
+     */
+    private static int[] cambiosDe(TrazaAlgoritmo traza, AdyacenciaCSR csr) {
+        int numMostrados = 0;
+        for (long i = 0; i < traza.getNumEventos(); i++) {
+            int tipo = TrazaAlgoritmo.tipo(traza.getEvento(i));
+            if (tipo == TrazaAlgoritmo.VISITA || tipo == TrazaAlgoritmo.ACEPTA) {
+                numMostrados++;
             }
-
-            @Override
-            protected void process(java.util.List<Object> chunks) {
-                for (Object chunk : chunks) {
-                    if (chunk instanceof Vertice vertice) {
-                        vertice.repaint();
-                    } else if (chunk instanceof Arista arista) {
-                        arista.repaint();
-                    }
+        }
+        int[] cambios = new int[2 * numMostrados];
+        int paso = 0;
+        for (long i = 0; i < traza.getNumEventos(); i++) {
+            int evento = traza.getEvento(i);
+            int indice = TrazaAlgoritmo.indice(evento);
+            switch (TrazaAlgoritmo.tipo(evento)) {
+                case TrazaAlgoritmo.VISITA -> {
+                    cambios[paso++] = AnimacionGrafo.cambioVertice(indice, 0);
+                    cambios[paso++] = AnimacionGrafo.cambioVertice(indice, 1);
                 }
-            }
-
-            @Override
-            protected void done() {
-                for (Vertice vertice : verticesVisitados) {
-                    vertice.setColorDeVertice(Color.decode("#25AD6B"));
+                case TrazaAlgoritmo.ACEPTA -> {
+                    cambios[paso++] = AnimacionGrafo.cambioArista(csr.ranuraArista(indice), 0);
+                    cambios[paso++] = AnimacionGrafo.cambioArista(csr.ranuraArista(indice), 1);
                 }
-                for (Arista arista : aristasVisitadas) {
-                    arista.setColor(Color.decode("#25AD6B"));
+                default -> {
                 }
             }
-        };
-        worker.execute();
+        }
+        return cambios;
     }
 
     /**
      * Devuelve los componentes a su color original.
      */
     public void descoloreaGrafo() {
-        for (Vertice v: vertices) {
-            v.setColorDeVertice(Color.decode("#ED94FF"));
-        }
-        for (Arista a :aristas) {
-            a.setColor(Color.decode("#7094FF"));
-        }
+        Arrays.fill(coloresVertices, null);
+        Arrays.fill(coloresAristas, null);
+        incorporaResaltados();
+        panel.invalidaCapa();
     }
 }
\ No newline at end of file
@@ -0,0 +1,585 @@
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Lectura por flujo de grafos en formatos de texto, pensada para archivos de varios gigabytes: el archivo se lee por
+ * bloques de un FileChannel y los vértices y aristas se entregan en lotes de tamaño fijo a medida que aparecen, así
+ * la memoria de la importación no crece con el archivo (solo crece la tabla de IDs ya vistos, que es parte del grafo).
+ * No toca el modelo ni Swing, por lo que puede correr en un hilo de fondo mientras otro aplica los lotes.
+ * <p>
+ * Formatos:
+ * <ul>
+ *     <li>Lista de aristas (CSV, TSV o texto): cada línea tiene el ID del origen, el del destino y el peso, separados
+ *     por espacios, tabuladores, comas o punto y coma, con comillas opcionales; si falta el peso vale 1. Una línea
+ *     con un solo ID declara un vértice aislado, las líneas vacías y las que empiezan con # se ignoran y una
+ *     primera línea con nombres de columna se salta.</li>
+ *     <li>DIMACS (.gr): líneas "c" de comentario, una línea "p sp n m" y un arco "a u v w" por línea (también se
+ *     aceptan "p edge n m" y "e u v"). Los vértices son 1..n y se crean al leer la línea p.</li>
+ *     <li>GraphML: elementos node y edge; el peso se toma del dato declarado con attr.name "weight" o "peso" y la
+ *     posición de los datos "x" e "y" de los nodos, si los hay. Un extremo que no se declaró como node se crea.</li>
+ * </ul>
+ * Los pesos decimales se redondean, con un mínimo de 1, y los vértices sin posición se acomodan en la cuadrícula
+ * de ArchivoGrafo. Las aristas repetidas y los lazos los descarta quien aplica los lotes, igual que en el panel.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class ImportadorGrafo {
+    /**
+     * Lista de aristas "origen destino peso".
+     */
+    public static final int LISTA_ARISTAS = 0;
+    /**
+     * Formato de caminos más cortos de DIMACS.
+     */
+    public static final int DIMACS = 1;
+    /**
+     * GraphML.
+     */
+    public static final int GRAPHML = 2;
+    private static final int TAMANO_BUFER = 1 << 20;
+    // Una línea más larga que esto no es de ninguno de los formatos, así un archivo binario no agota la memoria.
+    private static final int LINEA_MAXIMA = 1 << 26;
+    private static final int MAX_CAMPOS = 4;
+    // Cada cuántos eventos de XML se informa el avance de un GraphML.
+    private static final int EVENTOS_POR_AVANCE = 1 << 16;
+
+    private final Path archivo;
+    private final int formato;
+    private final Consumer<LoteGrafo> alLote;
+    // Número de aparición de cada ID de la lista de aristas o de GraphML; DIMACS no la necesita.
+    private final TablaIDs apariciones = new TablaIDs();
+    private LoteGrafo lote = new LoteGrafo();
+    private int numVertices;
+    private volatile long numAristas;
+    private long inicio;
+    // Estado de la lectura por líneas: el búfer tiene los bytes [posicion, limite) aún sin leer.
+    private FileChannel canal;
+    private byte[] bufer = new byte[TAMANO_BUFER];
+    private int posicion;
+    private int limite;
+    private boolean finArchivo;
+    private long bytesLeidos;
+    private long numLinea;
+    private int inicioLinea;
+    private int finLinea;
+    private final int[] inicioCampo = new int[MAX_CAMPOS];
+    private final int[] finCampo = new int[MAX_CAMPOS];
+
+    /**
+     * @param archivo La ruta del archivo, en UTF-8.
+     * @param formato LISTA_ARISTAS, DIMACS o GRAPHML.
+     * @param alLote Recibe cada lote lleno y el último, en el hilo de la importación. Cada lote es nuevo, el importador
+     * no vuelve a tocarlo después de entregarlo; si quien lo recibe se bloquea, la lectura espera, así se evita que
+     * se acumulen lotes en memoria.
+     */
+    public ImportadorGrafo(Path archivo, int formato, Consumer<LoteGrafo> alLote) {
+        this.archivo = archivo;
+        this.formato = formato;
+        this.alLote = alLote;
+    }
+
+    /**
+     * @param archivo La ruta del archivo.
+     * @return El formato que corresponde a la extensión: DIMACS para .gr y .dimacs, GRAPHML para .graphml y .xml, y
+     * LISTA_ARISTAS para cualquier otra.
+     */
+    public static int formatoDe(Path archivo) {
+        String nombre = archivo.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (nombre.endsWith(".gr") || nombre.endsWith(".dimacs")) {
+            return DIMACS;
+        }
+        if (nombre.endsWith(".graphml") || nombre.endsWith(".xml")) {
+            return GRAPHML;
+        }
+        return LISTA_ARISTAS;
+    }
+
+    /**
+     * Lee un archivo de texto completo en un modelo nuevo, sin hilos ni avance.
+     * @param archivo La ruta del archivo; el formato se deduce de la extensión.
+     * @return Un modelo nuevo con el grafo del archivo.
+     * @throws IOException Si no se pudo leer el archivo o no tiene el formato esperado.
+     */
+    public static ModeloGrafo lee(Path archivo) throws IOException {
+        ModeloGrafo modelo = new ModeloGrafo();
+        ListaEnteros indices = new ListaEnteros();
+        new ImportadorGrafo(archivo, formatoDe(archivo), lote -> modelo.agregaLote(lote, indices))
+                .importa(new ControlEjecucion());
+        return modelo;
+    }
+
+    /**
+     * Lee el archivo completo y entrega sus lotes. El avance se informa en bytes leídos y el detalle lleva las aristas
+     * leídas y cuántas por segundo.
+     * @param control Recibe el avance; si se cancela, la lectura se detiene en el siguiente bloque.
+     * @throws java.util.concurrent.CancellationException Si se canceló la importación.
+     * @throws IOException Si no se pudo leer el archivo o no tiene el formato esperado.
+     */
+    public void importa(ControlEjecucion control) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            this.canal = canal;
+            inicio = System.nanoTime();
+            control.inicia(canal.size());
+            switch (formato) {
+                case DIMACS -> importaDIMACS(control);
+                case GRAPHML -> importaGraphML(control);
+                default -> importaListaAristas(control);
+            }
+            entregaLote(control);
+        }
+    }
+
+    /**
+     * @return Las aristas leídas hasta ahora, incluidas las que después se descarten por repetidas.
+     */
+    public long getNumAristas() {
+        return numAristas;
+    }
+
+    private void importaListaAristas(ControlEjecucion control) throws IOException {
+        boolean primera = true;
+        while (siguienteLinea(control)) {
+            int numCampos = separaCampos();
+            if (numCampos == 0 || bufer[inicioCampo[0]] == '#') {
+                continue;
+            }
+            if (numCampos > 3) {
+                throw error("se esperaba origen, destino y peso");
+            }
+            if (primera) {
+                primera = false;
+                if (esEncabezado(numCampos)) {
+                    continue;
+                }
+            }
+            int origen = aparicion(texto(0), Double.NaN, Double.NaN, control);
+            if (numCampos == 1) {
+                continue;
+            }
+            int destino = aparicion(texto(1), Double.NaN, Double.NaN, control);
+            agregaArista(origen, destino, numCampos == 3 ? peso(2) : 1, control);
+        }
+    }
+
+    /**
+     * @return true si la línea tiene nombres de columna en lugar de datos: el peso no es un número o el primer campo
+     * es un nombre de columna conocido.
+     */
+    private boolean esEncabezado(int numCampos) {
+        if (numCampos == 3 && Double.isNaN(numero(2))) {
+            return true;
+        }
+        return switch (texto(0).toLowerCase(Locale.ROOT)) {
+            case "source", "origen", "from", "src", "node", "vertice", "vértice", "id" -> true;
+            default -> false;
+        };
+    }
+
+    private void importaDIMACS(ControlEjecucion control) throws IOException {
+        int n = -1;
+        while (siguienteLinea(control)) {
+            int numCampos = separaCampos();
+            if (numCampos == 0) {
+                continue;
+            }
+            switch (bufer[inicioCampo[0]]) {
+                case 'c' -> {
+                }
+                case 'p' -> {
+                    if (n != -1 || numCampos != 4) {
+                        throw error("se esperaba una sola línea \"p sp n m\"");
+                    }
+                    long vertices = entero(2);
+                    if (vertices < 0 || vertices > Integer.MAX_VALUE - 8) {
+                        throw error("número de vértices inválido");
+                    }
+                    n = (int) vertices;
+                    for (int i = 0; i < n; i++) {
+                        lote.agregaVertice(String.valueOf(i + 1), ArchivoGrafo.cuadriculaX(i),
+                                ArchivoGrafo.cuadriculaY(i));
+                        numVertices++;
+                        if (lote.estaLleno()) {
+                            entregaLote(control);
+                        }
+                    }
+                }
+                case 'a', 'e' -> {
+                    if (n == -1) {
+                        throw error("falta la línea \"p\" antes de los arcos");
+                    }
+                    if (numCampos < 3 || numCampos > 4) {
+                        throw error("se esperaba \"a u v w\"");
+                    }
+                    long origen = entero(1);
+                    long destino = entero(2);
+                    if (origen < 1 || origen > n || destino < 1 || destino > n) {
+                        throw error("los vértices deben estar entre 1 y " + n);
+                    }
+                    agregaArista((int) origen - 1, (int) destino - 1, numCampos == 4 ? peso(3) : 1, control);
+                }
+                default -> throw error("tipo de línea desconocido");
+            }
+        }
+    }
+
+    private void importaGraphML(ControlEjecucion control) throws IOException {
+        XMLInputFactory fabrica = XMLInputFactory.newInstance();
+        // Sin DTD ni entidades externas: un archivo no puede hacer que se lean otros archivos ni la red.
+        fabrica.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        fabrica.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        long tamano = canal.size();
+        InputStream entrada = new BufferedInputStream(Channels.newInputStream(canal), TAMANO_BUFER);
+        XMLStreamReader xml = null;
+        try {
+            xml = fabrica.createXMLStreamReader(entrada);
+            String llavePeso = null;
+            String llaveX = null;
+            String llaveY = null;
+            String llaveDato = null;
+            StringBuilder dato = new StringBuilder();
+            String nodo = null;
+            double x = Double.NaN;
+            double y = Double.NaN;
+            String origen = null;
+            String destino = null;
+            int peso = 1;
+            long eventos = 0;
+            while (xml.hasNext()) {
+                int evento = xml.next();
+                if (evento == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "key" -> {
+                            String nombre = xml.getAttributeValue(null, "attr.name");
+                            String para = xml.getAttributeValue(null, "for");
+                            String id = xml.getAttributeValue(null, "id");
+                            nombre = nombre != null ? nombre.toLowerCase(Locale.ROOT) : "";
+                            boolean deArista = para == null || para.equals("edge") || para.equals("all");
+                            boolean deNodo = para == null || para.equals("node") || para.equals("all");
+                            if (deArista && (nombre.equals("weight") || nombre.equals("peso"))) {
+                                llavePeso = id;
+                            } else if (deNodo && nombre.equals("x")) {
+                                llaveX = id;
+                            } else if (deNodo && nombre.equals("y")) {
+                                llaveY = id;
+                            }
+                        }
+                        case "node" -> {
+                            nodo = atributo(xml, "id");
+                            x = Double.NaN;
+                            y = Double.NaN;
+                        }
+                        case "edge" -> {
+                            origen = atributo(xml, "source");
+                            destino = atributo(xml, "target");
+                            peso = 1;
+                        }
+                        case "data" -> {
+                            llaveDato = xml.getAttributeValue(null, "key");
+                            dato.setLength(0);
+                        }
+                        default -> {
+                        }
+                    }
+                } else if (llaveDato != null && (evento == XMLStreamConstants.CHARACTERS
+                        || evento == XMLStreamConstants.CDATA)) {
+                    dato.append(xml.getText());
+                } else if (evento == XMLStreamConstants.END_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "data" -> {
+                            String valor = dato.toString().trim();
+                            if (llaveDato == null) {
+                                continue;
+                            }
+                            if (origen != null && llaveDato.equals(llavePeso)) {
+                                peso = peso(valor, xml);
+                            } else if (nodo != null && llaveDato.equals(llaveX)) {
+                                x = coordenada(valor, xml);
+                            } else if (nodo != null && llaveDato.equals(llaveY)) {
+                                y = coordenada(valor, xml);
+                            }
+                            llaveDato = null;
+                        }
+                        case "node" -> {
+                            if (nodo != null && apariciones.obten(nodo) == -1) {
+                                aparicion(nodo, x, y, control);
+                            }
+                            nodo = null;
+                        }
+                        case "edge" -> {
+                            if (origen != null) {
+                                agregaArista(aparicion(origen, Double.NaN, Double.NaN, control),
+                                        aparicion(destino, Double.NaN, Double.NaN, control), peso, control);
+                            }
+                            origen = null;
+                        }
+                        default -> {
+                        }
+                    }
+                }
+                if (++eventos % EVENTOS_POR_AVANCE == 0) {
+                    bytesLeidos = canal.position();
+                    avanza(control);
+                }
+            }
+            // El lector de XML puede cerrar el canal al llegar al final del documento.
+            bytesLeidos = tamano;
+        } catch (XMLStreamException e) {
+            throw new IOException("GraphML inválido: " + e.getMessage(), e);
+        } finally {
+            if (xml != null) {
+                try {
+                    xml.close();
+                } catch (XMLStreamException e) {
+                    // El canal lo cierra importa().
+                }
+            }
+        }
+    }
+
+    private static String atributo(XMLStreamReader xml, String nombre) throws IOException {
+        String valor = xml.getAttributeValue(null, nombre);
+        if (valor == null) {
+            throw new IOException("GraphML inválido, línea " + xml.getLocation().getLineNumber() + ": falta el atributo "
+                    + nombre + " en " + xml.getLocalName());
+        }
+        return valor;
+    }
+
+    private static int peso(String valor, XMLStreamReader xml) throws IOException {
+        try {
+            return redondeaPeso(Double.parseDouble(valor));
+        } catch (NumberFormatException e) {
+            throw new IOException("GraphML inválido, línea " + xml.getLocation().getLineNumber()
+                    + ": el peso debe ser un número mayor a 0: " + valor);
+        }
+    }
+
+    private static double coordenada(String valor, XMLStreamReader xml) throws IOException {
+        try {
+            return Double.parseDouble(valor);
+        } catch (NumberFormatException e) {
+            throw new IOException("GraphML inválido, línea " + xml.getLocation().getLineNumber()
+                    + ": coordenada inválida: " + valor);
+        }
+    }
+
+    /**
+     * @return El peso redondeado, al menos 1.
+     * @throws NumberFormatException Si no es un número mayor a 0.
+     */
+    private static int redondeaPeso(double peso) {
+        if (!(peso > 0) || peso > Integer.MAX_VALUE) {
+            throw new NumberFormatException();
+        }
+        return (int) Math.max(1, Math.round(peso));
+    }
+
+    /**
+     * @return El número de aparición del vértice con el ID dado; si no ha aparecido se agrega al lote, en la posición
+     * dada o, si alguna coordenada es NaN, en la siguiente posición de la cuadrícula.
+     */
+    private int aparicion(String ID, double x, double y, ControlEjecucion control) {
+        int aparicion = apariciones.obten(ID);
+        if (aparicion == -1) {
+            aparicion = numVertices++;
+            apariciones.pon(ID, aparicion);
+            boolean sinPosicion = Double.isNaN(x) || Double.isNaN(y);
+            lote.agregaVertice(ID, sinPosicion ? ArchivoGrafo.cuadriculaX(aparicion) : (int) Math.round(x),
+                    sinPosicion ? ArchivoGrafo.cuadriculaY(aparicion) : (int) Math.round(y));
+            if (lote.estaLleno()) {
+                entregaLote(control);
+            }
+        }
+        return aparicion;
+    }
+
+    private void agregaArista(int origen, int destino, int peso, ControlEjecucion control) {
+        lote.agregaArista(origen, destino, peso);
+        numAristas++;
+        if (lote.estaLleno()) {
+            entregaLote(control);
+        }
+    }
+
+    private void entregaLote(ControlEjecucion control) {
+        avanza(control);
+        if (!lote.estaVacio()) {
+            alLote.accept(lote);
+            lote = new LoteGrafo();
+        }
+    }
+
+    private void avanza(ControlEjecucion control) {
+        control.verifica();
+        control.avanza(bytesLeidos);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        control.setDetalle(String.format("%,d aristas, %,d aristas/s", numAristas,
+                segundos > 0 ? (long) (numAristas / segundos) : 0));
+    }
+
+    /**
+     * Avanza a la siguiente línea, que queda en bufer[inicioLinea, finLinea) sin el salto de línea.
+     * @return false si ya no hay más líneas.
+     */
+    private boolean siguienteLinea(ControlEjecucion control) throws IOException {
+        int revisado = posicion;
+        while (true) {
+            for (int i = revisado; i < limite; i++) {
+                if (bufer[i] == '\n') {
+                    return tomaLinea(i, i + 1);
+                }
+            }
+            if (finArchivo) {
+                return posicion < limite && tomaLinea(limite, limite);
+            }
+            revisado = limite - posicion;
+            rellena();
+            revisado += posicion;
+            avanza(control);
+        }
+    }
+
+    private boolean tomaLinea(int fin, int siguiente) {
+        inicioLinea = posicion;
+        finLinea = fin > posicion && bufer[fin - 1] == '\r' ? fin - 1 : fin;
+        posicion = siguiente;
+        numLinea++;
+        return true;
+    }
+
+    /**
+     * Mueve la línea incompleta al principio del búfer y lo llena con el siguiente bloque del archivo. El búfer solo
+     * crece si una línea no cabe en él.
+     */
+    private void rellena() throws IOException {
+        int pendientes = limite - posicion;
+        if (pendientes == bufer.length) {
+            if (bufer.length >= LINEA_MAXIMA) {
+                throw new IOException("Línea " + (numLinea + 1) + ": demasiado larga");
+            }
+            bufer = Arrays.copyOf(bufer, bufer.length * 2);
+        } else {
+            System.arraycopy(bufer, posicion, bufer, 0, pendientes);
+        }
+        posicion = 0;
+        limite = pendientes;
+        int leidos = canal.read(ByteBuffer.wrap(bufer, limite, bufer.length - limite));
+        if (leidos == -1) {
+            finArchivo = true;
+        } else {
+            limite += leidos;
+            bytesLeidos += leidos;
+        }
+    }
+
+    /**
+     * Separa la línea en campos sin crear objetos; un campo entre comillas puede tener separadores.
+     * @return El número de campos de la línea; solo se guardan los primeros MAX_CAMPOS.
+     */
+    private int separaCampos() {
+        int numCampos = 0;
+        int i = inicioLinea;
+        while (i < finLinea) {
+            byte c = bufer[i];
+            if (esSeparador(c)) {
+                i++;
+                continue;
+            }
+            int inicioActual;
+            int finActual;
+            if (c == '"') {
+                inicioActual = ++i;
+                while (i < finLinea && bufer[i] != '"') {
+                    i++;
+                }
+                finActual = i++;
+            } else {
+                inicioActual = i;
+                while (i < finLinea && !esSeparador(bufer[i])) {
+                    i++;
+                }
+                finActual = i;
+            }
+            if (numCampos < MAX_CAMPOS) {
+                inicioCampo[numCampos] = inicioActual;
+                finCampo[numCampos] = finActual;
+            }
+            numCampos++;
+        }
+        return numCampos;
+    }
+
+    private static boolean esSeparador(byte c) {
+        return c == ' ' || c == '\t' || c == ',' || c == ';';
+    }
+
+    private String texto(int campo) {
+        return new String(bufer, inicioCampo[campo], finCampo[campo] - inicioCampo[campo], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return El campo como entero sin signo, o -1 si no es un entero.
+     */
+    private long entero(int campo) {
+        int inicioActual = inicioCampo[campo];
+        int finActual = finCampo[campo];
+        if (inicioActual == finActual || finActual - inicioActual > 18) {
+            return -1;
+        }
+        long valor = 0;
+        for (int i = inicioActual; i < finActual; i++) {
+            int digito = bufer[i] - '0';
+            if (digito < 0 || digito > 9) {
+                return -1;
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+
+    /**
+     * @return El campo como número, o NaN si no es un número.
+     */
+    private double numero(int campo) {
+        long valor = entero(campo);
+        if (valor != -1) {
+            return valor;
+        }
+        try {
+            return Double.parseDouble(texto(campo));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private int peso(int campo) throws IOException {
+        long valor = entero(campo);
+        if (valor > 0 && valor <= Integer.MAX_VALUE) {
+            return (int) valor;
+        }
+        try {
+            return redondeaPeso(numero(campo));
+        } catch (NumberFormatException e) {
+            throw error("el peso debe ser un número mayor a 0: " + texto(campo));
+        }
+    }
+
+    private IOException error(String mensaje) {
+        return new IOException("Línea " + numLinea + ": " + mensaje + ": "
+                + new String(bufer, inicioLinea, Math.min(finLinea - inicioLinea, 200), StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,481 @@
+import java.util.Arrays;
+
+/**
+ * Índice espacial de los vértices y aristas del grafo para saber qué hay debajo del cursor sin revisar todo el grafo.
+ * Es una rejilla uniforme de celdas de TAMANO_CELDA píxeles guardada en una tabla hash, así no necesita conocer de
+ * antemano los límites del grafo. Cada vértice se anota en las celdas que toca su círculo y cada arista en las
+ * celdas que cruza su segmento (con la tolerancia del click); para responder solo se revisa la celda del punto.
+ * Las aristas que cruzan demasiadas celdas se guardan aparte en una lista que se revisa siempre.
+ * También responde qué elementos caen en un área, para que el lienzo dibuje solo lo que se ve.
+ * Los nodos de las listas de cada celda viven en arreglos de enteros, sin objetos por entrada.
+ * Se construye la primera vez que se consulta y después se actualiza con cada cambio, por lo que cargar un grafo
+ * grande sin tocarlo no cuesta nada. Al arrastrar un vértice sus aristas se sacan de la rejilla una sola vez y se
+ * vuelven a anotar en la siguiente consulta, así cada evento del arrastre de un vértice con cientos de aristas
+ * largas no tiene que recorrer todas sus celdas.
+ * Las celdas se identifican solo por su cubeta en la tabla, dos celdas distintas pueden compartirla; por eso cada
+ * candidato se confirma con la prueba exacta de Vertice.contiene() o Arista.estaTocandoArista().
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class IndiceEspacial {
+    private static final int TAMANO_CELDA = 64;
+    // Una arista que cruza más celdas que esto se guarda en la lista de aristas largas.
+    private static final int MAX_CELDAS_ARISTA = 64;
+    private static final int TOLERANCIA = 10;
+    // Cuántos elementos del modelo se pueden revisar en lo que se visita una celda en una consulta de área.
+    private static final int COSTO_CELDA = 16;
+
+    private final ModeloGrafo modelo;
+    private boolean construido;
+    private final Celdas vertices = new Celdas();
+    private final Celdas aristas = new Celdas();
+    private final Celdas aristasLargas = new Celdas();
+    // Aristas sacadas de la rejilla mientras se mueve uno de sus extremos, como lista y conjunto de bits.
+    private final ListaEnteros aristasPendientes = new ListaEnteros();
+    private long[] pendientes = new long[1];
+    // Marca de la última consulta de área en la que apareció cada elemento, para no devolverlo dos veces.
+    private int[] marcasVertices = new int[0];
+    private int[] marcasAristas = new int[0];
+    private int marca;
+
+    /**
+     * Crea el índice de un modelo, no se construye hasta la primera consulta.
+     * @param modelo El modelo del grafo a indexar.
+     */
+    public IndiceEspacial(ModeloGrafo modelo) {
+        this.modelo = modelo;
+    }
+
+    /**
+     * Olvida el índice, se volverá a construir en la próxima consulta. Se usa al limpiar o cargar el grafo.
+     */
+    public void invalida() {
+        construido = false;
+        vertices.limpia();
+        aristas.limpia();
+        aristasLargas.limpia();
+        aristasPendientes.limpia();
+        pendientes = new long[1];
+    }
+
+    /**
+     * @param vertice Anota el vértice con su posición actual, debe llamarse después de agregarlo o moverlo.
+     */
+    public void agregaVertice(int vertice) {
+        if (construido) {
+            recorreCeldasVertice(vertice, true);
+        }
+    }
+
+    /**
+     * @param vertice Quita el vértice, debe llamarse antes de eliminarlo o moverlo.
+     */
+    public void quitaVertice(int vertice) {
+        if (construido) {
+            recorreCeldasVertice(vertice, false);
+        }
+    }
+
+    /**
+     * @param arista Anota la arista con la posición actual de sus extremos, después de agregarla o mover un extremo.
+     */
+    public void agregaArista(int arista) {
+        if (construido) {
+            recorreCeldasArista(arista, true);
+        }
+    }
+
+    /**
+     * @param arista Quita la arista, debe llamarse antes de eliminarla o de mover alguno de sus extremos.
+     */
+    public void quitaArista(int arista) {
+        if (construido) {
+            if (esPendiente(arista)) {
+                pendientes[arista >>> 6] &= ~(1L << arista);
+            } else {
+                recorreCeldasArista(arista, false);
+            }
+        }
+    }
+
+    /**
+     * Saca la arista de la rejilla hasta la próxima consulta, debe llamarse antes de mover alguno de sus extremos.
+     * Si ya estaba fuera no hace nada, por eso llamarlo en cada evento de un arrastre cuesta muy poco.
+     * @param arista El índice de la arista.
+     */
+    public void aplazaArista(int arista) {
+        if (construido && !esPendiente(arista)) {
+            recorreCeldasArista(arista, false);
+            if ((arista >>> 6) >= pendientes.length) {
+                pendientes = Arrays.copyOf(pendientes, Math.max(pendientes.length * 2, (arista >>> 6) + 1));
+            }
+            pendientes[arista >>> 6] |= 1L << arista;
+            aristasPendientes.agrega(arista);
+        }
+    }
+
+    /**
+     * Busca el vértice que se dibuja en el punto dado; si hay varios encimados gana el más reciente.
+     * @param x La coordenada x del punto.
+     * @param y La coordenada y del punto.
+     * @return El índice del vértice, o -1 si el punto no toca ningún vértice.
+     */
+    public int verticeEn(int x, int y) {
+        construye();
+        int encontrado = -1;
+        int celdaX = Math.floorDiv(x, TAMANO_CELDA);
+        int celdaY = Math.floorDiv(y, TAMANO_CELDA);
+        for (int nodo = vertices.primero(celdaX, celdaY); nodo != -1; nodo = vertices.siguiente(nodo)) {
+            int vertice = vertices.elemento(nodo);
+            if (vertice > encontrado && Vertice.contiene(modelo, vertice, x, y)) {
+                encontrado = vertice;
+            }
+        }
+        return encontrado;
+    }
+
+    /**
+     * Busca la arista que pasa por el punto dado; si hay varias gana la más reciente.
+     * @param x La coordenada x del punto.
+     * @param y La coordenada y del punto.
+     * @return El índice de la arista, o -1 si el punto no toca ninguna arista.
+     */
+    public int aristaEn(int x, int y) {
+        construye();
+        int encontrada = -1;
+        int celdaX = Math.floorDiv(x, TAMANO_CELDA);
+        int celdaY = Math.floorDiv(y, TAMANO_CELDA);
+        for (int nodo = aristas.primero(celdaX, celdaY); nodo != -1; nodo = aristas.siguiente(nodo)) {
+            int arista = aristas.elemento(nodo);
+            if (arista > encontrada && Arista.estaTocandoArista(modelo, arista, x, y)) {
+                encontrada = arista;
+            }
+        }
+        for (int nodo = aristasLargas.primero(0, 0); nodo != -1; nodo = aristasLargas.siguiente(nodo)) {
+            int arista = aristasLargas.elemento(nodo);
+            if (arista > encontrada && Arista.estaTocandoArista(modelo, arista, x, y)) {
+                encontrada = arista;
+            }
+        }
+        return encontrada;
+    }
+
+    /**
+     * Junta sin repetidos los vértices y aristas cuyo rectángulo envolvente cruza el área dada, para dibujar solo lo
+     * que se ve. Si el área abarca tantas celdas que visitarlas cuesta más que revisar el modelo completo, se revisa el
+     * modelo, así la consulta nunca cuesta más que un recorrido de todo el grafo.
+     * @param minX La coordenada x mínima del área.
+     * @param minY La coordenada y mínima del área.
+     * @param maxX La coordenada x máxima del área.
+     * @param maxY La coordenada y máxima del área.
+     * @param verticesEncontrados Recibe los vértices, ordenados por índice para dibujarlos en orden de creación.
+     * @param aristasEncontradas Recibe las aristas, en cualquier orden.
+     */
+    public void elementosEn(int minX, int minY, int maxX, int maxY,
+                            ListaEnteros verticesEncontrados, ListaEnteros aristasEncontradas) {
+        verticesEncontrados.limpia();
+        aristasEncontradas.limpia();
+        int primeraColumna = Math.floorDiv(minX, TAMANO_CELDA);
+        int ultimaColumna = Math.floorDiv(maxX, TAMANO_CELDA);
+        int primeraFila = Math.floorDiv(minY, TAMANO_CELDA);
+        int ultimaFila = Math.floorDiv(maxY, TAMANO_CELDA);
+        long celdas = ((long) ultimaColumna - primeraColumna + 1) * ((long) ultimaFila - primeraFila + 1);
+        // Visitar una celda cuesta varias veces más que revisar un elemento, pues recorre la cubeta completa de la
+        // tabla aunque la celda esté vacía:
+        if (celdas * COSTO_CELDA > (long) modelo.getNumVertices() + modelo.getNumAristas()) {
+            for (int vertice = 0; vertice < modelo.getNumRanurasVertices(); vertice++) {
+                if (modelo.existeVertice(vertice) && verticeCruza(vertice, minX, minY, maxX, maxY)) {
+                    verticesEncontrados.agrega(vertice);
+                }
+            }
+            for (int arista = 0; arista < modelo.getNumRanurasAristas(); arista++) {
+                if (modelo.existeArista(arista) && aristaCruza(arista, minX, minY, maxX, maxY)) {
+                    aristasEncontradas.agrega(arista);
+                }
+            }
+            return;
+        }
+        construye();
+        nuevaMarca();
+        for (int celdaX = primeraColumna; celdaX <= ultimaColumna; celdaX++) {
+            for (int celdaY = primeraFila; celdaY <= ultimaFila; celdaY++) {
+                for (int nodo = vertices.primero(celdaX, celdaY); nodo != -1; nodo = vertices.siguiente(nodo)) {
+                    int vertice = vertices.elemento(nodo);
+                    if (marcasVertices[vertice] != marca) {
+                        marcasVertices[vertice] = marca;
+                        if (verticeCruza(vertice, minX, minY, maxX, maxY)) {
+                            verticesEncontrados.agrega(vertice);
+                        }
+                    }
+                }
+                for (int nodo = aristas.primero(celdaX, celdaY); nodo != -1; nodo = aristas.siguiente(nodo)) {
+                    int arista = aristas.elemento(nodo);
+                    if (marcasAristas[arista] != marca) {
+                        marcasAristas[arista] = marca;
+                        if (aristaCruza(arista, minX, minY, maxX, maxY)) {
+                            aristasEncontradas.agrega(arista);
+                        }
+                    }
+                }
+            }
+        }
+        for (int nodo = aristasLargas.primero(0, 0); nodo != -1; nodo = aristasLargas.siguiente(nodo)) {
+            int arista = aristasLargas.elemento(nodo);
+            if (aristaCruza(arista, minX, minY, maxX, maxY)) {
+                aristasEncontradas.agrega(arista);
+            }
+        }
+        verticesEncontrados.ordena();
+    }
+
+    /**
+     * Empieza una consulta de área nueva, así no hace falta borrar las marcas de la anterior.
+     */
+    private void nuevaMarca() {
+        if (marcasVertices.length < modelo.getNumRanurasVertices()) {
+            marcasVertices = Arrays.copyOf(marcasVertices, modelo.getNumRanurasVertices());
+        }
+        if (marcasAristas.length < modelo.getNumRanurasAristas()) {
+            marcasAristas = Arrays.copyOf(marcasAristas, modelo.getNumRanurasAristas());
+        }
+        if (++marca == 0) {
+            Arrays.fill(marcasVertices, 0);
+            Arrays.fill(marcasAristas, 0);
+            marca = 1;
+        }
+    }
+
+    private boolean verticeCruza(int vertice, int minX, int minY, int maxX, int maxY) {
+        int radio = Vertice.getvSize() / 2;
+        int x = modelo.getX(vertice);
+        int y = modelo.getY(vertice);
+        return x + radio >= minX && x - radio <= maxX && y + radio >= minY && y - radio <= maxY;
+    }
+
+    private boolean aristaCruza(int arista, int minX, int minY, int maxX, int maxY) {
+        int x1 = modelo.getX(modelo.getOrigen(arista));
+        int y1 = modelo.getY(modelo.getOrigen(arista));
+        int x2 = modelo.getX(modelo.getDestino(arista));
+        int y2 = modelo.getY(modelo.getDestino(arista));
+        return Math.max(x1, x2) >= minX && Math.min(x1, x2) <= maxX
+                && Math.max(y1, y2) >= minY && Math.min(y1, y2) <= maxY;
+    }
+
+    private boolean esPendiente(int arista) {
+        return (arista >>> 6) < pendientes.length && (pendientes[arista >>> 6] & (1L << arista)) != 0;
+    }
+
+    /**
+     * Construye el índice si no existe o vuelve a anotar las aristas que quedaron pendientes.
+     */
+    private void construye() {
+        if (construido) {
+            for (int i = 0; i < aristasPendientes.tamano(); i++) {
+                int arista = aristasPendientes.obten(i);
+                if (esPendiente(arista)) {
+                    pendientes[arista >>> 6] &= ~(1L << arista);
+                    recorreCeldasArista(arista, true);
+                }
+            }
+            aristasPendientes.limpia();
+            return;
+        }
+        construido = true;
+        for (int vertice = 0; vertice < modelo.getNumRanurasVertices(); vertice++) {
+            if (modelo.existeVertice(vertice)) {
+                recorreCeldasVertice(vertice, true);
+            }
+        }
+        for (int arista = 0; arista < modelo.getNumRanurasAristas(); arista++) {
+            if (modelo.existeArista(arista)) {
+                recorreCeldasArista(arista, true);
+            }
+        }
+    }
+
+    /**
+     * Agrega o quita el vértice de las celdas que toca su círculo, como mucho cuatro.
+     */
+    private void recorreCeldasVertice(int vertice, boolean agregar) {
+        int radio = Vertice.getvSize() / 2;
+        int x = modelo.getX(vertice);
+        int y = modelo.getY(vertice);
+        for (int celdaX = Math.floorDiv(x - radio, TAMANO_CELDA); celdaX <= Math.floorDiv(x + radio, TAMANO_CELDA); celdaX++) {
+            for (int celdaY = Math.floorDiv(y - radio, TAMANO_CELDA); celdaY <= Math.floorDiv(y + radio, TAMANO_CELDA); celdaY++) {
+                if (agregar) {
+                    vertices.agrega(celdaX, celdaY, vertice);
+                } else {
+                    vertices.quita(celdaX, celdaY, vertice);
+                }
+            }
+        }
+    }
+
+    /**
+     * Agrega o quita la arista de las celdas que cruza su segmento engrosado por la tolerancia del click.
+     * Se recorre columna por columna: en cada una solo se toman las filas que abarca el tramo del segmento que cae
+     * en ella, así una diagonal larga no ocupa todo su rectángulo envolvente.
+     */
+    private void recorreCeldasArista(int arista, boolean agregar) {
+        int origen = modelo.getOrigen(arista);
+        int destino = modelo.getDestino(arista);
+        int x1 = modelo.getX(origen);
+        int y1 = modelo.getY(origen);
+        int x2 = modelo.getX(destino);
+        int y2 = modelo.getY(destino);
+        if (x1 > x2) {
+            int temporal = x1;
+            x1 = x2;
+            x2 = temporal;
+            temporal = y1;
+            y1 = y2;
+            y2 = temporal;
+        }
+        int primeraColumna = Math.floorDiv(x1 - TOLERANCIA, TAMANO_CELDA);
+        int ultimaColumna = Math.floorDiv(x2 + TOLERANCIA, TAMANO_CELDA);
+        int filas = Math.abs(Math.floorDiv(y2, TAMANO_CELDA) - Math.floorDiv(y1, TAMANO_CELDA)) + 1;
+        if ((long) ultimaColumna - primeraColumna + filas > MAX_CELDAS_ARISTA) {
+            if (agregar) {
+                aristasLargas.agrega(0, 0, arista);
+            } else {
+                aristasLargas.quita(0, 0, arista);
+            }
+            return;
+        }
+        double pendiente = x1 == x2 ? 0 : (double) (y2 - y1) / (x2 - x1);
+        for (int celdaX = primeraColumna; celdaX <= ultimaColumna; celdaX++) {
+            int minY;
+            int maxY;
+            if (x1 == x2) {
+                minY = Math.min(y1, y2);
+                maxY = Math.max(y1, y2);
+            } else {
+                // Tramo del segmento dentro de la columna, ampliada por la tolerancia:
+                int desde = Math.max(x1, celdaX * TAMANO_CELDA - TOLERANCIA);
+                int hasta = Math.min(x2, (celdaX + 1) * TAMANO_CELDA + TOLERANCIA);
+                double yDesde = y1 + pendiente * (desde - x1);
+                double yHasta = y1 + pendiente * (hasta - x1);
+                minY = (int) Math.floor(Math.min(yDesde, yHasta));
+                maxY = (int) Math.ceil(Math.max(yDesde, yHasta));
+            }
+            for (int celdaY = Math.floorDiv(minY - TOLERANCIA, TAMANO_CELDA);
+                 celdaY <= Math.floorDiv(maxY + TOLERANCIA, TAMANO_CELDA); celdaY++) {
+                if (agregar) {
+                    aristas.agrega(celdaX, celdaY, arista);
+                } else {
+                    aristas.quita(celdaX, celdaY, arista);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tabla hash de celdas a listas enlazadas de elementos, con los nodos en arreglos paralelos y una lista de nodos
+     * libres para reutilizarlos. Cada nodo guarda el hash completo de su celda para poder repartirlo de nuevo
+     * cuando la tabla crece al doble, lo que pasa al haber más del doble de nodos que cubetas.
+     */
+    private static final class Celdas {
+        private int[] cabezas;
+        private int[] elementos;
+        private int[] siguientes;
+        private int[] hashes;
+        private int numNodos;
+        private int usados;
+        private int libre;
+
+        Celdas() {
+            limpia();
+        }
+
+        void limpia() {
+            cabezas = new int[64];
+            Arrays.fill(cabezas, -1);
+            elementos = new int[64];
+            siguientes = new int[64];
+            hashes = new int[64];
+            numNodos = 0;
+            usados = 0;
+            libre = -1;
+        }
+
+        void agrega(int celdaX, int celdaY, int elemento) {
+            if (usados >= 2 * cabezas.length) {
+                redimensiona(cabezas.length * 2);
+            }
+            int nodo;
+            if (libre != -1) {
+                nodo = libre;
+                libre = siguientes[nodo];
+            } else {
+                if (numNodos == elementos.length) {
+                    elementos = Arrays.copyOf(elementos, numNodos * 2);
+                    siguientes = Arrays.copyOf(siguientes, numNodos * 2);
+                    hashes = Arrays.copyOf(hashes, numNodos * 2);
+                }
+                nodo = numNodos++;
+            }
+            int hash = hash(celdaX, celdaY);
+            int cubeta = hash & (cabezas.length - 1);
+            elementos[nodo] = elemento;
+            hashes[nodo] = hash;
+            siguientes[nodo] = cabezas[cubeta];
+            cabezas[cubeta] = nodo;
+            usados++;
+        }
+
+        // Se compara también el hash: celdas distintas pueden compartir cubeta y tener el mismo elemento, y quitar el
+        // nodo de la otra celda dejaría el de esta con un hash que la tabla ya no busca aquí.
+        void quita(int celdaX, int celdaY, int elemento) {
+            int hash = hash(celdaX, celdaY);
+            int cubeta = hash & (cabezas.length - 1);
+            int anterior = -1;
+            for (int nodo = cabezas[cubeta]; nodo != -1; anterior = nodo, nodo = siguientes[nodo]) {
+                if (hashes[nodo] == hash && elementos[nodo] == elemento) {
+                    if (anterior == -1) {
+                        cabezas[cubeta] = siguientes[nodo];
+                    } else {
+                        siguientes[anterior] = siguientes[nodo];
+                    }
+                    elementos[nodo] = -1;
+                    siguientes[nodo] = libre;
+                    libre = nodo;
+                    usados--;
+                    return;
+                }
+            }
+        }
+
+        int primero(int celdaX, int celdaY) {
+            return cabezas[hash(celdaX, celdaY) & (cabezas.length - 1)];
+        }
+
+        int siguiente(int nodo) {
+            return siguientes[nodo];
+        }
+
+        int elemento(int nodo) {
+            return elementos[nodo];
+        }
+
+        private static int hash(int celdaX, int celdaY) {
+            long h = (((long) celdaX << 32) ^ (celdaY & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        private void redimensiona(int capacidad) {
+            cabezas = new int[capacidad];
+            Arrays.fill(cabezas, -1);
+            libre = -1;
+            for (int nodo = numNodos - 1; nodo >= 0; nodo--) {
+                if (elementos[nodo] == -1) {
+                    siguientes[nodo] = libre;
+                    libre = nodo;
+                } else {
+                    int cubeta = hashes[nodo] & (capacidad - 1);
+                    siguientes[nodo] = cabezas[cubeta];
+                    cabezas[cubeta] = nodo;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+import java.util.Arrays;
+
+/**
+ * Algoritmo de Kruskal sobre la lista de aristas de la representación CSR.
+ * Las aristas se ordenan una sola vez como llaves de tipo long (peso en los 32 bits altos e índice en los bajos) y
+ * se aceptan en ese orden siempre que unan dos componentes distintas según un union-find.
+ * Como no parte de un vértice, el resultado es un bosque de expansión mínima que cubre también grafos no conexos.
+ * En la traza cada arista revisada queda como aceptada o rechazada, en el orden del peso. Al terminar registra en el
+ * control las aristas revisadas y las uniones intentadas.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class Kruskal {
+    // A partir de este número de aristas el ordenamiento se reparte entre los núcleos.
+    private static final int UMBRAL_ORDEN_PARALELO = 1 << 16;
+
+    private Kruskal() {
+    }
+
+    /**
+     * Calcula el bosque de expansión mínima.
+     * @param adyacencia La representación CSR del grafo.
+     * @param control Recibe el avance y permite cancelar el algoritmo.
+     * @param traza Recibe las aristas revisadas, puede ser TrazaAlgoritmo.DESACTIVADA.
+     * @return Los índices de las aristas del bosque, en el orden en que se aceptaron.
+     */
+    public static int[] arbolExpansionMinima(AdyacenciaCSR adyacencia, ControlEjecucion control,
+                                             TrazaAlgoritmo traza) {
+        int numAristas = adyacencia.getNumAristas();
+        control.inicia(numAristas);
+        long[] llaves = new long[numAristas];
+        for (int i = 0; i < numAristas; i++) {
+            llaves[i] = ((long) adyacencia.pesoDe(i) << 32) | i;
+        }
+        if (numAristas >= UMBRAL_ORDEN_PARALELO) {
+            Arrays.parallelSort(llaves);
+        } else {
+            Arrays.sort(llaves);
+        }
+        control.verifica();
+
+        ConjuntosDisjuntos componentes = new ConjuntosDisjuntos(adyacencia.getDimension());
+        int[] aceptadas = new int[Math.max(adyacencia.getDimension() - 1, 0)];
+        int numAceptadas = 0;
+        int revisadas = 0;
+        for (int i = 0; i < numAristas && numAceptadas < aceptadas.length; i++) {
+            revisadas++;
+            if ((i & ControlEjecucion.INTERVALO) == 0) {
+                control.avanza(i);
+            }
+            int arista = (int) llaves[i];
+            if (componentes.une(adyacencia.origen(arista), adyacencia.destino(arista))) {
+                aceptadas[numAceptadas++] = arista;
+                traza.acepta(arista);
+            } else {
+                traza.rechaza(arista);
+            }
+        }
+        control.registra(MetricasAlgoritmo.ARISTAS_REVISADAS, revisadas);
+        control.registra(MetricasAlgoritmo.OPERACIONES_UNION_FIND, revisadas);
+        return Arrays.copyOf(aceptadas, numAceptadas);
+    }
+}
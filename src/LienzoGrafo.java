@@ -0,0 +1,653 @@
+import jdk.jfr.FlightRecorder;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Panel que dibuja todo el grafo en un solo componente.
+ * Las aristas se agrupan por color y cada grupo se dibuja con un solo cambio de color y de trazo, encima van los
+ * pesos y al final los vértices. Con el trazo de 2 píxeles drawLine por arista es varias veces más rápido que
+ * juntar las líneas en un Path2D, pues el contorno de un trazo grueso con miles de cruces es muy caro de rellenar.
+ * Solo se dibuja lo que cae dentro del área a repintar, y los grupos y el arreglo de dígitos se reutilizan de un
+ * pintado a otro para no generar basura al arrastrar un vértice.
+ * El grafo se guarda dibujado en una imagen que solo se vuelve a dibujar cuando cambia su estructura o se mueve un
+ * vértice; en cada pintado se copia la imagen y encima se dibujan solo los elementos que cambiaron de color desde la
+ * última vez que se dibujó completa, así las animaciones de los algoritmos no redibujan todo el grafo. Cuando esos
+ * elementos se acumulan, la imagen se vuelve a dibujar con sus colores y dejan de dibujarse encima.
+ * Al arrastrar un vértice o cambiar un color solo se repinta la zona que cambió: las zonas que se marcan durante un
+ * cuadro se juntan en un solo rectángulo y se repintan una vez, con un Timer de Swing al ritmo de la pantalla.
+ * La vista se acerca y aleja con la rueda del ratón y se mueve arrastrando el espacio vacío. Los elementos visibles
+ * se piden al índice espacial del grafo, así el costo de un cuadro depende de lo que cabe en pantalla; de lejos se
+ * dibuja una versión simplificada, sin textos, con líneas de un píxel y un solo punto por cada grupo de vértices
+ * que caen en el mismo lugar de la pantalla.
+ * Si Java Flight Recorder está iniciado, cada pintado se registra como un EventoPintado.
+ * También recibe los eventos del ratón y los reparte al vértice o arista que está bajo el cursor.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class LienzoGrafo extends JPanel {
+    private static final long serialVersionUID = 1L;
+    // Por debajo de esta escala los textos ya no se leen y se dibuja la versión simplificada.
+    private static final double ESCALA_DETALLE = 0.4;
+    private static final double ESCALA_MINIMA = 0.01;
+    private static final double ESCALA_MAXIMA = 8;
+    private static final double FACTOR_ZOOM = 1.25;
+    private static final BasicStroke TRAZO_FINO = new BasicStroke(1.0f);
+    // Con más elementos resaltados que este número se dibuja de nuevo toda la capa estática con sus colores, así
+    // cada pintado dibuja encima a lo más este número de elementos.
+    private static final int MAX_RESALTADOS = 4096;
+    private Grafo grafo;
+    private Consumer<Point> alClickVacio = punto -> {};
+    private int verticeArrastrado = -1;
+    // Vista: el punto (x, y) del grafo se dibuja en ((x - origenX) * escala, (y - origenY) * escala).
+    private double escala = 1;
+    private double origenX;
+    private double origenY;
+    // Dónde empezó el arrastre de la vista, ratonInicioX es -1 si no se está arrastrando.
+    private int ratonInicioX = -1;
+    private int ratonInicioY;
+    private double origenInicioX;
+    private double origenInicioY;
+    // Aristas visibles agrupadas por color, un grupo por cada color que aparece en el pintado.
+    private ListaEnteros[] grupos = new ListaEnteros[4];
+    private Color[] coloresGrupos = new Color[4];
+    private int numGrupos;
+    private final ListaEnteros verticesVisibles = new ListaEnteros();
+    private final ListaEnteros aristasVisibles = new ListaEnteros();
+    // Lugares de la pantalla que ya tienen un punto en la versión simplificada, como conjunto de bits.
+    private long[] puntosOcupados = new long[0];
+    private final char[] digitos = new char[11];
+    private final Rectangle areaRepintado = new Rectangle();
+    // Lo que se recolectó y si se redibujó la capa estática en el pintado en curso, para su evento de JFR.
+    private int verticesPintados;
+    private int aristasPintadas;
+    private boolean capaRedibujada;
+    private final Rectangle areaGrafo = new Rectangle();
+    private final Rectangle areaElemento = new Rectangle();
+    private final Rectangle areaPantalla = new Rectangle();
+    // Unión de las zonas marcadas desde el último repintado.
+    private final Rectangle areaSucia = new Rectangle();
+    // El grafo con los colores que tenía al dibujarse, se dibuja una vez y se copia en cada pintado.
+    private BufferedImage capaEstatica;
+    // Versión del modelo y vista con las que se dibujó la capa, si cambia la estructura o la escala se dibuja toda.
+    private long versionCapa = -1;
+    private double escalaCapa;
+    private double origenCapaX;
+    private double origenCapaY;
+    // Zonas de la capa que quedaron viejas porque se movió algún vértice.
+    private final Rectangle areaCapaSucia = new Rectangle();
+    private final Timer temporizadorCuadro = new Timer(1000 / 60, e -> repintaAreaSucia());
+
+    /**
+     * Crea el lienzo vacío, se le asigna el grafo a dibujar con setGrafo().
+     */
+    public LienzoGrafo() {
+        setLayout(null);
+        temporizadorCuadro.setRepeats(false);
+        MouseAdapter raton = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                verticeArrastrado = grafo != null ? grafo.verticeEn(grafoX(e.getX()), grafoY(e.getY())) : -1;
+                // Si no se tomó un vértice, el arrastre mueve la vista:
+                if (verticeArrastrado == -1) {
+                    ratonInicioX = e.getX();
+                    ratonInicioY = e.getY();
+                    origenInicioX = origenX;
+                    origenInicioY = origenY;
+                }
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                // Actualiza la posición del vértice al arrastrarlo:
+                if (verticeArrastrado != -1 && grafo.getModelo().existeVertice(verticeArrastrado)) {
+                    grafo.mueveVertice(verticeArrastrado, grafoX(e.getX()), grafoY(e.getY()));
+                } else if (ratonInicioX != -1) {
+                    origenX = origenInicioX - (e.getX() - ratonInicioX) / escala;
+                    origenY = origenInicioY - (e.getY() - ratonInicioY) / escala;
+                    cambiaVista();
+                }
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                verticeArrastrado = -1;
+                ratonInicioX = -1;
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                leeClick(e);
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                escalaEn(Math.pow(FACTOR_ZOOM, -e.getPreciseWheelRotation()), e.getX(), e.getY());
+            }
+        };
+        addMouseListener(raton);
+        addMouseMotionListener(raton);
+        addMouseWheelListener(raton);
+    }
+
+    /**
+     * @param grafo Establece el grafo que dibuja el lienzo.
+     */
+    public void setGrafo(Grafo grafo) {
+        this.grafo = grafo;
+        repaint();
+    }
+
+    /**
+     * @param alClickVacio Establece qué hacer con los clicks que no caen sobre un vértice ni una arista, recibe el
+     *                     punto del click en coordenadas del grafo.
+     */
+    public void setAlClickVacio(Consumer<Point> alClickVacio) {
+        this.alClickVacio = alClickVacio;
+    }
+
+    /**
+     * @return Cuántos píxeles de pantalla mide una unidad del grafo.
+     */
+    public double getEscala() {
+        return escala;
+    }
+
+    /**
+     * Multiplica la escala de la vista dejando fijo el punto dado de la pantalla.
+     * @param factor Mayor a 1 para acercar, menor a 1 para alejar.
+     * @param x La coordenada x del punto fijo en el lienzo.
+     * @param y La coordenada y del punto fijo en el lienzo.
+     */
+    public void escalaEn(double factor, int x, int y) {
+        double nuevaEscala = Math.max(ESCALA_MINIMA, Math.min(ESCALA_MAXIMA, escala * factor));
+        origenX += x / escala - x / nuevaEscala;
+        origenY += y / escala - y / nuevaEscala;
+        escala = nuevaEscala;
+        cambiaVista();
+    }
+
+    /**
+     * Acerca la vista hacia el centro del lienzo.
+     */
+    public void acerca() {
+        escalaEn(FACTOR_ZOOM, getWidth() / 2, getHeight() / 2);
+    }
+
+    /**
+     * Aleja la vista desde el centro del lienzo.
+     */
+    public void aleja() {
+        escalaEn(1 / FACTOR_ZOOM, getWidth() / 2, getHeight() / 2);
+    }
+
+    /**
+     * Ajusta la vista para que se vea todo el grafo, sin pasar del tamaño original.
+     */
+    public void ajustaVista() {
+        ModeloGrafo modelo = grafo.getModelo();
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (int vertice = 0; vertice < modelo.getNumRanurasVertices(); vertice++) {
+            if (modelo.existeVertice(vertice)) {
+                minX = Math.min(minX, modelo.getX(vertice));
+                minY = Math.min(minY, modelo.getY(vertice));
+                maxX = Math.max(maxX, modelo.getX(vertice));
+                maxY = Math.max(maxY, modelo.getY(vertice));
+            }
+        }
+        if (minX > maxX) {
+            restableceVista();
+            return;
+        }
+        int margen = Vertice.getvSize();
+        double anchoGrafo = (double) maxX - minX + 2 * margen;
+        double altoGrafo = (double) maxY - minY + 2 * margen;
+        escala = Math.max(ESCALA_MINIMA, Math.min(1, Math.min(getWidth() / anchoGrafo, getHeight() / altoGrafo)));
+        origenX = (minX + maxX) / 2.0 - getWidth() / (2 * escala);
+        origenY = (minY + maxY) / 2.0 - getHeight() / (2 * escala);
+        cambiaVista();
+    }
+
+    /**
+     * Regresa la vista al tamaño original con el origen del grafo en la esquina del lienzo.
+     */
+    public void restableceVista() {
+        escala = 1;
+        origenX = 0;
+        origenY = 0;
+        cambiaVista();
+    }
+
+    private void cambiaVista() {
+        // La capa se ajusta a la nueva vista en el próximo pintado:
+        repaint();
+    }
+
+    private int grafoX(int x) {
+        return (int) Math.floor(x / escala + origenX);
+    }
+
+    private int grafoY(int y) {
+        return (int) Math.floor(y / escala + origenY);
+    }
+
+    private int pantallaX(int x) {
+        return (int) Math.floor((x - origenX) * escala);
+    }
+
+    private int pantallaY(int y) {
+        return (int) Math.floor((y - origenY) * escala);
+    }
+
+    /**
+     * Convierte un área del grafo a coordenadas del lienzo, con dos píxeles de más por el redondeo y por los puntos
+     * de la versión simplificada, que nunca miden menos de dos píxeles.
+     */
+    private void aPantalla(Rectangle area, Rectangle destino) {
+        int minX = pantallaX(area.x) - 2;
+        int minY = pantallaY(area.y) - 2;
+        int maxX = (int) Math.ceil((area.x + area.width - origenX) * escala) + 2;
+        int maxY = (int) Math.ceil((area.y + area.height - origenY) * escala) + 2;
+        destino.setBounds(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /**
+     * Marca una zona donde cambió la posición de algún elemento: se vuelve a dibujar en la capa estática y se
+     * repinta en el próximo cuadro, junto con las demás zonas marcadas hasta entonces.
+     * @param area La zona a repintar, en coordenadas del grafo.
+     */
+    public void marcaSucia(Rectangle area) {
+        aPantalla(area, areaPantalla);
+        if (areaCapaSucia.isEmpty()) {
+            areaCapaSucia.setBounds(areaPantalla);
+        } else {
+            areaCapaSucia.add(areaPantalla);
+        }
+        agregaAreaSucia(areaPantalla);
+    }
+
+    /**
+     * Hace que el próximo pintado vuelva a dibujar toda la capa estática, por ejemplo porque cambiaron los colores de
+     * muchos elementos a la vez.
+     */
+    public void invalidaCapa() {
+        versionCapa = -1;
+        repaint();
+    }
+
+    /**
+     * Marca una zona donde solo cambió el color de algún elemento: se repinta en el próximo cuadro sin tocar la
+     * capa estática, pues los elementos resaltados se dibujan encima de ella.
+     * @param area La zona a repintar, en coordenadas del grafo.
+     */
+    public void marcaResaltado(Rectangle area) {
+        aPantalla(area, areaPantalla);
+        agregaAreaSucia(areaPantalla);
+    }
+
+    private void agregaAreaSucia(Rectangle area) {
+        if (areaSucia.isEmpty()) {
+            areaSucia.setBounds(area);
+        } else {
+            areaSucia.add(area);
+        }
+        if (!temporizadorCuadro.isRunning()) {
+            temporizadorCuadro.start();
+        }
+    }
+
+    private void repintaAreaSucia() {
+        repaint(areaSucia);
+        areaSucia.setBounds(0, 0, 0, 0);
+    }
+
+    /**
+     * Los vértices se dibujan encima de las aristas, por eso tienen prioridad al recibir el click.
+     * @param e El evento de click del ratón.
+     */
+    private void leeClick(MouseEvent e) {
+        int x = grafoX(e.getX());
+        int y = grafoY(e.getY());
+        int vertice = grafo != null ? grafo.verticeEn(x, y) : -1;
+        if (vertice != -1) {
+            Vertice.leeClick(grafo, vertice);
+            return;
+        }
+        int arista = grafo != null ? grafo.aristaEn(x, y) : -1;
+        if (arista != -1) {
+            Arista.leeClick(grafo, arista);
+        } else {
+            alClickVacio.accept(new Point(x, y));
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (grafo == null) {
+            return;
+        }
+        EventoPintado evento = FlightRecorder.isInitialized() ? new EventoPintado() : null;
+        if (evento != null) {
+            evento.begin();
+        }
+        verticesPintados = 0;
+        aristasPintadas = 0;
+        capaRedibujada = false;
+        Graphics2D g2d = (Graphics2D) g;
+        actualizaCapaEstatica(g2d);
+        g2d.drawImage(capaEstatica, 0, 0, getWidth(), getHeight(), null);
+        dibujaGrafo(g2d, true);
+        if (evento != null) {
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.vertices = grafo.getModelo().getNumVertices();
+                evento.aristas = grafo.getModelo().getNumAristas();
+                evento.verticesVisibles = verticesPintados;
+                evento.aristasVisibles = aristasPintadas;
+                evento.capaRedibujada = capaRedibujada;
+                evento.simplificado = escala < ESCALA_DETALLE;
+                evento.commit();
+            }
+        }
+    }
+
+    /**
+     * Vuelve a dibujar en la capa estática lo que cambió desde el último pintado: toda la capa si cambió la
+     * estructura del grafo, la escala o el tamaño del lienzo, o si se juntaron más de MAX_RESALTADOS elementos
+     * resaltados, que entonces quedan dibujados en ella; las franjas que quedaron descubiertas si solo se movió
+     * la vista; o las zonas marcadas con marcaSucia() si se movieron vértices. La imagen tiene la resolución del
+     * dispositivo para que no se vea borrosa en pantallas escaladas.
+     * @param destino El contexto gráfico del lienzo, de él se toman la escala y las sugerencias de dibujo.
+     */
+    private void actualizaCapaEstatica(Graphics2D destino) {
+        double escalaDispositivo = destino.getTransform().getScaleX();
+        int ancho = Math.max(1, (int) Math.ceil(getWidth() * escalaDispositivo));
+        int alto = Math.max(1, (int) Math.ceil(getHeight() * escalaDispositivo));
+        if (capaEstatica == null || capaEstatica.getWidth() != ancho || capaEstatica.getHeight() != alto) {
+            GraphicsConfiguration configuracion = getGraphicsConfiguration();
+            capaEstatica = configuracion != null
+                    ? configuracion.createCompatibleImage(ancho, alto)
+                    : new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+            versionCapa = -1;
+        }
+        if (versionCapa != grafo.getModelo().getVersion() || escalaCapa != escala
+                || grafo.getNumVerticesResaltados() + grafo.getNumAristasResaltadas() > MAX_RESALTADOS) {
+            areaCapaSucia.setBounds(0, 0, getWidth(), getHeight());
+        } else if (origenCapaX != origenX || origenCapaY != origenY) {
+            desplazaCapa(destino, escalaDispositivo);
+        }
+        versionCapa = grafo.getModelo().getVersion();
+        escalaCapa = escala;
+        origenCapaX = origenX;
+        origenCapaY = origenY;
+        if (!areaCapaSucia.isEmpty()) {
+            boolean completa = areaCapaSucia.contains(0, 0, getWidth(), getHeight());
+            dibujaEnCapa(areaCapaSucia, destino, escalaDispositivo);
+            areaCapaSucia.setBounds(0, 0, 0, 0);
+            if (completa) {
+                grafo.incorporaResaltados();
+            }
+        }
+    }
+
+    /**
+     * Al mover la vista sin cambiar la escala recorre la imagen de la capa y dibuja solo las franjas descubiertas,
+     * así arrastrar la vista cuesta lo que miden las franjas y no toda la pantalla. Si el desplazamiento no es de
+     * píxeles enteros, es más grande que el lienzo o quedaban zonas sin dibujar, se marca toda la capa.
+     */
+    private void desplazaCapa(Graphics2D destino, double escalaDispositivo) {
+        double desplazamientoX = (origenCapaX - origenX) * escala;
+        double desplazamientoY = (origenCapaY - origenY) * escala;
+        int dx = (int) Math.round(desplazamientoX);
+        int dy = (int) Math.round(desplazamientoY);
+        double dxDispositivo = dx * escalaDispositivo;
+        double dyDispositivo = dy * escalaDispositivo;
+        if (!areaCapaSucia.isEmpty() || Math.abs(desplazamientoX - dx) > 1e-3 || Math.abs(desplazamientoY - dy) > 1e-3
+                || dxDispositivo != Math.rint(dxDispositivo) || dyDispositivo != Math.rint(dyDispositivo)
+                || Math.abs(dx) >= getWidth() || Math.abs(dy) >= getHeight()) {
+            areaCapaSucia.setBounds(0, 0, getWidth(), getHeight());
+            return;
+        }
+        Graphics2D g = capaEstatica.createGraphics();
+        g.copyArea(0, 0, capaEstatica.getWidth(), capaEstatica.getHeight(), (int) dxDispositivo, (int) dyDispositivo);
+        g.dispose();
+        // La vista ya es la nueva, las franjas se dibujan con ella:
+        origenCapaX = origenX;
+        origenCapaY = origenY;
+        if (dx != 0) {
+            areaPantalla.setBounds(dx > 0 ? 0 : getWidth() + dx, 0, Math.abs(dx), getHeight());
+            dibujaEnCapa(areaPantalla, destino, escalaDispositivo);
+        }
+        if (dy != 0) {
+            areaPantalla.setBounds(0, dy > 0 ? 0 : getHeight() + dy, getWidth(), Math.abs(dy));
+            dibujaEnCapa(areaPantalla, destino, escalaDispositivo);
+        }
+    }
+
+    /**
+     * Borra y vuelve a dibujar una zona de la capa estática.
+     * @param area La zona, en coordenadas del lienzo.
+     * @param destino El contexto gráfico del lienzo, de él se toman las sugerencias de dibujo.
+     * @param escalaDispositivo La escala de la pantalla.
+     */
+    private void dibujaEnCapa(Rectangle area, Graphics2D destino, double escalaDispositivo) {
+        capaRedibujada = true;
+        Graphics2D g = capaEstatica.createGraphics();
+        g.setRenderingHints(destino.getRenderingHints());
+        g.scale(escalaDispositivo, escalaDispositivo);
+        g.clip(area);
+        g.setColor(getBackground());
+        g.fill(area);
+        dibujaGrafo(g, false);
+        g.dispose();
+    }
+
+    /**
+     * Dibuja las aristas, sus pesos y los vértices que caen dentro del área de recorte.
+     * La capa estática lleva todos los elementos con sus colores actuales; la capa resaltada solo los que cambiaron
+     * de color desde que se dibujó toda la capa estática, así cada cuadro de una animación cuesta lo que miden los
+     * elementos que cambiaron y no todos los que se han coloreado.
+     * @param g El contexto gráfico donde se dibuja, en coordenadas del lienzo.
+     * @param resaltados true para dibujar solo los elementos resaltados, false para dibujar todo el grafo.
+     */
+    private void dibujaGrafo(Graphics2D g, boolean resaltados) {
+        if (escala < ESCALA_DETALLE) {
+            dibujaGrafoSimplificado(g, resaltados);
+            return;
+        }
+        ModeloGrafo modelo = grafo.getModelo();
+        AffineTransform transformacion = g.getTransform();
+        g.scale(escala, escala);
+        g.translate(-origenX, -origenY);
+        areaRepintado.setBounds(grafoX(0), grafoY(0),
+                (int) Math.ceil(getWidth() / escala) + 1, (int) Math.ceil(getHeight() / escala) + 1);
+        g.getClipBounds(areaRepintado);
+        // Los pesos se escriben a la derecha y abajo del punto medio y pueden ser más anchos que su caja de 30
+        // píxeles, por eso el margen es mayor que el radio.
+        int margen = Math.max(Vertice.getvSize() / 2, 70);
+        areaGrafo.setBounds(areaRepintado.x - margen, areaRepintado.y - margen,
+                areaRepintado.width + 2 * margen, areaRepintado.height + 2 * margen);
+        recolectaVisibles(resaltados);
+
+        // Aristas agrupadas por color.
+        numGrupos = 0;
+        for (int i = 0; i < aristasVisibles.tamano(); i++) {
+            int arista = aristasVisibles.obten(i);
+            grupoDe(grafo.getColorArista(arista)).agrega(arista);
+        }
+        Stroke trazoOriginal = g.getStroke();
+        g.setStroke(Arista.TRAZO);
+        for (int i = 0; i < numGrupos; i++) {
+            g.setColor(coloresGrupos[i]);
+            for (int j = 0; j < grupos[i].tamano(); j++) {
+                Arista.dibuja(g, modelo, grupos[i].obten(j));
+            }
+        }
+        g.setStroke(trazoOriginal);
+
+        // Pesos de las aristas visibles, el peso va del mismo color que su arista.
+        g.setFont(UIManager.getFont("Label.font"));
+        FontMetrics metricas = g.getFontMetrics();
+        for (int i = 0; i < numGrupos; i++) {
+            g.setColor(coloresGrupos[i]);
+            for (int j = 0; j < grupos[i].tamano(); j++) {
+                Arista.dibujaPeso(g, metricas, digitos, modelo, grupos[i].obten(j));
+            }
+        }
+
+        // Vértices, en orden de creación para que los más recientes queden encima.
+        for (int i = 0; i < verticesVisibles.tamano(); i++) {
+            int vertice = verticesVisibles.obten(i);
+            Vertice.dibuja(g, metricas, modelo, vertice, grafo.getColorVertice(vertice));
+        }
+        g.setTransform(transformacion);
+    }
+
+    /**
+     * Versión de lejos del dibujo: sin pesos ni IDs, aristas de un píxel en coordenadas de pantalla y vértices como
+     * puntos. En la capa estática se dibuja un solo punto por cada lugar de la pantalla del tamaño de un punto, y se
+     * omiten las aristas que no miden más que un punto, pues quedarían tapadas por los puntos de sus extremos.
+     * @param g El contexto gráfico donde se dibuja, en coordenadas del lienzo.
+     * @param resaltados true para dibujar solo los elementos resaltados, false para dibujar todo el grafo.
+     */
+    private void dibujaGrafoSimplificado(Graphics2D g, boolean resaltados) {
+        ModeloGrafo modelo = grafo.getModelo();
+        areaRepintado.setBounds(0, 0, getWidth(), getHeight());
+        g.getClipBounds(areaRepintado);
+        int margen = Vertice.getvSize() / 2;
+        areaGrafo.setBounds(grafoX(areaRepintado.x) - margen, grafoY(areaRepintado.y) - margen,
+                (int) Math.ceil(areaRepintado.width / escala) + 2 * margen + 1,
+                (int) Math.ceil(areaRepintado.height / escala) + 2 * margen + 1);
+        recolectaVisibles(resaltados);
+        int punto = Math.max(2, (int) Math.round(Vertice.getvSize() * escala));
+
+        numGrupos = 0;
+        for (int i = 0; i < aristasVisibles.tamano(); i++) {
+            int arista = aristasVisibles.obten(i);
+            grupoDe(grafo.getColorArista(arista)).agrega(arista);
+        }
+        Stroke trazoOriginal = g.getStroke();
+        g.setStroke(TRAZO_FINO);
+        for (int i = 0; i < numGrupos; i++) {
+            g.setColor(coloresGrupos[i]);
+            for (int j = 0; j < grupos[i].tamano(); j++) {
+                int arista = grupos[i].obten(j);
+                int x1 = pantallaX(modelo.getX(modelo.getOrigen(arista)));
+                int y1 = pantallaY(modelo.getY(modelo.getOrigen(arista)));
+                int x2 = pantallaX(modelo.getX(modelo.getDestino(arista)));
+                int y2 = pantallaY(modelo.getY(modelo.getDestino(arista)));
+                if (!resaltados && Math.abs(x2 - x1) <= punto && Math.abs(y2 - y1) <= punto) {
+                    continue;
+                }
+                g.drawLine(x1, y1, x2, y2);
+            }
+        }
+        g.setStroke(trazoOriginal);
+
+        int columnas = getWidth() / punto + 1;
+        int filas = getHeight() / punto + 1;
+        int palabras = (int) (((long) columnas * filas + 63) >>> 6);
+        if (puntosOcupados.length < palabras) {
+            puntosOcupados = new long[palabras];
+        } else {
+            Arrays.fill(puntosOcupados, 0, palabras, 0);
+        }
+        Color colorActual = null;
+        for (int i = 0; i < verticesVisibles.tamano(); i++) {
+            int vertice = verticesVisibles.obten(i);
+            int x = pantallaX(modelo.getX(vertice));
+            int y = pantallaY(modelo.getY(vertice));
+            if (!resaltados && x >= 0 && x < getWidth() && y >= 0 && y < getHeight()) {
+                int lugar = (y / punto) * columnas + x / punto;
+                if ((puntosOcupados[lugar >>> 6] & (1L << lugar)) != 0) {
+                    continue;
+                }
+                puntosOcupados[lugar >>> 6] |= 1L << lugar;
+            }
+            Color color = grafo.getColorVertice(vertice);
+            if (color != colorActual) {
+                g.setColor(color);
+                colorActual = color;
+            }
+            if (punto < 4) {
+                g.fillRect(x - punto / 2, y - punto / 2, punto, punto);
+            } else {
+                g.fillOval(x - punto / 2, y - punto / 2, punto, punto);
+            }
+        }
+    }
+
+    /**
+     * Junta en verticesVisibles y aristasVisibles los elementos que cruzan areaGrafo: los del índice espacial del
+     * grafo para la capa estática, o los resaltados para la capa resaltada, que nunca son más de MAX_RESALTADOS
+     * más los del cuadro en curso.
+     * @param resaltados true para tomar solo los elementos resaltados.
+     */
+    private void recolectaVisibles(boolean resaltados) {
+        if (!resaltados) {
+            grafo.elementosEn(areaGrafo, verticesVisibles, aristasVisibles);
+            verticesPintados += verticesVisibles.tamano();
+            aristasPintadas += aristasVisibles.tamano();
+            return;
+        }
+        ModeloGrafo modelo = grafo.getModelo();
+        verticesVisibles.limpia();
+        aristasVisibles.limpia();
+        for (int i = 0; i < grafo.getNumAristasResaltadas(); i++) {
+            int arista = grafo.getAristaResaltada(i);
+            if (modelo.existeArista(arista)) {
+                Arista.area(modelo, arista, areaElemento);
+                if (areaElemento.intersects(areaGrafo)) {
+                    aristasVisibles.agrega(arista);
+                }
+            }
+        }
+        for (int i = 0; i < grafo.getNumVerticesResaltados(); i++) {
+            int vertice = grafo.getVerticeResaltado(i);
+            if (modelo.existeVertice(vertice)) {
+                Vertice.area(modelo, vertice, areaElemento);
+                if (areaElemento.intersects(areaGrafo)) {
+                    verticesVisibles.agrega(vertice);
+                }
+            }
+        }
+        verticesPintados += verticesVisibles.tamano();
+        aristasPintadas += aristasVisibles.tamano();
+    }
+
+    /**
+     * Devuelve el grupo donde se acumulan las aristas del color dado, vaciándolo la primera vez que se usa en el
+     * pintado. Hay pocos colores distintos, así que basta una búsqueda lineal.
+     * @param color El color de la arista.
+     * @return El grupo de ese color.
+     */
+    private ListaEnteros grupoDe(Color color) {
+        for (int i = 0; i < numGrupos; i++) {
+            if (coloresGrupos[i].equals(color)) {
+                return grupos[i];
+            }
+        }
+        if (numGrupos == grupos.length) {
+            grupos = Arrays.copyOf(grupos, numGrupos * 2);
+            coloresGrupos = Arrays.copyOf(coloresGrupos, numGrupos * 2);
+        }
+        if (grupos[numGrupos] == null) {
+            grupos[numGrupos] = new ListaEnteros();
+        }
+        ListaEnteros grupo = grupos[numGrupos];
+        grupo.limpia();
+        coloresGrupos[numGrupos++] = color;
+        return grupo;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,346 @@
+import jdk.jfr.FlightRecorder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Modo por lotes sin interfaz gráfica: carga un grafo de un archivo o genera uno de prueba, le aplica un algoritmo
+ * desde los vértices dados y escribe los resultados en la salida estándar o en un archivo. Los tiempos de carga, de construcción de la
+ * adyacencia y de cada ejecución se informan en la salida de errores, así la salida estándar solo tiene resultados.
+ * Solo usa el modelo y los algoritmos, que no dependen de AWT ni de Swing, por lo que corre en servidores y
+ * contenedores sin pantalla y con grafos demasiado grandes para dibujarse.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class LineaComandos {
+    private static final String USO = """
+            Uso: java Main <archivo> <algoritmo> [vértices de origen...] [opciones]
+                 java Main -generar <tipo> <vértices> [algoritmo] [vértices de origen...] [opciones]
+            Algoritmos:
+              amplitud, bfs       orden de visita y padre de cada vértice
+              profundidad, dfs    orden de visita y padre de cada vértice
+              dijkstra            distancia y padre de cada vértice alcanzado, en orden de distancia
+              arbol, mst          aristas y peso del bosque de expansión mínima
+            Opciones:
+              -o <archivo>        escribe los resultados en el archivo en lugar de la salida estándar
+              -paralelo           usa los motores paralelos: amplitud por niveles, delta-stepping y Borůvka
+              -delta <n>          ancho de cubeta de delta-stepping, implica -paralelo
+              -generar <tipo> <n> genera un grafo de prueba de n vértices en lugar de leer un archivo; los tipos son
+                                  erdos-renyi (er), cuadricula (grid), barabasi-albert (ba), completo y camino
+              -parametro <p>      grado promedio (erdos-renyi), porcentaje de calles cortadas (cuadricula) o
+                                  aristas por vértice nuevo (barabasi-albert)
+              -semilla <s>        semilla del generador, 1 si no se da; la misma semilla da el mismo grafo
+              -guardar <archivo>  guarda el grafo leído o generado en el formato binario; así el algoritmo es opcional
+              -metricas           informa en la salida de errores los contadores de operaciones de cada ejecución
+            El archivo es un grafo binario (.grafo), DIMACS (.gr), GraphML (.graphml) o una lista de aristas
+            "origen destino peso". Sin vértices de origen los recorridos parten del primer vértice del archivo; sin
+            argumentos se abre la interfaz gráfica.
+            """;
+
+    private final ModeloGrafo modelo;
+    private final AdyacenciaCSR adyacencia;
+    private final boolean paralelo;
+    private final int delta;
+    private final boolean midiendo;
+    private final Writer salida;
+    // Tiempos de las ejecuciones en nanosegundos, para el resumen final.
+    private long tiempoTotal;
+    private long tiempoMinimo = Long.MAX_VALUE;
+    private long tiempoMaximo;
+    private int numEjecuciones;
+
+    private LineaComandos(ModeloGrafo modelo, boolean paralelo, int delta, boolean midiendo, Writer salida) {
+        this.modelo = modelo;
+        this.adyacencia = modelo.adyacencia();
+        this.paralelo = paralelo;
+        this.delta = delta;
+        this.midiendo = midiendo;
+        this.salida = salida;
+    }
+
+    /**
+     * Interpreta los argumentos y ejecuta el algoritmo pedido.
+     * @param args El archivo, el algoritmo, los vértices de origen y las opciones; ver USO.
+     * @return El código de salida: 0 si todo salió bien, 1 si hubo un error de lectura o escritura y 2 si los
+     * argumentos no son válidos.
+     */
+    public static int ejecuta(String[] args) {
+        Path archivo = null;
+        String algoritmo = null;
+        Path archivoSalida = null;
+        boolean paralelo = false;
+        int delta = 0;
+        boolean midiendo = false;
+        int tipoGenerado = -1;
+        int verticesGenerados = 0;
+        double parametro = Double.NaN;
+        long semilla = 1;
+        Path archivoGuardado = null;
+        List<String> origenes = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-o" -> archivoSalida = Path.of(siguiente(args, ++i));
+                    case "-paralelo" -> paralelo = true;
+                    case "-delta" -> {
+                        delta = Integer.parseInt(siguiente(args, ++i));
+                        paralelo = true;
+                    }
+                    case "-generar" -> {
+                        String tipo = siguiente(args, ++i);
+                        tipoGenerado = GeneradorGrafos.tipoDe(tipo);
+                        if (tipoGenerado == -1) {
+                            throw new IllegalArgumentException("Tipo de grafo desconocido: " + tipo);
+                        }
+                        verticesGenerados = Integer.parseInt(siguiente(args, ++i));
+                    }
+                    case "-parametro" -> parametro = Double.parseDouble(siguiente(args, ++i));
+                    case "-semilla" -> semilla = Long.parseLong(siguiente(args, ++i));
+                    case "-guardar" -> archivoGuardado = Path.of(siguiente(args, ++i));
+                    case "-metricas" -> midiendo = true;
+                    case "-h", "-ayuda", "--help" -> {
+                        System.out.print(USO);
+                        return 0;
+                    }
+                    default -> {
+                        if (archivo == null && tipoGenerado == -1) {
+                            archivo = Path.of(args[i]);
+                        } else if (algoritmo == null) {
+                            algoritmo = args[i].toLowerCase(Locale.ROOT);
+                        } else {
+                            origenes.add(args[i]);
+                        }
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return errorDeUso(e.getMessage());
+        }
+        if (archivo == null && tipoGenerado == -1) {
+            return errorDeUso("Falta el archivo");
+        }
+        if (algoritmo == null && archivoGuardado == null) {
+            return errorDeUso("Falta el algoritmo");
+        }
+        if (algoritmo != null && !List.of("amplitud", "bfs", "profundidad", "dfs", "dijkstra", "arbol", "mst").contains(algoritmo)) {
+            return errorDeUso("Algoritmo desconocido: " + algoritmo);
+        }
+
+        try {
+            long inicio = System.nanoTime();
+            ModeloGrafo modelo;
+            if (tipoGenerado != -1) {
+                try {
+                    modelo = GeneradorGrafos.genera(tipoGenerado, verticesGenerados, Double.isNaN(parametro)
+                            ? GeneradorGrafos.parametroPorOmision(tipoGenerado) : parametro, semilla);
+                } catch (IllegalArgumentException e) {
+                    return errorDeUso(e.getMessage());
+                }
+                informa("generación de " + GeneradorGrafos.NOMBRES[tipoGenerado] + " con semilla " + semilla + ": "
+                        + modelo.getNumVertices() + " vértices, " + modelo.getNumAristas() + " aristas",
+                        System.nanoTime() - inicio);
+            } else {
+                modelo = ArchivoGrafo.lee(archivo);
+                informa("carga de " + archivo + ": " + modelo.getNumVertices() + " vértices, "
+                        + modelo.getNumAristas() + " aristas", System.nanoTime() - inicio);
+            }
+            if (archivoGuardado != null) {
+                inicio = System.nanoTime();
+                ArchivoGrafo.escribeBinario(modelo, archivoGuardado);
+                informa("guardado en " + archivoGuardado, System.nanoTime() - inicio);
+                if (algoritmo == null) {
+                    return 0;
+                }
+            }
+            if (modelo.getNumVertices() == 0) {
+                System.err.println("El grafo no tiene vértices");
+                return 1;
+            }
+            int[] indices = new int[Math.max(origenes.size(), 1)];
+            for (int i = 0; i < origenes.size(); i++) {
+                indices[i] = modelo.buscaVertice(origenes.get(i));
+                if (indices[i] == -1) {
+                    return errorDeUso("No existe el vértice " + origenes.get(i));
+                }
+            }
+
+            Writer salida = archivoSalida != null
+                    ? Files.newBufferedWriter(archivoSalida, StandardCharsets.UTF_8)
+                    : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+            try {
+                inicio = System.nanoTime();
+                LineaComandos lote = new LineaComandos(modelo, paralelo, delta, midiendo, salida);
+                informa("adyacencia CSR", System.nanoTime() - inicio);
+                if (algoritmo.equals("arbol") || algoritmo.equals("mst")) {
+                    lote.arbolExpansionMinima();
+                } else {
+                    for (int origen : indices) {
+                        lote.recorre(algoritmo, origen);
+                    }
+                }
+                lote.informaResumen();
+            } finally {
+                if (archivoSalida != null) {
+                    salida.close();
+                } else {
+                    salida.flush();
+                }
+            }
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private void recorre(String algoritmo, int origen) throws IOException {
+        ControlEjecucion control = creaControl();
+        TrazaAlgoritmo traza = TrazaAlgoritmo.DESACTIVADA;
+        boolean esDijkstra = algoritmo.equals("dijkstra");
+        String nombre = switch (algoritmo) {
+            case "amplitud", "bfs" -> "amplitud";
+            case "profundidad", "dfs" -> "profundidad";
+            default -> "dijkstra";
+        };
+        long inicio = System.nanoTime();
+        EventoAlgoritmo evento = FlightRecorder.isInitialized() ? EventoAlgoritmo.inicia(nombre, adyacencia) : null;
+        ResultadoRecorrido resultado = switch (nombre) {
+            case "amplitud" -> paralelo
+                    ? AmplitudParalela.amplitud(adyacencia, origen, control)
+                    : Recorridos.amplitud(adyacencia, origen, control, traza);
+            case "profundidad" -> Recorridos.profundidad(adyacencia, origen, control, traza);
+            default -> paralelo
+                    ? DeltaStepping.caminoMasCorto(adyacencia, origen, delta, control)
+                    : Dijkstra.caminoMasCorto(adyacencia, origen, control, traza);
+        };
+        if (evento != null) {
+            evento.termina(resultado.getNumVertices(), resultado.getNumAristas());
+        }
+        long tiempo = cuenta(inicio);
+        MetricasAlgoritmo metricas = control.terminaMetricas(nombre);
+        informa(nombre + " desde " + modelo.getID(origen) + ": " + resultado.getNumVertices()
+                + " vértices alcanzados", tiempo);
+        informaMetricas(metricas);
+
+        salida.append("# ").append(nombre).append(" desde ").append(modelo.getID(origen)).append(": ")
+                .append(String.valueOf(resultado.getNumVertices())).append(" vértices alcanzados\n");
+        salida.append(esDijkstra ? "# vértice\tdistancia\tpadre\n" : "# vértice\tpadre\n");
+        // La arista i del resultado une al vértice i + 1 con su padre, que ya apareció antes en el orden.
+        long[] distancias = esDijkstra ? new long[adyacencia.getDimension()] : null;
+        for (int i = 0; i < resultado.getNumVertices(); i++) {
+            int vertice = resultado.getVertice(i);
+            int padre = -1;
+            if (i > 0) {
+                int arista = resultado.getArista(i - 1);
+                padre = adyacencia.origen(arista) == vertice ? adyacencia.destino(arista) : adyacencia.origen(arista);
+                if (esDijkstra) {
+                    distancias[vertice] = distancias[padre] + adyacencia.pesoDe(arista);
+                }
+            }
+            salida.append(modelo.getID(vertice)).append('\t');
+            if (esDijkstra) {
+                salida.append(String.valueOf(distancias[vertice])).append('\t');
+            }
+            salida.append(padre == -1 ? "-" : modelo.getID(padre)).append('\n');
+        }
+    }
+
+    private void arbolExpansionMinima() throws IOException {
+        ControlEjecucion control = creaControl();
+        long inicio = System.nanoTime();
+        EventoAlgoritmo evento = FlightRecorder.isInitialized()
+                ? EventoAlgoritmo.inicia(paralelo ? "borůvka" : "kruskal", adyacencia) : null;
+        int[] bosque = paralelo
+                ? BoruvkaParalelo.arbolExpansionMinima(adyacencia, control)
+                : Kruskal.arbolExpansionMinima(adyacencia, control, TrazaAlgoritmo.DESACTIVADA);
+        if (evento != null) {
+            evento.termina(0, bosque.length);
+        }
+        long tiempo = cuenta(inicio);
+        MetricasAlgoritmo metricas = control.terminaMetricas(paralelo ? "borůvka" : "kruskal");
+        long peso = 0;
+        for (int arista : bosque) {
+            peso += adyacencia.pesoDe(arista);
+        }
+        informa("árbol de expansión mínima: " + bosque.length + " aristas, peso " + peso, tiempo);
+        informaMetricas(metricas);
+
+        salida.append("# árbol de expansión mínima: ").append(String.valueOf(bosque.length)).append(" aristas, peso ")
+                .append(String.valueOf(peso)).append(", ")
+                .append(String.valueOf(modelo.getNumVertices() - bosque.length)).append(" componentes\n");
+        salida.append("# origen\tdestino\tpeso\n");
+        for (int arista : bosque) {
+            salida.append(modelo.getID(adyacencia.origen(arista))).append('\t')
+                    .append(modelo.getID(adyacencia.destino(arista))).append('\t')
+                    .append(String.valueOf(adyacencia.pesoDe(arista))).append('\n');
+        }
+    }
+
+    private ControlEjecucion creaControl() {
+        ControlEjecucion control = new ControlEjecucion();
+        if (midiendo) {
+            control.activaMetricas();
+        }
+        return control;
+    }
+
+    /**
+     * Escribe en la salida de errores las métricas de la ejecución, si se pidieron.
+     * @param metricas Las métricas, o null si no se midió.
+     */
+    private static void informaMetricas(MetricasAlgoritmo metricas) {
+        if (metricas != null) {
+            System.err.println(metricas);
+        }
+    }
+
+    /**
+     * @return El tiempo transcurrido desde el inicio, y lo suma a las estadísticas de las ejecuciones.
+     */
+    private long cuenta(long inicio) {
+        long tiempo = System.nanoTime() - inicio;
+        tiempoTotal += tiempo;
+        tiempoMinimo = Math.min(tiempoMinimo, tiempo);
+        tiempoMaximo = Math.max(tiempoMaximo, tiempo);
+        numEjecuciones++;
+        return tiempo;
+    }
+
+    private void informaResumen() {
+        if (numEjecuciones > 1) {
+            System.err.printf(Locale.ROOT, "%d ejecuciones: total %.3f ms, media %.3f ms, mínimo %.3f ms,"
+                            + " máximo %.3f ms%n", numEjecuciones, tiempoTotal / 1e6,
+                    tiempoTotal / 1e6 / numEjecuciones, tiempoMinimo / 1e6, tiempoMaximo / 1e6);
+        }
+    }
+
+    /**
+     * Escribe en la salida de errores lo que se hizo y cuánto tardó.
+     * @param descripcion Lo que se hizo.
+     * @param tiempo Lo que tardó, en nanosegundos.
+     */
+    private static void informa(String descripcion, long tiempo) {
+        System.err.printf(Locale.ROOT, "%s: %.3f ms%n", descripcion, tiempo / 1e6);
+    }
+
+    private static String siguiente(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Falta el valor de " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    private static int errorDeUso(String mensaje) {
+        System.err.println(mensaje);
+        System.err.print(USO);
+        return 2;
+    }
+}
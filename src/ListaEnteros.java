@@ -0,0 +1,78 @@
+import java.util.Arrays;
+
+/**
+ * Lista de enteros primitivos que crece según se necesita, evita los objetos Integer de ArrayList.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class ListaEnteros {
+    private int[] elementos;
+    private int tamano;
+
+    /**
+     * Crea una lista vacía con capacidad inicial para 16 elementos.
+     */
+    public ListaEnteros() {
+        this(16);
+    }
+
+    /**
+     * @param capacidad La capacidad inicial de la lista.
+     */
+    public ListaEnteros(int capacidad) {
+        elementos = new int[Math.max(capacidad, 1)];
+    }
+
+    /**
+     * @param elemento Agrega el elemento al final de la lista.
+     */
+    public void agrega(int elemento) {
+        if (tamano == elementos.length) {
+            elementos = Arrays.copyOf(elementos, elementos.length * 2);
+        }
+        elementos[tamano++] = elemento;
+    }
+
+    /**
+     * @param i La posición del elemento.
+     * @return El elemento en la posición dada.
+     */
+    public int obten(int i) {
+        return elementos[i];
+    }
+
+    /**
+     * @return El número de elementos de la lista.
+     */
+    public int tamano() {
+        return tamano;
+    }
+
+    /**
+     * @return true si la lista no tiene elementos, de lo contrario false.
+     */
+    public boolean estaVacia() {
+        return tamano == 0;
+    }
+
+    /**
+     * Vacía la lista sin liberar su capacidad.
+     */
+    public void limpia() {
+        tamano = 0;
+    }
+
+    /**
+     * Ordena los elementos de menor a mayor.
+     */
+    public void ordena() {
+        Arrays.sort(elementos, 0, tamano);
+    }
+
+    /**
+     * @return Una copia de los elementos de la lista.
+     */
+    public int[] aArreglo() {
+        return Arrays.copyOf(elementos, tamano);
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Bloque de vértices y aristas que un importador entrega de una vez para agregarlo al grafo.
+ * Las aristas se refieren a los vértices por su número de aparición en el archivo (0 el primero en aparecer, 1 el
+ * segundo, ...), no por su índice en el modelo: quien aplica el lote traduce esos números, así el importador no
+ * necesita tocar el modelo desde su hilo. El lote tiene capacidad fija, la memoria de una importación no crece con el
+ * tamaño del archivo.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class LoteGrafo {
+    /**
+     * Cuántos vértices y cuántas aristas caben en un lote.
+     */
+    public static final int CAPACIDAD = 1 << 16;
+
+    private final String[] ids = new String[CAPACIDAD];
+    private final int[] xs = new int[CAPACIDAD];
+    private final int[] ys = new int[CAPACIDAD];
+    private int numVertices;
+    private final int[] origenes = new int[CAPACIDAD];
+    private final int[] destinos = new int[CAPACIDAD];
+    private final int[] pesos = new int[CAPACIDAD];
+    private int numAristas;
+
+    /**
+     * Agrega un vértice nuevo, que recibe el siguiente número de aparición.
+     * @param ID El ID del vértice.
+     * @param x La coordenada x del centro del vértice.
+     * @param y La coordenada y del centro del vértice.
+     */
+    public void agregaVertice(String ID, int x, int y) {
+        ids[numVertices] = ID;
+        xs[numVertices] = x;
+        ys[numVertices++] = y;
+    }
+
+    /**
+     * Agrega una arista entre dos vértices ya agregados, en este lote o en uno anterior.
+     * @param origen El número de aparición del vértice de origen.
+     * @param destino El número de aparición del vértice de destino.
+     * @param peso El peso de la arista.
+     */
+    public void agregaArista(int origen, int destino, int peso) {
+        origenes[numAristas] = origen;
+        destinos[numAristas] = destino;
+        pesos[numAristas++] = peso;
+    }
+
+    /**
+     * @return true si ya no cabe otro vértice o ya no cabe otra arista.
+     */
+    public boolean estaLleno() {
+        return numVertices == CAPACIDAD || numAristas == CAPACIDAD;
+    }
+
+    /**
+     * @return true si el lote no tiene vértices ni aristas.
+     */
+    public boolean estaVacio() {
+        return numVertices == 0 && numAristas == 0;
+    }
+
+    /**
+     * @return El número de vértices del lote.
+     */
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    /**
+     * @param i La posición del vértice en el lote.
+     * @return El ID del vértice.
+     */
+    public String getID(int i) {
+        return ids[i];
+    }
+
+    /**
+     * @param i La posición del vértice en el lote.
+     * @return La coordenada x del vértice.
+     */
+    public int getX(int i) {
+        return xs[i];
+    }
+
+    /**
+     * @param i La posición del vértice en el lote.
+     * @return La coordenada y del vértice.
+     */
+    public int getY(int i) {
+        return ys[i];
+    }
+
+    /**
+     * @return El número de aristas del lote.
+     */
+    public int getNumAristas() {
+        return numAristas;
+    }
+
+    /**
+     * @param i La posición de la arista en el lote.
+     * @return El número de aparición del vértice de origen.
+     */
+    public int getOrigen(int i) {
+        return origenes[i];
+    }
+
+    /**
+     * @param i La posición de la arista en el lote.
+     * @return El número de aparición del vértice de destino.
+     */
+    public int getDestino(int i) {
+        return destinos[i];
+    }
+
+    /**
+     * @param i La posición de la arista en el lote.
+     * @return El peso de la arista.
+     */
+    public int getPeso(int i) {
+        return pesos[i];
+    }
+}
\ No newline at end of file
@@ -3,11 +3,20 @@ import com.formdev.flatlaf.intellijthemes.FlatDarkPurpleIJTheme;
 /**
  * Aplicación gráfica de escritorio hecha con Java Swing que permite visualizar grafos ponderados no dirigidos y
  * aplicar algoritmos como recorrido en amplitud, en profundidad, camino más corto con Dijkstra y árbol de expansión mínima
+ * Con argumentos corre sin interfaz gráfica sobre un grafo leído de un archivo, ver LineaComandos.
  * @author Luis-Rangel
  * @version 1.1
  */
 public class Main {
     public static void main(String[] args) {
+        if (args.length > 0) {
+            // Ninguna clase de AWT o Swing se carga en este camino, así funciona en servidores sin pantalla.
+            System.exit(LineaComandos.ejecuta(args));
+        }
+        iniciaInterfaz();
+    }
+
+    private static void iniciaInterfaz() {
         /*
          * ADVERTENCIA: Para visualizar el tema de color correctamente, es necesario
          * agregar los archivos de la carpeta "Look_and_Feel" ("flatlaf-3.1.1.jar" y "flatlaf-intellij-themes-3.1.1.jar")
@@ -1,7 +1,9 @@
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.File;
 
 /**
  * Clase principal que representa el marco de la aplicación "Visualizador de Grafos".
@@ -11,18 +13,19 @@ import java.awt.event.*;
  * @version 1.1
  */
 public class MainFrame extends JFrame {
+    private static final long serialVersionUID = 1L;
 
     /**
      * Panel principal de la aplicación.
-     * Este panel contiene los vértices y aristas del grafo.
+     * Este panel dibuja los vértices y aristas del grafo.
      */
-    private static final JPanel mainPanel = new JPanel();
+    private static final LienzoGrafo mainPanel = new LienzoGrafo();
 
     /**
      * Objeto de tipo Grafo utilizado para tener control y métricas de los vértices y aristas.
      * Se utiliza para realizar operaciones y obtener información sobre el estado actual del grafo.
      */
-    private static final Grafo GRAFO = new Grafo();
+    private static final Grafo GRAFO = new Grafo(mainPanel);
 
     /**
      * Etiqueta inferior que muestra información sobre el modo de la aplicación.
@@ -37,7 +40,17 @@ public class MainFrame extends JFrame {
     private static String modo = "Agregar Vértice/Arista";
 
     /**
-     * @return El panel principal de la aplicación, este panel contiene elementos hijos como Vértices y Aristas.
+     * Selector de archivos para abrir y guardar grafos, recuerda la última carpeta usada.
+     */
+    private static final JFileChooser selectorArchivos = new JFileChooser();
+
+    /**
+     * Selector de archivos de texto para importar: listas de aristas, DIMACS y GraphML.
+     */
+    private static final JFileChooser selectorImportacion = new JFileChooser();
+
+    /**
+     * @return El panel principal de la aplicación, este panel dibuja los Vértices y Aristas.
      */
     public static JPanel getMainPanel() {
         return mainPanel;
@@ -57,6 +70,15 @@ public class MainFrame extends JFrame {
         return infoLabel;
     }
 
+    /**
+     * Muestra en el infoLabel el resultado de un algoritmo, precedido por sus métricas si se midió.
+     * @param resultado La descripción del resultado.
+     */
+    public static void muestraResultado(String resultado) {
+        MetricasAlgoritmo metricas = GRAFO.getUltimasMetricas();
+        infoLabel.setText(metricas != null ? metricas + " | " + resultado : resultado);
+    }
+
     /**
      * @return El objeto Grafo que representa el estado actual del el grafo de la aplicación.
      */
@@ -78,13 +100,9 @@ public class MainFrame extends JFrame {
         setLocationRelativeTo(null);
 
         mainPanel.setName("Grafo");
-        mainPanel.setLayout(null);
-        mainPanel.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseClicked(MouseEvent e) {
-                leeClick(e);
-            }
-        });
+        mainPanel.setGrafo(GRAFO);
+        // Los clicks sobre vértices y aristas los atiende el lienzo, aquí solo llegan los del espacio vacío:
+        mainPanel.setAlClickVacio(MainFrame::leeClick);
         add(mainPanel);
 
         infoLabel = new JLabel("Click en espacio vacío para añadir vértice o en vértice para añadir arista");
@@ -94,6 +112,7 @@ public class MainFrame extends JFrame {
 
         infoLabel.setFont(infoLabel.getFont().deriveFont(14.8f));
         add(infoLabel, BorderLayout.SOUTH);
+        GRAFO.getEjecutor().setEtiquetaProgreso(infoLabel);
 
         setJMenuBar(creaMenuBar());
         setVisible(true);
@@ -110,12 +129,44 @@ public class MainFrame extends JFrame {
         modoLabel.setName("ModoLabel");
         //-------------------------------------------------------------------------------
         JMenu fileMenu = new JMenu("Archivo");
+        selectorArchivos.setFileFilter(new FileNameExtensionFilter(
+                "Grafos (*." + ArchivoGrafo.EXTENSION + ")", ArchivoGrafo.EXTENSION));
+
+        JMenuItem abrirItem = new JMenuItem("Abrir...");
+        abrirItem.setName("Abrir");
+        abrirItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_O, InputEvent.CTRL_DOWN_MASK));
+        abrirItem.addActionListener(e -> abreArchivo());
+        fileMenu.add(abrirItem);
+
+        selectorImportacion.setFileFilter(new FileNameExtensionFilter(
+                "Listas de aristas, DIMACS y GraphML", "csv", "tsv", "txt", "gr", "dimacs", "graphml", "xml"));
+        JMenuItem importarItem = new JMenuItem("Importar...");
+        importarItem.setName("Importar");
+        importarItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_I, InputEvent.CTRL_DOWN_MASK));
+        importarItem.addActionListener(e -> importaArchivo());
+        fileMenu.add(importarItem);
+
+        JMenu generarMenu = new JMenu("Generar");
+        for (int tipo = 0; tipo < GeneradorGrafos.NOMBRES.length; tipo++) {
+            int tipoItem = tipo;
+            JMenuItem generarItem = new JMenuItem(GeneradorGrafos.TITULOS[tipo] + "...");
+            generarItem.setName(GeneradorGrafos.NOMBRES[tipo]);
+            generarItem.addActionListener(e -> generaGrafo(tipoItem));
+            generarMenu.add(generarItem);
+        }
+        fileMenu.add(generarMenu);
+
+        JMenuItem guardarItem = new JMenuItem("Guardar...");
+        guardarItem.setName("Guardar");
+        guardarItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_S, InputEvent.CTRL_DOWN_MASK));
+        guardarItem.addActionListener(e -> guardaArchivo());
+        fileMenu.add(guardarItem);
 
         JMenuItem limpiarItem = new JMenuItem("Limpiar");
         limpiarItem.setName("Limpiar");
         limpiarItem.addActionListener(e -> {
+            GRAFO.cancelaAlgoritmo();
             GRAFO.clear();
-            mainPanel.removeAll();
             mainPanel.revalidate();
             mainPanel.repaint();
         });
@@ -134,6 +185,7 @@ public class MainFrame extends JFrame {
         agregarItem.addActionListener(e -> {
             modo = "Agregar Vértice/Arista";
             modoLabel.setText(modo);
+            GRAFO.cancelaAlgoritmo();
             infoLabel.setText("Click en espacio vacío para añadir vértice o en vértice para añadir arista");
             GRAFO.descoloreaGrafo();
         });
@@ -144,6 +196,7 @@ public class MainFrame extends JFrame {
         eliminarItem.addActionListener(e -> {
             modo = "Eliminar Vértice/Arista";
             modoLabel.setText(modo);
+            GRAFO.cancelaAlgoritmo();
             infoLabel.setText("Click en el elemento que quieras eliminar");
             GRAFO.descoloreaGrafo();
         });
@@ -154,6 +207,7 @@ public class MainFrame extends JFrame {
         ningunoItem.addActionListener(e -> {
             modo = "Ninguno";
             modoLabel.setText(modo);
+            GRAFO.cancelaAlgoritmo();
             infoLabel.setText("Ningún modo seleccionado");
         });
         modoMenu.add(ningunoItem);
@@ -166,8 +220,8 @@ public class MainFrame extends JFrame {
         amplitudItem.addActionListener(e -> {
             modo = "Recorrido en Amplitud";
             modoLabel.setText(modo);
+            GRAFO.cancelaAlgoritmo();
             infoLabel.setText("Seleccione un vértice como punto de partida");
-            GRAFO.crearMatrizAdyacencia();
             GRAFO.descoloreaGrafo();
         });
         algoritmosMenu.add(amplitudItem);
@@ -177,8 +231,8 @@ public class MainFrame extends JFrame {
         profundidadItem.addActionListener(e -> {
             modo = "Recorrido en Profundidad";
             modoLabel.setText(modo);
+            GRAFO.cancelaAlgoritmo();
             infoLabel.setText("Seleccione un vértice como punto de partida");
-            GRAFO.crearMatrizAdyacencia();
             GRAFO.descoloreaGrafo();
         });
         algoritmosMenu.add(profundidadItem);
@@ -188,8 +242,8 @@ public class MainFrame extends JFrame {
         dijkstraItem.addActionListener(e -> {
             modo = "Algoritmo de Dijkstra";
             modoLabel.setText(modo);
+            GRAFO.cancelaAlgoritmo();
             infoLabel.setText("Seleccione un vértice como punto de partida");
-            GRAFO.crearMatrizAdyacencia();
             GRAFO.descoloreaGrafo();
         });
         algoritmosMenu.add(dijkstraItem);
@@ -199,13 +253,93 @@ public class MainFrame extends JFrame {
         arbolItem.addActionListener(e -> {
             modo = "Árbol de expansión mínima";
             modoLabel.setText(modo);
+            GRAFO.cancelaAlgoritmo();
             infoLabel.setText("Seleccione un vértice arbitrario");
             GRAFO.descoloreaGrafo();
         });
         algoritmosMenu.add(arbolItem);
 
+        algoritmosMenu.addSeparator();
+        JCheckBoxMenuItem medirItem = new JCheckBoxMenuItem("Medir algoritmos", GRAFO.isMidiendo());
+        medirItem.setName("Medir algoritmos");
+        medirItem.addActionListener(e -> GRAFO.setMidiendo(medirItem.isSelected()));
+        algoritmosMenu.add(medirItem);
+
         menuBar.add(algoritmosMenu);
         //-------------------------------------------------------------------------------
+        JMenu animacionMenu = new JMenu("Animación");
+        AnimacionGrafo animacion = GRAFO.getAnimacion();
+
+        JMenuItem pausarItem = new JMenuItem("Pausar/Reanudar");
+        pausarItem.setName("Pausar/Reanudar");
+        pausarItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_P, InputEvent.CTRL_DOWN_MASK));
+        pausarItem.addActionListener(e -> {
+            if (animacion.isPausada()) {
+                animacion.reanuda();
+            } else {
+                animacion.pausa();
+            }
+        });
+        animacionMenu.add(pausarItem);
+
+        JMenuItem pasoItem = new JMenuItem("Siguiente paso");
+        pasoItem.setName("Siguiente paso");
+        pasoItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_RIGHT, InputEvent.CTRL_DOWN_MASK));
+        pasoItem.addActionListener(e -> animacion.paso());
+        animacionMenu.add(pasoItem);
+
+        JMenuItem anteriorItem = new JMenuItem("Paso anterior");
+        anteriorItem.setName("Paso anterior");
+        anteriorItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_LEFT, InputEvent.CTRL_DOWN_MASK));
+        anteriorItem.addActionListener(e -> animacion.retrocede());
+        animacionMenu.add(anteriorItem);
+
+        JMenuItem finalItem = new JMenuItem("Saltar al final");
+        finalItem.setName("Saltar al final");
+        finalItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_END, InputEvent.CTRL_DOWN_MASK));
+        finalItem.addActionListener(e -> animacion.saltaAlFinal());
+        animacionMenu.add(finalItem);
+
+        // A velocidad x1 cada cambio de color dura medio segundo; las más altas aplican varios cambios por cuadro.
+        JMenu velocidadMenu = new JMenu("Velocidad");
+        ButtonGroup velocidades = new ButtonGroup();
+        for (int velocidad : new int[]{1, 10, 100, 1000}) {
+            JRadioButtonMenuItem velocidadItem = new JRadioButtonMenuItem("x" + velocidad, velocidad == 1);
+            velocidadItem.setName("x" + velocidad);
+            velocidadItem.addActionListener(e -> animacion.setVelocidad(velocidad));
+            velocidades.add(velocidadItem);
+            velocidadMenu.add(velocidadItem);
+        }
+        animacionMenu.add(velocidadMenu);
+
+        menuBar.add(animacionMenu);
+        //-------------------------------------------------------------------------------
+        JMenu vistaMenu = new JMenu("Vista");
+
+        JMenuItem acercarItem = new JMenuItem("Acercar");
+        acercarItem.setName("Acercar");
+        acercarItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_PLUS, InputEvent.CTRL_DOWN_MASK));
+        acercarItem.addActionListener(e -> mainPanel.acerca());
+        vistaMenu.add(acercarItem);
+
+        JMenuItem alejarItem = new JMenuItem("Alejar");
+        alejarItem.setName("Alejar");
+        alejarItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_MINUS, InputEvent.CTRL_DOWN_MASK));
+        alejarItem.addActionListener(e -> mainPanel.aleja());
+        vistaMenu.add(alejarItem);
+
+        JMenuItem ajustarItem = new JMenuItem("Ajustar al grafo");
+        ajustarItem.setName("Ajustar al grafo");
+        ajustarItem.addActionListener(e -> mainPanel.ajustaVista());
+        vistaMenu.add(ajustarItem);
+
+        JMenuItem originalItem = new JMenuItem("Tamaño original");
+        originalItem.setName("Tamaño original");
+        originalItem.addActionListener(e -> mainPanel.restableceVista());
+        vistaMenu.add(originalItem);
+
+        menuBar.add(vistaMenu);
+        //-------------------------------------------------------------------------------
         JPanel panelDerecho = new JPanel();
         panelDerecho.setLayout(new FlowLayout(FlowLayout.RIGHT));
         panelDerecho.setOpaque(false);
@@ -217,19 +351,117 @@ public class MainFrame extends JFrame {
         return menuBar;
     }
 
+    /**
+     * Pide un archivo y lo abre en segundo plano; al terminar ajusta la vista para mostrar todo el grafo.
+     */
+    private void abreArchivo() {
+        if (selectorArchivos.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File archivo = selectorArchivos.getSelectedFile();
+        GRAFO.abre(archivo.toPath(), () -> {
+            mainPanel.ajustaVista();
+            infoLabel.setText("Se abrió " + archivo.getName() + ": " + GRAFO.getModelo().getNumVertices()
+                    + " vértices y " + GRAFO.getModelo().getNumAristas() + " aristas");
+        });
+    }
+
+    /**
+     * Pide un archivo de texto y lo importa en segundo plano en lugar del grafo actual; la vista se ajusta mientras
+     * el grafo aparece.
+     */
+    private void importaArchivo() {
+        if (selectorImportacion.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File archivo = selectorImportacion.getSelectedFile();
+        GRAFO.importa(archivo.toPath(), mainPanel::ajustaVista, () -> {
+            mainPanel.ajustaVista();
+            infoLabel.setText("Se importó " + archivo.getName() + ": " + GRAFO.getModelo().getNumVertices()
+                    + " vértices y " + GRAFO.getModelo().getNumAristas() + " aristas");
+        });
+    }
+
+    /**
+     * Pide el número de vértices, el parámetro y la semilla, y genera en segundo plano un grafo de prueba en lugar
+     * del actual; la vista se ajusta mientras el grafo aparece.
+     * @param tipo El tipo de grafo, una constante de GeneradorGrafos.
+     */
+    private void generaGrafo(int tipo) {
+        JTextField verticesCampo = new JTextField(tipo == GeneradorGrafos.COMPLETO ? "1000" : "100000", 10);
+        JTextField parametroCampo = new JTextField(
+                String.valueOf((int) GeneradorGrafos.parametroPorOmision(tipo)), 10);
+        JTextField semillaCampo = new JTextField("1", 10);
+        String descripcion = GeneradorGrafos.descripcionParametro(tipo);
+        JPanel campos = new JPanel(new GridLayout(0, 2, 8, 4));
+        campos.add(new JLabel("Vértices:"));
+        campos.add(verticesCampo);
+        if (descripcion != null) {
+            campos.add(new JLabel(descripcion + ":"));
+            campos.add(parametroCampo);
+        }
+        campos.add(new JLabel("Semilla:"));
+        campos.add(semillaCampo);
+        if (JOptionPane.showConfirmDialog(this, campos, "Generar " + GeneradorGrafos.TITULOS[tipo],
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+        try {
+            int vertices = Integer.parseInt(verticesCampo.getText().trim());
+            double parametro = descripcion != null ? Double.parseDouble(parametroCampo.getText().trim()) : 0;
+            long semilla = Long.parseLong(semillaCampo.getText().trim());
+            GRAFO.genera(tipo, vertices, parametro, semilla, mainPanel::ajustaVista, () -> {
+                mainPanel.ajustaVista();
+                infoLabel.setText("Se generó " + GeneradorGrafos.TITULOS[tipo] + " con semilla " + semilla + ": "
+                        + GRAFO.getModelo().getNumVertices() + " vértices y " + GRAFO.getModelo().getNumAristas()
+                        + " aristas");
+            });
+        } catch (IllegalArgumentException error) {
+            // NumberFormatException también es IllegalArgumentException.
+            JOptionPane.showMessageDialog(this, error instanceof NumberFormatException
+                            ? "Los valores deben ser números" : error.getMessage(),
+                    "Valores inválidos", JOptionPane.WARNING_MESSAGE);
+        }
+    }
+
+    /**
+     * Pide un archivo y guarda el grafo en segundo plano en el formato binario, agregando la extensión si falta.
+     */
+    private void guardaArchivo() {
+        if (selectorArchivos.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File archivo = selectorArchivos.getSelectedFile();
+        if (!archivo.getName().toLowerCase().endsWith("." + ArchivoGrafo.EXTENSION)) {
+            archivo = new File(archivo.getPath() + "." + ArchivoGrafo.EXTENSION);
+        }
+        if (archivo.exists() && JOptionPane.showConfirmDialog(this, "El archivo " + archivo.getName()
+                + " ya existe. ¿Desea reemplazarlo?", "Guardar", JOptionPane.YES_NO_OPTION)
+                != JOptionPane.YES_OPTION) {
+            return;
+        }
+        String nombre = archivo.getName();
+        GRAFO.guarda(archivo.toPath(), error -> {
+            if (error == null) {
+                infoLabel.setText("Grafo guardado en " + nombre);
+            } else {
+                JOptionPane.showMessageDialog(this, "No se pudo guardar el grafo: " + error.getMessage(),
+                        "Error al guardar", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+
     /**
      * Método para manejar el evento de click del mouse en el panel principal.
      * Se evalúa el input del usuario y manda mensajes de error en caso de una entrada incorrecta.
-     * Este método solo evalúa clicks en el panel principal, pero no en Vértices o Aristas, pues estos tienen sus propios eventos.
-     * @param e El evento de click del mouse en el panel principal de la aplicación.
+     * Este método solo evalúa clicks en el espacio vacío del panel, los clicks en Vértices o Aristas los reparte el lienzo.
+     * @param punto El punto del click en coordenadas del grafo, que no coinciden con las del panel si se movió la vista.
      */
-    private static void leeClick(MouseEvent e) {
-        Point click = SwingUtilities.convertPoint(e.getComponent(), e.getPoint(), mainPanel);
-        Component component = mainPanel.getComponentAt(click);
+    private static void leeClick(Point punto) {
         String ID = "";
         switch (modo) {
             case "Agregar Vértice/Arista" -> {
-                if (!(component instanceof Vertice) && Vertice.getvOrigen() == null) {
+                if (Vertice.getvOrigen() == -1) {
                     ID = (String) JOptionPane.showInputDialog(
                             mainPanel,
                             "Ingrese el nombre:",
@@ -255,14 +487,7 @@ public class MainFrame extends JFrame {
                                 JOptionPane.WARNING_MESSAGE
                         );
                     } else {
-                        Vertice vertice = GRAFO.creaVertice(ID, e.getX(), e.getY());
-                        if (vertice != null) {
-                            mainPanel.add(vertice);
-                            mainPanel.setComponentZOrder(vertice, 0);
-                            mainPanel.revalidate();
-                            mainPanel.repaint();
-                        }
-                        else {
+                        if (GRAFO.creaVertice(ID, punto.x, punto.y) == -1) {
                             JOptionPane.showMessageDialog(
                                     mainPanel,
                                     "El vértice ya existe en el grafo",
@@ -280,13 +505,8 @@ public class MainFrame extends JFrame {
                         "Confirma eliminación", JOptionPane.YES_NO_OPTION
                 );
                 if (opcion == JOptionPane.YES_OPTION) {
-                    for (Arista arista : GRAFO.aristasInnecesarias()) {
-                        arista.getOrigen().desconectaArista(arista);
-                        arista.getDestino().desconectaArista(arista);
+                    for (int arista : GRAFO.aristasInnecesarias()) {
                         GRAFO.eliminaArista(arista);
-                        mainPanel.remove(arista.getPesoLabel());
-                        mainPanel.remove(arista);
-                        mainPanel.revalidate();
                     }
                     mainPanel.repaint();
                     mainPanel.revalidate();
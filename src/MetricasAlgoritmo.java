@@ -0,0 +1,139 @@
+import java.util.Locale;
+
+/**
+ * Métricas de una ejecución de un algoritmo: el tiempo que tardó y cuántas operaciones básicas hizo.
+ * Los algoritmos cuentan en variables locales y publican los totales una sola vez al terminar a través de su
+ * ControlEjecucion, así medir no agrega trabajo a los ciclos internos; los contadores que no aplican a un algoritmo,
+ * como las relajaciones de un recorrido, quedan en 0. Los objetos son inmutables y se pueden leer desde cualquier hilo.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public final class MetricasAlgoritmo {
+    /**
+     * Vértices cuya visita o distancia quedó fija.
+     */
+    public static final int VERTICES_ASENTADOS = 0;
+    /**
+     * Aristas revisadas desde algún vértice; en los algoritmos que recorren la lista de aristas, cada una revisada.
+     */
+    public static final int ARISTAS_REVISADAS = 1;
+    /**
+     * Aristas que mejoraron la distancia tentativa de su destino.
+     */
+    public static final int RELAJACIONES = 2;
+    /**
+     * Vértices insertados en el montículo, sin contar las disminuciones de llave.
+     */
+    public static final int INSERCIONES_MONTICULO = 3;
+    /**
+     * Vértices extraídos del montículo.
+     */
+    public static final int EXTRACCIONES_MONTICULO = 4;
+    /**
+     * Búsquedas y uniones hechas sobre la estructura de conjuntos disjuntos.
+     */
+    public static final int OPERACIONES_UNION_FIND = 5;
+    /**
+     * Número de contadores.
+     */
+    public static final int NUM_CONTADORES = 6;
+    /**
+     * Nombre de cada contador, en el orden de sus constantes.
+     */
+    public static final String[] NOMBRES = {"vértices asentados", "aristas revisadas", "relajaciones",
+            "inserciones en el montículo", "extracciones del montículo", "operaciones union-find"};
+
+    private final String algoritmo;
+    private final long tiempo;
+    private final long[] contadores;
+
+    /**
+     * @param algoritmo El nombre del algoritmo.
+     * @param tiempo El tiempo que tardó, en nanosegundos.
+     * @param contadores Los contadores en el orden de sus constantes, se copian.
+     */
+    public MetricasAlgoritmo(String algoritmo, long tiempo, long[] contadores) {
+        this.algoritmo = algoritmo;
+        this.tiempo = tiempo;
+        this.contadores = contadores.clone();
+    }
+
+    /**
+     * @return El nombre del algoritmo.
+     */
+    public String getAlgoritmo() {
+        return algoritmo;
+    }
+
+    /**
+     * @return El tiempo que tardó el algoritmo, en nanosegundos.
+     */
+    public long getTiempo() {
+        return tiempo;
+    }
+
+    /**
+     * @param contador Una de las constantes de esta clase, como ARISTAS_REVISADAS.
+     * @return El valor del contador.
+     */
+    public long getContador(int contador) {
+        return contadores[contador];
+    }
+
+    /**
+     * @return El número de vértices cuya visita o distancia quedó fija.
+     */
+    public long getVerticesAsentados() {
+        return contadores[VERTICES_ASENTADOS];
+    }
+
+    /**
+     * @return El número de aristas revisadas.
+     */
+    public long getAristasRevisadas() {
+        return contadores[ARISTAS_REVISADAS];
+    }
+
+    /**
+     * @return El número de aristas que mejoraron una distancia.
+     */
+    public long getRelajaciones() {
+        return contadores[RELAJACIONES];
+    }
+
+    /**
+     * @return El número de inserciones en el montículo.
+     */
+    public long getInsercionesMonticulo() {
+        return contadores[INSERCIONES_MONTICULO];
+    }
+
+    /**
+     * @return El número de extracciones del montículo.
+     */
+    public long getExtraccionesMonticulo() {
+        return contadores[EXTRACCIONES_MONTICULO];
+    }
+
+    /**
+     * @return El número de búsquedas y uniones del union-find.
+     */
+    public long getOperacionesUnionFind() {
+        return contadores[OPERACIONES_UNION_FIND];
+    }
+
+    /**
+     * @return Un resumen de una línea con el tiempo y los contadores distintos de 0.
+     */
+    @Override
+    public String toString() {
+        StringBuilder resumen = new StringBuilder(algoritmo)
+                .append(String.format(Locale.ROOT, ": %.3f ms", tiempo / 1e6));
+        for (int i = 0; i < NUM_CONTADORES; i++) {
+            if (contadores[i] != 0) {
+                resumen.append(String.format(", %,d ", contadores[i])).append(NOMBRES[i]);
+            }
+        }
+        return resumen.toString();
+    }
+}
@@ -0,0 +1,629 @@
+import jdk.jfr.FlightRecorder;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Modelo de datos del grafo, independiente de Swing.
+ * Los vértices y las aristas se identifican con un índice entero y sus datos se guardan en arreglos primitivos:
+ * ID y coordenadas de cada vértice; origen, destino y peso de cada arista. Al eliminar un elemento su posición queda
+ * libre (ID null u origen -1) para que los índices de los demás no cambien y el orden de inserción se conserve.
+ * El modelo también mantiene la representación CSR que usan los algoritmos, que solo se reconstruye cuando cambia la
+ * versión de la estructura, y listas de incidencia que se actualizan con cada cambio para que eliminar un vértice o
+ * arrastrarlo cueste su grado y no una reconstrucción de la adyacencia.
+ * Un grafo completo, por ejemplo leído de un archivo, se entrega de una vez con cargaArreglos(); en ese caso las
+ * tablas para buscar vértices por ID y aristas por sus extremos se construyen hasta que se necesitan.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class ModeloGrafo {
+    private String[] ids = new String[16];
+    private int[] xs = new int[16];
+    private int[] ys = new int[16];
+    private int numRanurasVertices;
+    private int numVertices;
+
+    private int[] origenes = new int[16];
+    private int[] destinos = new int[16];
+    private int[] pesos = new int[16];
+    private int numRanurasAristas;
+    private int numAristas;
+
+    private final TablaIDs verticesPorID = new TablaIDs();
+    private final TablaPares aristasPorExtremos = new TablaPares();
+    // true si las tablas no corresponden a los arreglos porque el modelo se cargó de una vez.
+    private boolean tablasPendientes;
+
+    // Se incrementa con cada cambio en la estructura, la adyacencia solo se reconstruye si quedó desactualizada.
+    private long version;
+    private long versionAdyacencia = -1;
+    private AdyacenciaCSR adyacencia;
+
+    // Listas de incidencia doblemente ligadas. El lado 2 * arista es la arista vista desde su origen y el lado
+    // 2 * arista + 1 vista desde su destino; primerLado es -1 para los vértices sin aristas. Se arman la primera vez
+    // que se necesitan, así cargar o importar un grafo grande no las paga, y desde entonces se mantienen al día.
+    private int[] primerLado;
+    private int[] siguienteLado;
+    private int[] anteriorLado;
+    private boolean incidenciasPendientes = true;
+
+    /**
+     * Agrega un vértice al final del modelo.
+     * @param ID El ID del vértice.
+     * @param x La coordenada x del centro del vértice.
+     * @param y La coordenada y del centro del vértice.
+     * @return El índice del vértice, o -1 si ya existe un vértice con el mismo ID.
+     */
+    public int agregaVertice(String ID, int x, int y) {
+        construyeTablas();
+        if (verticesPorID.obten(ID) != -1) {
+            return -1;
+        }
+        if (numRanurasVertices == ids.length) {
+            int capacidad = Math.max(ids.length * 2, 16);
+            ids = Arrays.copyOf(ids, capacidad);
+            xs = Arrays.copyOf(xs, capacidad);
+            ys = Arrays.copyOf(ys, capacidad);
+        }
+        int vertice = numRanurasVertices++;
+        ids[vertice] = ID;
+        xs[vertice] = x;
+        ys[vertice] = y;
+        verticesPorID.pon(ID, vertice);
+        numVertices++;
+        version++;
+        return vertice;
+    }
+
+    /**
+     * Elimina el vértice y todas las aristas conectadas a él.
+     * @param vertice El índice del vértice.
+     */
+    public void eliminaVertice(int vertice) {
+        if (!existeVertice(vertice)) {
+            return;
+        }
+        construyeTablas();
+        for (int arista : aristasIncidentes(vertice)) {
+            eliminaArista(arista);
+        }
+        verticesPorID.elimina(ids[vertice]);
+        ids[vertice] = null;
+        numVertices--;
+        version++;
+    }
+
+    /**
+     * Agrega una arista entre dos vértices.
+     * @param origen El índice del vértice de origen.
+     * @param destino El índice del vértice de destino.
+     * @param peso El peso de la arista.
+     * @return El índice de la arista, o -1 si algún vértice no existe, son el mismo o ya estaban conectados.
+     */
+    public int agregaArista(int origen, int destino, int peso) {
+        construyeTablas();
+        if (!existeVertice(origen) || !existeVertice(destino) || origen == destino
+                || aristasPorExtremos.obten(origen, destino) != -1) {
+            return -1;
+        }
+        if (numRanurasAristas == origenes.length) {
+            int capacidad = Math.max(origenes.length * 2, 16);
+            origenes = Arrays.copyOf(origenes, capacidad);
+            destinos = Arrays.copyOf(destinos, capacidad);
+            pesos = Arrays.copyOf(pesos, capacidad);
+        }
+        int arista = numRanurasAristas++;
+        origenes[arista] = origen;
+        destinos[arista] = destino;
+        pesos[arista] = peso;
+        aristasPorExtremos.pon(origen, destino, arista);
+        if (!incidenciasPendientes) {
+            reservaIncidencias();
+            enlaza(2 * arista, origen);
+            enlaza(2 * arista + 1, destino);
+        }
+        numAristas++;
+        version++;
+        return arista;
+    }
+
+    /**
+     * @param arista Elimina la arista con el índice dado.
+     */
+    public void eliminaArista(int arista) {
+        if (!existeArista(arista)) {
+            return;
+        }
+        construyeTablas();
+        aristasPorExtremos.elimina(origenes[arista], destinos[arista]);
+        if (!incidenciasPendientes) {
+            desenlaza(2 * arista, origenes[arista]);
+            desenlaza(2 * arista + 1, destinos[arista]);
+        }
+        origenes[arista] = -1;
+        destinos[arista] = -1;
+        numAristas--;
+        version++;
+    }
+
+    /**
+     * Elimina todos los vértices y aristas.
+     */
+    public void limpia() {
+        ids = new String[16];
+        xs = new int[16];
+        ys = new int[16];
+        origenes = new int[16];
+        destinos = new int[16];
+        pesos = new int[16];
+        numRanurasVertices = 0;
+        numVertices = 0;
+        numRanurasAristas = 0;
+        numAristas = 0;
+        verticesPorID.limpia();
+        aristasPorExtremos.limpia();
+        tablasPendientes = false;
+        adyacencia = null;
+        descartaIncidencias();
+        version++;
+    }
+
+    /**
+     * Agrega de una vez los vértices y aristas de un lote. Los arreglos y las tablas crecen una sola vez para todo el
+     * lote en lugar de ir duplicándose, por lo demás cada elemento se agrega igual que con agregaVertice() y
+     * agregaArista(): si ya existía un vértice con el mismo ID se usa ese, y los lazos, las aristas repetidas y las
+     * que tocan un vértice eliminado se descartan.
+     * @param lote El lote a agregar.
+     * @param indices El índice en el modelo de cada número de aparición de los lotes anteriores; se le agregan los de
+     * los vértices de este lote.
+     * @return El número de aristas agregadas.
+     */
+    public int agregaLote(LoteGrafo lote, ListaEnteros indices) {
+        construyeTablas();
+        int capacidadVertices = numRanurasVertices + lote.getNumVertices();
+        if (capacidadVertices > ids.length) {
+            int capacidad = Math.max(ids.length * 2, capacidadVertices);
+            ids = Arrays.copyOf(ids, capacidad);
+            xs = Arrays.copyOf(xs, capacidad);
+            ys = Arrays.copyOf(ys, capacidad);
+        }
+        int capacidadAristas = numRanurasAristas + lote.getNumAristas();
+        if (capacidadAristas > origenes.length) {
+            int capacidad = Math.max(origenes.length * 2, capacidadAristas);
+            origenes = Arrays.copyOf(origenes, capacidad);
+            destinos = Arrays.copyOf(destinos, capacidad);
+            pesos = Arrays.copyOf(pesos, capacidad);
+        }
+        verticesPorID.reserva(numVertices + lote.getNumVertices());
+        aristasPorExtremos.reserva(numAristas + lote.getNumAristas());
+
+        for (int i = 0; i < lote.getNumVertices(); i++) {
+            int vertice = agregaVertice(lote.getID(i), lote.getX(i), lote.getY(i));
+            indices.agrega(vertice != -1 ? vertice : buscaVertice(lote.getID(i)));
+        }
+        int agregadas = 0;
+        for (int i = 0; i < lote.getNumAristas(); i++) {
+            if (agregaArista(indices.obten(lote.getOrigen(i)), indices.obten(lote.getDestino(i)),
+                    lote.getPeso(i)) != -1) {
+                agregadas++;
+            }
+        }
+        return agregadas;
+    }
+
+    /**
+     * Reemplaza el contenido del modelo por arreglos ya armados, sin copiarlos ni revisarlos, para cargar un grafo
+     * grande sin agregar sus elementos uno por uno. Los arreglos pasan a ser del modelo y no deben tener posiciones
+     * libres, IDs repetidos, lazos ni aristas repetidas.
+     * @param ids El ID de cada vértice.
+     * @param xs La coordenada x de cada vértice.
+     * @param ys La coordenada y de cada vértice.
+     * @param numVertices El número de vértices a tomar de los arreglos.
+     * @param origenes El índice del vértice de origen de cada arista.
+     * @param destinos El índice del vértice de destino de cada arista.
+     * @param pesos El peso de cada arista.
+     * @param numAristas El número de aristas a tomar de los arreglos.
+     * @param adyacencia La representación CSR de esas aristas con los mismos índices, o null para construirla
+     * cuando se necesite.
+     */
+    public void cargaArreglos(String[] ids, int[] xs, int[] ys, int numVertices,
+                              int[] origenes, int[] destinos, int[] pesos, int numAristas, AdyacenciaCSR adyacencia) {
+        this.ids = ids;
+        this.xs = xs;
+        this.ys = ys;
+        this.numRanurasVertices = numVertices;
+        this.numVertices = numVertices;
+        this.origenes = origenes;
+        this.destinos = destinos;
+        this.pesos = pesos;
+        this.numRanurasAristas = numAristas;
+        this.numAristas = numAristas;
+        verticesPorID.limpia();
+        aristasPorExtremos.limpia();
+        tablasPendientes = true;
+        descartaIncidencias();
+        version++;
+        this.adyacencia = adyacencia;
+        versionAdyacencia = adyacencia != null ? version : -1;
+    }
+
+    /**
+     * Reemplaza el contenido del modelo por el de otro, que no debe volver a usarse. Sirve para preparar un grafo
+     * completo en otro hilo y cambiarlo de una vez en el Event Dispatch Thread.
+     * @param otro El modelo cuyos datos se toman.
+     */
+    public void reemplaza(ModeloGrafo otro) {
+        AdyacenciaCSR adyacenciaOtro = otro.versionAdyacencia == otro.version ? otro.adyacencia : null;
+        cargaArreglos(otro.ids, otro.xs, otro.ys, otro.numRanurasVertices,
+                otro.origenes, otro.destinos, otro.pesos, otro.numRanurasAristas, adyacenciaOtro);
+        numVertices = otro.numVertices;
+        numAristas = otro.numAristas;
+    }
+
+    /**
+     * Llena las tablas de búsqueda si el modelo se cargó de una vez y todavía no se han usado.
+     */
+    private void construyeTablas() {
+        if (!tablasPendientes) {
+            return;
+        }
+        tablasPendientes = false;
+        verticesPorID.reserva(numVertices);
+        for (int vertice = 0; vertice < numRanurasVertices; vertice++) {
+            if (ids[vertice] != null) {
+                verticesPorID.pon(ids[vertice], vertice);
+            }
+        }
+        aristasPorExtremos.reserva(numAristas);
+        for (int arista = 0; arista < numRanurasAristas; arista++) {
+            if (origenes[arista] != -1) {
+                aristasPorExtremos.pon(origenes[arista], destinos[arista], arista);
+            }
+        }
+    }
+
+    /**
+     * @param ID El ID del vértice a buscar.
+     * @return El índice del vértice, o -1 si no existe.
+     */
+    public int buscaVertice(String ID) {
+        construyeTablas();
+        return verticesPorID.obten(ID);
+    }
+
+    /**
+     * @param a El índice de un vértice.
+     * @param b El índice del otro vértice.
+     * @return El índice de la arista que los une, o -1 si no están conectados.
+     */
+    public int buscaArista(int a, int b) {
+        construyeTablas();
+        return aristasPorExtremos.obten(a, b);
+    }
+
+    /**
+     * @param vertice El índice del vértice.
+     * @return true si el índice corresponde a un vértice que no ha sido eliminado.
+     */
+    public boolean existeVertice(int vertice) {
+        return vertice >= 0 && vertice < numRanurasVertices && ids[vertice] != null;
+    }
+
+    /**
+     * @param arista El índice de la arista.
+     * @return true si el índice corresponde a una arista que no ha sido eliminada.
+     */
+    public boolean existeArista(int arista) {
+        return arista >= 0 && arista < numRanurasAristas && origenes[arista] != -1;
+    }
+
+    /**
+     * @param vertice El índice del vértice.
+     * @return El ID del vértice.
+     */
+    public String getID(int vertice) {
+        return ids[vertice];
+    }
+
+    /**
+     * @param vertice El índice del vértice.
+     * @return La coordenada x del centro del vértice.
+     */
+    public int getX(int vertice) {
+        return xs[vertice];
+    }
+
+    /**
+     * @param vertice El índice del vértice.
+     * @return La coordenada y del centro del vértice.
+     */
+    public int getY(int vertice) {
+        return ys[vertice];
+    }
+
+    /**
+     * Mueve el vértice, no cambia la versión porque la estructura sigue siendo la misma.
+     * @param vertice El índice del vértice.
+     * @param x La nueva coordenada x del centro.
+     * @param y La nueva coordenada y del centro.
+     */
+    public void setPosicion(int vertice, int x, int y) {
+        xs[vertice] = x;
+        ys[vertice] = y;
+    }
+
+    /**
+     * @param arista El índice de la arista.
+     * @return El índice del vértice de origen.
+     */
+    public int getOrigen(int arista) {
+        return origenes[arista];
+    }
+
+    /**
+     * @param arista El índice de la arista.
+     * @return El índice del vértice de destino.
+     */
+    public int getDestino(int arista) {
+        return destinos[arista];
+    }
+
+    /**
+     * @param arista El índice de la arista.
+     * @return El peso de la arista.
+     */
+    public int getPeso(int arista) {
+        return pesos[arista];
+    }
+
+    /**
+     * @return El número de vértices del grafo.
+     */
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    /**
+     * @return El número de aristas del grafo.
+     */
+    public int getNumAristas() {
+        return numAristas;
+    }
+
+    /**
+     * @return El número de posiciones de vértices usadas, incluyendo las de vértices eliminados.
+     */
+    public int getNumRanurasVertices() {
+        return numRanurasVertices;
+    }
+
+    /**
+     * @return El número de posiciones de aristas usadas, incluyendo las de aristas eliminadas.
+     */
+    public int getNumRanurasAristas() {
+        return numRanurasAristas;
+    }
+
+    /**
+     * @return La versión actual de la estructura del grafo, cambia cada vez que se agrega o elimina un elemento.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Devuelve la representación CSR del grafo, reconstruyéndola solo si la estructura cambió desde la última vez.
+     * La representación es inmutable, así que se puede leer desde otro hilo mientras el modelo sigue cambiando.
+     * @return La representación CSR actual.
+     */
+    public AdyacenciaCSR adyacencia() {
+        if (versionAdyacencia != version) {
+            construyeAdyacencia();
+        }
+        return adyacencia;
+    }
+
+    /**
+     * Construye la representación CSR en O(V + E). Los índices de sus vértices son los mismos del modelo; las aristas
+     * eliminadas se omiten y cada arista recuerda su posición en el modelo.
+     * @return La representación CSR construida.
+     */
+    public AdyacenciaCSR construyeAdyacencia() {
+        adyacencia = construyeAdyacencia(numRanurasVertices, origenes, destinos, pesos, numRanurasAristas, numAristas);
+        versionAdyacencia = version;
+        return adyacencia;
+    }
+
+    /**
+     * Prepara la representación CSR para construirla en otro hilo: aquí solo se toman en O(1) los arreglos de las
+     * aristas y sus tamaños, y la construcción devuelta lee únicamente esos arreglos. El modelo puede seguir
+     * cambiando mientras tanto, pues las ranuras de las aristas no se reutilizan, eliminar una arista solo escribe -1
+     * en sus extremos y al crecer o cargar otro grafo se usan arreglos nuevos; una arista eliminada a medio camino
+     * puede quedar o no, como si se hubiera eliminado justo antes o justo después. El resultado se puede guardar
+     * después con guardaAdyacencia().
+     * @return La construcción de la representación CSR de la estructura actual, o la que ya estaba al día.
+     */
+    public Supplier<AdyacenciaCSR> preparaAdyacencia() {
+        if (versionAdyacencia == version) {
+            AdyacenciaCSR actual = adyacencia;
+            return () -> actual;
+        }
+        int vertices = numRanurasVertices;
+        int[] origenesTomados = origenes;
+        int[] destinosTomados = destinos;
+        int[] pesosTomados = pesos;
+        int ranurasAristas = numRanurasAristas;
+        int aristas = numAristas;
+        return () -> construyeAdyacencia(vertices, origenesTomados, destinosTomados, pesosTomados, ranurasAristas,
+                aristas);
+    }
+
+    /**
+     * Copia los vértices con sus mismos índices y huecos, sin aristas. Solo se copian los arreglos, en O(V), así la
+     * copia se puede leer en otro hilo, por ejemplo para guardarla, mientras el modelo sigue cambiando.
+     * @return Un modelo nuevo con los vértices actuales y ninguna arista.
+     */
+    public ModeloGrafo copiaVertices() {
+        ModeloGrafo copia = new ModeloGrafo();
+        int capacidad = Math.max(numRanurasVertices, 16);
+        copia.ids = Arrays.copyOf(ids, capacidad);
+        copia.xs = Arrays.copyOf(xs, capacidad);
+        copia.ys = Arrays.copyOf(ys, capacidad);
+        copia.numRanurasVertices = numRanurasVertices;
+        copia.numVertices = numVertices;
+        copia.tablasPendientes = true;
+        return copia;
+    }
+
+    /**
+     * Guarda una representación CSR construida fuera del modelo si la estructura no ha cambiado desde que se preparó,
+     * así el siguiente algoritmo no la vuelve a construir.
+     * @param csr La representación construida con preparaAdyacencia().
+     * @param versionCsr La versión del modelo cuando se preparó.
+     */
+    public void guardaAdyacencia(AdyacenciaCSR csr, long versionCsr) {
+        if (versionCsr == version && versionAdyacencia != version) {
+            adyacencia = csr;
+            versionAdyacencia = version;
+        }
+    }
+
+    /**
+     * Si Java Flight Recorder está iniciado, cada construcción se registra como un EventoAdyacencia. Se omiten las
+     * aristas con algún extremo en -1, que son las eliminadas.
+     */
+    private static AdyacenciaCSR construyeAdyacencia(int numRanurasVertices, int[] origenes, int[] destinos,
+                                                     int[] pesos, int numRanurasAristas, int numAristas) {
+        EventoAdyacencia evento = FlightRecorder.isInitialized() ? new EventoAdyacencia() : null;
+        if (evento != null) {
+            evento.begin();
+        }
+        int[] origenesVivos = new int[numAristas];
+        int[] destinosVivos = new int[numAristas];
+        int[] pesosVivos = new int[numAristas];
+        int[] ranuras = new int[numAristas];
+        int j = 0;
+        for (int arista = 0; arista < numRanurasAristas && j < numAristas; arista++) {
+            int origen = origenes[arista];
+            int destino = destinos[arista];
+            if (origen != -1 && destino != -1) {
+                origenesVivos[j] = origen;
+                destinosVivos[j] = destino;
+                pesosVivos[j] = pesos[arista];
+                ranuras[j++] = arista;
+            }
+        }
+        AdyacenciaCSR csr = new AdyacenciaCSR(numRanurasVertices, origenesVivos, destinosVivos, pesosVivos, j, ranuras);
+        if (evento != null) {
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.vertices = numRanurasVertices;
+                evento.aristas = numRanurasAristas;
+                evento.aristasAdyacencia = j;
+                evento.commit();
+            }
+        }
+        return csr;
+    }
+
+    /**
+     * Cuesta el grado del vértice. Mientras las listas de incidencia no se han armado se leen de la adyacencia CSR si
+     * está al día, como justo después de abrir un grafo; si no, se arman una vez en O(V + E).
+     * @param vertice El índice del vértice.
+     * @return Los índices en el modelo de las aristas conectadas al vértice.
+     */
+    public int[] aristasIncidentes(int vertice) {
+        if (incidenciasPendientes) {
+            if (versionAdyacencia == version) {
+                AdyacenciaCSR csr = adyacencia;
+                int[] incidentes = new int[csr.finVecinos(vertice) - csr.inicioVecinos(vertice)];
+                for (int k = csr.inicioVecinos(vertice); k < csr.finVecinos(vertice); k++) {
+                    incidentes[k - csr.inicioVecinos(vertice)] = csr.ranuraArista(csr.arista(k));
+                }
+                return incidentes;
+            }
+            construyeIncidencias();
+        }
+        if (vertice >= primerLado.length) {
+            return new int[0];
+        }
+        int grado = 0;
+        for (int lado = primerLado[vertice]; lado != -1; lado = siguienteLado[lado]) {
+            grado++;
+        }
+        int[] incidentes = new int[grado];
+        int i = 0;
+        for (int lado = primerLado[vertice]; lado != -1; lado = siguienteLado[lado]) {
+            incidentes[i++] = lado >>> 1;
+        }
+        return incidentes;
+    }
+
+    /**
+     * Arma las listas de incidencia a partir de los arreglos de aristas, en O(V + E).
+     */
+    private void construyeIncidencias() {
+        incidenciasPendientes = false;
+        primerLado = new int[ids.length];
+        Arrays.fill(primerLado, -1);
+        siguienteLado = new int[2 * origenes.length];
+        anteriorLado = new int[2 * origenes.length];
+        for (int arista = 0; arista < numRanurasAristas; arista++) {
+            if (origenes[arista] != -1) {
+                enlaza(2 * arista, origenes[arista]);
+                enlaza(2 * arista + 1, destinos[arista]);
+            }
+        }
+    }
+
+    /**
+     * Hace crecer las listas de incidencia junto con los arreglos de vértices y aristas.
+     */
+    private void reservaIncidencias() {
+        if (primerLado.length < ids.length) {
+            int anterior = primerLado.length;
+            primerLado = Arrays.copyOf(primerLado, ids.length);
+            Arrays.fill(primerLado, anterior, ids.length, -1);
+        }
+        if (siguienteLado.length < 2 * origenes.length) {
+            siguienteLado = Arrays.copyOf(siguienteLado, 2 * origenes.length);
+            anteriorLado = Arrays.copyOf(anteriorLado, 2 * origenes.length);
+        }
+    }
+
+    private void descartaIncidencias() {
+        primerLado = null;
+        siguienteLado = null;
+        anteriorLado = null;
+        incidenciasPendientes = true;
+    }
+
+    /**
+     * Pone el lado al principio de la lista del vértice.
+     */
+    private void enlaza(int lado, int vertice) {
+        int primero = primerLado[vertice];
+        siguienteLado[lado] = primero;
+        anteriorLado[lado] = -1;
+        if (primero != -1) {
+            anteriorLado[primero] = lado;
+        }
+        primerLado[vertice] = lado;
+    }
+
+    /**
+     * Quita el lado de la lista del vértice en O(1).
+     */
+    private void desenlaza(int lado, int vertice) {
+        int anterior = anteriorLado[lado];
+        int siguiente = siguienteLado[lado];
+        if (anterior != -1) {
+            siguienteLado[anterior] = siguiente;
+        } else {
+            primerLado[vertice] = siguiente;
+        }
+        if (siguiente != -1) {
+            anteriorLado[siguiente] = anterior;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+import java.util.Arrays;
+
+/**
+ * Montículo mínimo d-ario indexado por vértice.
+ * Cada vértice aparece a lo sumo una vez y se conoce su posición, así disminuir su llave cuesta O(log V) sin tener
+ * que insertar copias repetidas como pasaría con PriorityQueue. Con aridad 4 el árbol es más bajo y los hijos de un
+ * nodo quedan juntos en memoria. Si dos llaves son iguales sale primero el vértice de menor índice.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class MonticuloIndexado {
+    private static final int ARIDAD = 4;
+    private final int[] monticulo;
+    private final int[] posiciones;
+    private final long[] llaves;
+    private int tamano;
+
+    /**
+     * @param capacidad El número de vértices, los índices válidos van de 0 a capacidad - 1.
+     */
+    public MonticuloIndexado(int capacidad) {
+        monticulo = new int[capacidad];
+        posiciones = new int[capacidad];
+        llaves = new long[capacidad];
+        Arrays.fill(posiciones, -1);
+    }
+
+    /**
+     * @return true si el montículo no tiene elementos, de lo contrario false.
+     */
+    public boolean estaVacio() {
+        return tamano == 0;
+    }
+
+    /**
+     * @param vertice El índice del vértice.
+     * @return true si el vértice está en el montículo, de lo contrario false.
+     */
+    public boolean contiene(int vertice) {
+        return posiciones[vertice] != -1;
+    }
+
+    /**
+     * Inserta el vértice con la llave dada, o disminuye su llave si ya estaba en el montículo.
+     * @param vertice El índice del vértice.
+     * @param llave La nueva llave, si el vértice ya estaba debe ser menor o igual a la anterior.
+     */
+    public void insertaODisminuye(int vertice, long llave) {
+        llaves[vertice] = llave;
+        if (posiciones[vertice] == -1) {
+            monticulo[tamano] = vertice;
+            posiciones[vertice] = tamano;
+            sube(tamano++);
+        } else {
+            sube(posiciones[vertice]);
+        }
+    }
+
+    /**
+     * @return El índice del vértice con la menor llave, que se elimina del montículo.
+     */
+    public int extraeMinimo() {
+        int minimo = monticulo[0];
+        posiciones[minimo] = -1;
+        tamano--;
+        if (tamano > 0) {
+            monticulo[0] = monticulo[tamano];
+            posiciones[monticulo[0]] = 0;
+            baja(0);
+        }
+        return minimo;
+    }
+
+    private boolean esMenor(int a, int b) {
+        return llaves[a] < llaves[b] || (llaves[a] == llaves[b] && a < b);
+    }
+
+    private void sube(int posicion) {
+        int vertice = monticulo[posicion];
+        while (posicion > 0) {
+            int padre = (posicion - 1) / ARIDAD;
+            if (!esMenor(vertice, monticulo[padre])) {
+                break;
+            }
+            monticulo[posicion] = monticulo[padre];
+            posiciones[monticulo[posicion]] = posicion;
+            posicion = padre;
+        }
+        monticulo[posicion] = vertice;
+        posiciones[vertice] = posicion;
+    }
+
+    private void baja(int posicion) {
+        int vertice = monticulo[posicion];
+        while (true) {
+            int primerHijo = posicion * ARIDAD + 1;
+            if (primerHijo >= tamano) {
+                break;
+            }
+            int menor = primerHijo;
+            int ultimoHijo = Math.min(primerHijo + ARIDAD, tamano);
+            for (int hijo = primerHijo + 1; hijo < ultimoHijo; hijo++) {
+                if (esMenor(monticulo[hijo], monticulo[menor])) {
+                    menor = hijo;
+                }
+            }
+            if (!esMenor(monticulo[menor], vertice)) {
+                break;
+            }
+            monticulo[posicion] = monticulo[menor];
+            posiciones[monticulo[posicion]] = posicion;
+            posicion = menor;
+        }
+        monticulo[posicion] = vertice;
+        posiciones[vertice] = posicion;
+    }
+}
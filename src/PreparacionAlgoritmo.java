@@ -0,0 +1,37 @@
+/**
+ * Lo que la tarea de un algoritmo, o de un guardado, deja listo en segundo plano para mostrarlo: la representación CSR sobre la que
+ * calculó, que el modelo guarda si sigue al día, y los datos ya traducidos a índices del modelo, así el Event Dispatch
+ * Thread solo los aplica. La tarea llena los campos antes de terminar y el ejecutor los entrega después en el Event
+ * Dispatch Thread, por lo que no hace falta sincronizarlos.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public final class PreparacionAlgoritmo {
+    /**
+     * La versión del modelo de la que se tomó la adyacencia.
+     */
+    final long version;
+    /**
+     * La representación CSR sobre la que se calculó.
+     */
+    AdyacenciaCSR adyacencia;
+    /**
+     * Los cambios de color de la animación de un recorrido, como los arma AnimacionGrafo.
+     */
+    int[] cambios;
+    /**
+     * Un bit por cada ranura de arista del modelo, encendido si la arista está en el árbol de expansión mínima.
+     */
+    long[] aristasDeRecubrimiento;
+    /**
+     * Las ranuras de las aristas que no quedaron en el árbol de expansión mínima.
+     */
+    int[] aristasInnecesarias;
+
+    /**
+     * @param version La versión del modelo de la que se tomará la adyacencia.
+     */
+    PreparacionAlgoritmo(long version) {
+        this.version = version;
+    }
+}
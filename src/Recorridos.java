@@ -0,0 +1,115 @@
+/**
+ * Recorridos en amplitud y en profundidad sobre la representación CSR.
+ * Ambos son iterativos, así un camino muy largo no provoca StackOverflowError, y marcan los vértices visitados
+ * en un bitset de tipo long, por lo que cuestan O(V + E). Cada paso se anota en una traza: la visita de un vértice
+ * precedida por la arista que llevó a él, y como rechazadas las aristas hacia vértices ya visitados. Al terminar
+ * registran en el control los vértices visitados y las aristas revisadas.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class Recorridos {
+
+    private Recorridos() {
+    }
+
+    /**
+     * Recorre en amplitud a partir del vértice dado.
+     * La cola de vértices por visitar es el mismo arreglo del orden de visita, pues en amplitud coinciden.
+     * @param adyacencia La representación CSR del grafo.
+     * @param inicio El índice del vértice de partida.
+     * @param control Recibe el avance y permite cancelar el recorrido.
+     * @param traza Recibe los pasos del recorrido, puede ser TrazaAlgoritmo.DESACTIVADA.
+     * @return El orden de visita y las aristas del árbol.
+     */
+    public static ResultadoRecorrido amplitud(AdyacenciaCSR adyacencia, int inicio, ControlEjecucion control,
+                                              TrazaAlgoritmo traza) {
+        control.inicia(adyacencia.getDimension());
+        ResultadoRecorrido resultado = new ResultadoRecorrido(adyacencia.getDimension());
+        long[] visitados = new long[(adyacencia.getDimension() + 63) >>> 6];
+        visitados[inicio >>> 6] |= 1L << inicio;
+        resultado.agregaVertice(inicio);
+        traza.visita(inicio);
+
+        long revisadas = 0;
+        for (int cabeza = 0; cabeza < resultado.getNumVertices(); cabeza++) {
+            if ((cabeza & ControlEjecucion.INTERVALO) == 0) {
+                control.avanza(cabeza);
+            }
+            int actual = resultado.getVertice(cabeza);
+            revisadas += adyacencia.finVecinos(actual) - adyacencia.inicioVecinos(actual);
+            for (int k = adyacencia.inicioVecinos(actual); k < adyacencia.finVecinos(actual); k++) {
+                int destino = adyacencia.vecino(k);
+                if ((visitados[destino >>> 6] & (1L << destino)) == 0) {
+                    visitados[destino >>> 6] |= 1L << destino;
+                    resultado.agregaVertice(destino);
+                    resultado.agregaArista(adyacencia.arista(k));
+                    traza.acepta(adyacencia.arista(k));
+                    traza.visita(destino);
+                } else {
+                    traza.rechaza(adyacencia.arista(k));
+                }
+            }
+        }
+        control.registra(MetricasAlgoritmo.VERTICES_ASENTADOS, resultado.getNumVertices());
+        control.registra(MetricasAlgoritmo.ARISTAS_REVISADAS, revisadas);
+        return resultado;
+    }
+
+    /**
+     * Recorre en profundidad a partir del vértice dado.
+     * Se usa una pila explícita que guarda, para cada vértice, la posición del siguiente vecino por revisar; así el
+     * orden de visita es el mismo que el de la versión recursiva.
+     * @param adyacencia La representación CSR del grafo.
+     * @param inicio El índice del vértice de partida.
+     * @param control Recibe el avance y permite cancelar el recorrido.
+     * @param traza Recibe los pasos del recorrido, puede ser TrazaAlgoritmo.DESACTIVADA.
+     * @return El orden de visita y las aristas del árbol.
+     */
+    public static ResultadoRecorrido profundidad(AdyacenciaCSR adyacencia, int inicio, ControlEjecucion control,
+                                                 TrazaAlgoritmo traza) {
+        int dimension = adyacencia.getDimension();
+        control.inicia(dimension);
+        ResultadoRecorrido resultado = new ResultadoRecorrido(dimension);
+        long[] visitados = new long[(dimension + 63) >>> 6];
+        int[] pila = new int[dimension];
+        int[] siguienteVecino = new int[dimension];
+        int tope = 0;
+        // Un vértice sale de la pila solo después de revisar todos sus vecinos, basta sumar su grado al visitarlo.
+        long revisadas = adyacencia.finVecinos(inicio) - adyacencia.inicioVecinos(inicio);
+
+        visitados[inicio >>> 6] |= 1L << inicio;
+        resultado.agregaVertice(inicio);
+        traza.visita(inicio);
+        pila[tope] = inicio;
+        siguienteVecino[tope++] = adyacencia.inicioVecinos(inicio);
+
+        while (tope > 0) {
+            int actual = pila[tope - 1];
+            int k = siguienteVecino[tope - 1];
+            if (k == adyacencia.finVecinos(actual)) {
+                tope--;
+                continue;
+            }
+            siguienteVecino[tope - 1] = k + 1;
+            int destino = adyacencia.vecino(k);
+            if ((visitados[destino >>> 6] & (1L << destino)) == 0) {
+                visitados[destino >>> 6] |= 1L << destino;
+                resultado.agregaVertice(destino);
+                resultado.agregaArista(adyacencia.arista(k));
+                traza.acepta(adyacencia.arista(k));
+                traza.visita(destino);
+                if ((resultado.getNumVertices() & ControlEjecucion.INTERVALO) == 0) {
+                    control.avanza(resultado.getNumVertices());
+                }
+                revisadas += adyacencia.finVecinos(destino) - adyacencia.inicioVecinos(destino);
+                pila[tope] = destino;
+                siguienteVecino[tope++] = adyacencia.inicioVecinos(destino);
+            } else {
+                traza.rechaza(adyacencia.arista(k));
+            }
+        }
+        control.registra(MetricasAlgoritmo.VERTICES_ASENTADOS, resultado.getNumVertices());
+        control.registra(MetricasAlgoritmo.ARISTAS_REVISADAS, revisadas);
+        return resultado;
+    }
+}
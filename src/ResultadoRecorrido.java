@@ -0,0 +1,65 @@
+/**
+ * Resultado de un algoritmo aplicado sobre la representación CSR.
+ * Guarda, como índices, los vértices en el orden en que se visitaron y las aristas del árbol que se formó.
+ * La arista i es la que se colorea después del vértice i al mostrar el recorrido.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class ResultadoRecorrido {
+    private final int[] vertices;
+    private final int[] aristas;
+    private int numVertices;
+    private int numAristas;
+
+    /**
+     * @param capacidad El número máximo de vértices que puede tener el resultado.
+     */
+    public ResultadoRecorrido(int capacidad) {
+        vertices = new int[capacidad];
+        aristas = new int[Math.max(capacidad - 1, 0)];
+    }
+
+    /**
+     * @param vertice Agrega el índice de un vértice visitado.
+     */
+    public void agregaVertice(int vertice) {
+        vertices[numVertices++] = vertice;
+    }
+
+    /**
+     * @param arista Agrega el índice de una arista del árbol.
+     */
+    public void agregaArista(int arista) {
+        aristas[numAristas++] = arista;
+    }
+
+    /**
+     * @return El número de vértices visitados.
+     */
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    /**
+     * @param i La posición en el orden de visita.
+     * @return El índice del vértice visitado en esa posición.
+     */
+    public int getVertice(int i) {
+        return vertices[i];
+    }
+
+    /**
+     * @return El número de aristas del árbol.
+     */
+    public int getNumAristas() {
+        return numAristas;
+    }
+
+    /**
+     * @param i La posición de la arista en el árbol.
+     * @return El índice de la arista en esa posición.
+     */
+    public int getArista(int i) {
+        return aristas[i];
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Tabla hash de direccionamiento abierto que asocia el ID de un vértice con su índice.
+ * Usa arreglos paralelos y sondeo lineal con borrado por desplazamiento hacia atrás, así cada vértice cuesta unos
+ * pocos bytes en lugar de un nodo de HashMap con su Integer.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class TablaIDs {
+    private String[] llaves;
+    // La dispersión de cada llave: se compara antes que la llave, así los sondeos que no coinciden no leen el String.
+    private int[] dispersiones;
+    private int[] valores;
+    private int tamano;
+
+    /**
+     * Crea una tabla vacía.
+     */
+    public TablaIDs() {
+        llaves = new String[16];
+        dispersiones = new int[16];
+        valores = new int[16];
+    }
+
+    /**
+     * @param ID El ID del vértice.
+     * @return El índice asociado al ID, o -1 si no está en la tabla.
+     */
+    public int obten(String ID) {
+        int mascara = llaves.length - 1;
+        int dispersion = dispersa(ID);
+        for (int i = dispersion & mascara; llaves[i] != null; i = (i + 1) & mascara) {
+            if (dispersiones[i] == dispersion && llaves[i].equals(ID)) {
+                return valores[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Asocia el ID con el índice dado, reemplazando el anterior si ya estaba.
+     * @param ID El ID del vértice.
+     * @param valor El índice del vértice.
+     */
+    public void pon(String ID, int valor) {
+        if (2 * (tamano + 1) > llaves.length) {
+            redimensiona(llaves.length * 2);
+        }
+        int mascara = llaves.length - 1;
+        int dispersion = dispersa(ID);
+        int i = dispersion & mascara;
+        while (llaves[i] != null && (dispersiones[i] != dispersion || !llaves[i].equals(ID))) {
+            i = (i + 1) & mascara;
+        }
+        if (llaves[i] == null) {
+            tamano++;
+        }
+        llaves[i] = ID;
+        dispersiones[i] = dispersion;
+        valores[i] = valor;
+    }
+
+    /**
+     * Elimina el ID de la tabla, si estaba.
+     * @param ID El ID del vértice.
+     */
+    public void elimina(String ID) {
+        int mascara = llaves.length - 1;
+        int dispersion = dispersa(ID);
+        int i = dispersion & mascara;
+        while (llaves[i] == null || dispersiones[i] != dispersion || !llaves[i].equals(ID)) {
+            if (llaves[i] == null) {
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        tamano--;
+        // Se recorren hacia atrás las entradas siguientes que quedarían inalcanzables con el hueco.
+        int hueco = i;
+        for (int j = (i + 1) & mascara; llaves[j] != null; j = (j + 1) & mascara) {
+            int ideal = dispersiones[j] & mascara;
+            if (((j - ideal) & mascara) >= ((j - hueco) & mascara)) {
+                llaves[hueco] = llaves[j];
+                dispersiones[hueco] = dispersiones[j];
+                valores[hueco] = valores[j];
+                hueco = j;
+            }
+        }
+        llaves[hueco] = null;
+    }
+
+    /**
+     * Vacía la tabla.
+     */
+    public void limpia() {
+        llaves = new String[16];
+        dispersiones = new int[16];
+        valores = new int[16];
+        tamano = 0;
+    }
+
+    /**
+     * Prepara la tabla para recibir el número de IDs dado sin volver a crecer.
+     * @param capacidad El número de IDs esperado.
+     */
+    public void reserva(int capacidad) {
+        int necesaria = Integer.highestOneBit(Math.max(2 * capacidad, 8) - 1) << 1;
+        if (necesaria > llaves.length) {
+            redimensiona(necesaria);
+        }
+    }
+
+    private void redimensiona(int capacidad) {
+        String[] llavesViejas = llaves;
+        int[] dispersionesViejas = dispersiones;
+        int[] valoresViejos = valores;
+        llaves = new String[capacidad];
+        dispersiones = new int[capacidad];
+        valores = new int[capacidad];
+        int mascara = capacidad - 1;
+        for (int j = 0; j < llavesViejas.length; j++) {
+            if (llavesViejas[j] != null) {
+                int i = dispersionesViejas[j] & mascara;
+                while (llaves[i] != null) {
+                    i = (i + 1) & mascara;
+                }
+                llaves[i] = llavesViejas[j];
+                dispersiones[i] = dispersionesViejas[j];
+                valores[i] = valoresViejos[j];
+            }
+        }
+    }
+
+    private static int dispersa(String ID) {
+        int h = ID.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,147 @@
+import java.util.Arrays;
+
+/**
+ * Tabla hash de direccionamiento abierto que asocia un par no ordenado de vértices con el índice de su arista.
+ * Las llaves y valores se guardan en arreglos primitivos, sin objetos por entrada, y se usa sondeo lineal con
+ * borrado por desplazamiento hacia atrás, así no quedan lápidas que alarguen las búsquedas.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public class TablaPares {
+    private static final long VACIA = -1;
+    private long[] llaves;
+    private int[] valores;
+    private int tamano;
+
+    /**
+     * Crea una tabla vacía.
+     */
+    public TablaPares() {
+        llaves = new long[16];
+        valores = new int[16];
+        Arrays.fill(llaves, VACIA);
+    }
+
+    /**
+     * Como el grafo es no dirigido, A → B y B → A generan la misma llave.
+     * @param a El índice de un vértice.
+     * @param b El índice del otro vértice.
+     * @return La llave del par.
+     */
+    public static long llave(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+
+    /**
+     * @param a El índice de un vértice.
+     * @param b El índice del otro vértice.
+     * @return El valor asociado al par, o -1 si no está en la tabla.
+     */
+    public int obten(int a, int b) {
+        long llave = llave(a, b);
+        int mascara = llaves.length - 1;
+        for (int i = dispersa(llave) & mascara; llaves[i] != VACIA; i = (i + 1) & mascara) {
+            if (llaves[i] == llave) {
+                return valores[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Asocia el par con el valor dado, reemplazando el anterior si ya estaba.
+     * @param a El índice de un vértice.
+     * @param b El índice del otro vértice.
+     * @param valor El valor a guardar.
+     */
+    public void pon(int a, int b, int valor) {
+        if (2 * (tamano + 1) > llaves.length) {
+            redimensiona(llaves.length * 2);
+        }
+        long llave = llave(a, b);
+        int mascara = llaves.length - 1;
+        int i = dispersa(llave) & mascara;
+        while (llaves[i] != VACIA && llaves[i] != llave) {
+            i = (i + 1) & mascara;
+        }
+        if (llaves[i] == VACIA) {
+            tamano++;
+        }
+        llaves[i] = llave;
+        valores[i] = valor;
+    }
+
+    /**
+     * Elimina el par de la tabla, si estaba.
+     * @param a El índice de un vértice.
+     * @param b El índice del otro vértice.
+     */
+    public void elimina(int a, int b) {
+        long llave = llave(a, b);
+        int mascara = llaves.length - 1;
+        int i = dispersa(llave) & mascara;
+        while (llaves[i] != llave) {
+            if (llaves[i] == VACIA) {
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        tamano--;
+        // Se recorren hacia atrás las entradas siguientes que quedarían inalcanzables con el hueco.
+        int hueco = i;
+        for (int j = (i + 1) & mascara; llaves[j] != VACIA; j = (j + 1) & mascara) {
+            int ideal = dispersa(llaves[j]) & mascara;
+            if (((j - ideal) & mascara) >= ((j - hueco) & mascara)) {
+                llaves[hueco] = llaves[j];
+                valores[hueco] = valores[j];
+                hueco = j;
+            }
+        }
+        llaves[hueco] = VACIA;
+    }
+
+    /**
+     * Vacía la tabla.
+     */
+    public void limpia() {
+        llaves = new long[16];
+        valores = new int[16];
+        Arrays.fill(llaves, VACIA);
+        tamano = 0;
+    }
+
+    /**
+     * Prepara la tabla para recibir el número de pares dado sin volver a crecer.
+     * @param capacidad El número de pares esperado.
+     */
+    public void reserva(int capacidad) {
+        int necesaria = Integer.highestOneBit(Math.max(2 * capacidad, 8) - 1) << 1;
+        if (necesaria > llaves.length) {
+            redimensiona(necesaria);
+        }
+    }
+
+    private void redimensiona(int capacidad) {
+        long[] llavesViejas = llaves;
+        int[] valoresViejos = valores;
+        llaves = new long[capacidad];
+        valores = new int[capacidad];
+        Arrays.fill(llaves, VACIA);
+        int mascara = capacidad - 1;
+        for (int j = 0; j < llavesViejas.length; j++) {
+            if (llavesViejas[j] != VACIA) {
+                int i = dispersa(llavesViejas[j]) & mascara;
+                while (llaves[i] != VACIA) {
+                    i = (i + 1) & mascara;
+                }
+                llaves[i] = llavesViejas[j];
+                valores[i] = valoresViejos[j];
+            }
+        }
+    }
+
+    private static int dispersa(long llave) {
+        long h = llave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,182 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Registro de los pasos de un algoritmo, para mostrarlos después sin que el cálculo espere a la interfaz.
+ * Cada evento es un entero: los dos bits bajos dicen su tipo y el resto el índice del vértice (en una visita) o de
+ * la arista de la representación CSR (en los demás tipos). Los eventos se guardan en bloques de 64 Ki enteros, así
+ * cada uno ocupa 4 bytes, crecer no copia lo ya escrito y una traza de diez millones de pasos mide unos 40 MB.
+ * La traza la escribe un solo hilo; los algoritmos paralelos la escriben al final, a partir de su resultado.
+ * La traza DESACTIVADA no guarda nada, sirve para correr un algoritmo sin pagar el registro.
+ * @author Luis-Rangel
+ * @version 1.1
+ */
+public final class TrazaAlgoritmo {
+    /**
+     * Se visitó un vértice: se descubrió en un recorrido o se fijó su distancia en un camino más corto.
+     */
+    public static final int VISITA = 0;
+    /**
+     * Una arista mejoró la distancia de su destino.
+     */
+    public static final int RELAJA = 1;
+    /**
+     * Una arista entró al árbol del recorrido, de caminos más cortos o de expansión mínima.
+     */
+    public static final int ACEPTA = 2;
+    /**
+     * Se revisó una arista que no cambió nada.
+     */
+    public static final int RECHAZA = 3;
+    /**
+     * Traza que descarta todos los eventos.
+     */
+    public static final TrazaAlgoritmo DESACTIVADA = new TrazaAlgoritmo(false);
+    // Identifica el formato al guardar una traza: "TRZ" y la versión.
+    private static final int FORMATO = 0x54525A01;
+    private static final int BITS_BLOQUE = 16;
+    private static final int TAMANO_BLOQUE = 1 << BITS_BLOQUE;
+
+    private final boolean activa;
+    private int[][] bloques = new int[4][];
+    private long numEventos;
+
+    /**
+     * Crea una traza vacía que guarda los eventos.
+     */
+    public TrazaAlgoritmo() {
+        this(true);
+    }
+
+    private TrazaAlgoritmo(boolean activa) {
+        this.activa = activa;
+    }
+
+    /**
+     * @param vertice Registra la visita del vértice.
+     */
+    public void visita(int vertice) {
+        agrega(vertice << 2 | VISITA);
+    }
+
+    /**
+     * @param arista Registra que la arista mejoró la distancia de su destino.
+     */
+    public void relaja(int arista) {
+        agrega(arista << 2 | RELAJA);
+    }
+
+    /**
+     * @param arista Registra que la arista entró al árbol.
+     */
+    public void acepta(int arista) {
+        agrega(arista << 2 | ACEPTA);
+    }
+
+    /**
+     * @param arista Registra que la arista se revisó sin cambiar nada.
+     */
+    public void rechaza(int arista) {
+        agrega(arista << 2 | RECHAZA);
+    }
+
+    /**
+     * Registra un resultado ya calculado: cada vértice en orden, precedido por la arista que lo une a su padre.
+     * Lo usan los algoritmos paralelos, que no pueden escribir la traza mientras corren.
+     * @param resultado El orden de visita y las aristas del árbol, la arista i lleva al vértice i + 1.
+     */
+    public void registraRecorrido(ResultadoRecorrido resultado) {
+        if (!activa) {
+            return;
+        }
+        for (int i = 0; i < resultado.getNumVertices(); i++) {
+            if (i > 0 && i - 1 < resultado.getNumAristas()) {
+                acepta(resultado.getArista(i - 1));
+            }
+            visita(resultado.getVertice(i));
+        }
+    }
+
+    private void agrega(int evento) {
+        if (!activa) {
+            return;
+        }
+        int bloque = (int) (numEventos >>> BITS_BLOQUE);
+        int posicion = (int) numEventos & (TAMANO_BLOQUE - 1);
+        if (posicion == 0) {
+            if (bloque == bloques.length) {
+                bloques = Arrays.copyOf(bloques, bloque * 2);
+            }
+            bloques[bloque] = new int[TAMANO_BLOQUE];
+        }
+        bloques[bloque][posicion] = evento;
+        numEventos++;
+    }
+
+    /**
+     * @return El número de eventos registrados.
+     */
+    public long getNumEventos() {
+        return numEventos;
+    }
+
+    /**
+     * @param i La posición del evento, de 0 a getNumEventos() - 1.
+     * @return El evento codificado, se lee con tipo() e indice().
+     */
+    public int getEvento(long i) {
+        return bloques[(int) (i >>> BITS_BLOQUE)][(int) i & (TAMANO_BLOQUE - 1)];
+    }
+
+    /**
+     * @param evento Un evento de la traza.
+     * @return VISITA, RELAJA, ACEPTA o RECHAZA.
+     */
+    public static int tipo(int evento) {
+        return evento & 3;
+    }
+
+    /**
+     * @param evento Un evento de la traza.
+     * @return El índice del vértice si es una visita, o de la arista en los demás tipos.
+     */
+    public static int indice(int evento) {
+        return evento >>> 2;
+    }
+
+    /**
+     * Guarda la traza: el identificador del formato, el número de eventos y los eventos.
+     * @param salida Donde se escribe, conviene que tenga un búfer.
+     * @throws IOException Si no se pudo escribir.
+     */
+    public void escribe(DataOutput salida) throws IOException {
+        salida.writeInt(FORMATO);
+        salida.writeLong(numEventos);
+        for (long i = 0; i < numEventos; i++) {
+            salida.writeInt(getEvento(i));
+        }
+    }
+
+    /**
+     * Lee una traza guardada con escribe().
+     * @param entrada De donde se lee, conviene que tenga un búfer.
+     * @return La traza leída.
+     * @throws IOException Si no se pudo leer o el formato no es el de una traza.
+     */
+    public static TrazaAlgoritmo lee(DataInput entrada) throws IOException {
+        if (entrada.readInt() != FORMATO) {
+            throw new IOException("No es una traza de algoritmo o es de otra versión");
+        }
+        long numEventos = entrada.readLong();
+        if (numEventos < 0) {
+            throw new IOException("Número de eventos inválido: " + numEventos);
+        }
+        TrazaAlgoritmo traza = new TrazaAlgoritmo();
+        for (long i = 0; i < numEventos; i++) {
+            traza.agrega(entrada.readInt());
+        }
+        return traza;
+    }
+}
@@ -1,38 +1,18 @@
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.MouseAdapter;
-import java.awt.event.MouseEvent;
-import java.awt.event.MouseMotionListener;
-import java.util.Comparator;
-import java.util.PriorityQueue;
-import javax.swing.SwingUtilities;
 
 /**
  *  La clase representa un vértice en el grafo para ser visualizado por la aplicación.
- *  Dibuja un componente circular.
+ *  Los vértices se dibujan como un círculo con su ID en el LienzoGrafo; aquí está su forma y la respuesta a los
+ *  clicks, los datos del vértice están en el modelo del grafo.
  * @author Luis-Rangel
  * @version 1.1
  */
-public class Vertice extends JPanel implements MouseMotionListener {
-    private final String ID;
-    // Se guardan sus aristas conectadas según su peso, esto es muy útil para construir árboles de expansión mínima.
-    private final PriorityQueue<Arista> aristasConectadas = new PriorityQueue<>(Comparator.comparingInt(Arista::getPeso));
+public final class Vertice {
     private static final int V_SIZE = 50;
-    private static Vertice vOrigen;
-    private Color colorDeVertice = Color.decode("#ED94FF");
+    private static int vOrigen = -1;
 
-    /**
-     * @return Las aristas conectadas al vértice, en orden ascendente.
-     */
-    public PriorityQueue<Arista> getAristasConectadas() {
-        return aristasConectadas;
-    }
-
-    /**
-     * @return El identificador del vértice.
-     */
-    public String getID() {
-        return ID;
+    private Vertice() {
     }
 
     /**
@@ -43,95 +23,58 @@ public class Vertice extends JPanel implements MouseMotionListener {
     }
 
     /**
-     * @return El vértice origen seleccionado.
+     * @return El índice del vértice origen seleccionado, -1 si no hay ninguno.
      */
-    public static Vertice getvOrigen() {
+    public static int getvOrigen() {
         return vOrigen;
     }
 
     /**
-     * @param colorDeVertice Actualiza el color del vértice.
+     * Verifica si el punto (x, y) está dentro del círculo del vértice.
+     * @param modelo El modelo del grafo.
+     * @param vertice El índice del vértice.
+     * @param x La coordenada x del punto.
+     * @param y La coordenada y del punto.
+     * @return true si el punto está dentro del vértice, de lo contrario false.
      */
-    public void setColorDeVertice(Color colorDeVertice) {
-        this.colorDeVertice = colorDeVertice;
-        repaint();
-    }
-
-    /**
-     * Crea una nueva instancia de Vertice y lo pinta en las coordenadas dadas.
-     * @param x  La coordenada x del vértice.
-     * @param y  La coordenada y del vértice.
-     * @param ID El identificador del vértice.
-     */
-    public Vertice(int x, int y, String ID) {
-        this.ID = ID;
-        setName("Vertice " + ID);
-        setBackground(colorDeVertice);
-        setPreferredSize(new Dimension(V_SIZE, V_SIZE));
-        setLayout(new GridBagLayout());
-        setBounds(x - V_SIZE / 2, y - V_SIZE / 2, V_SIZE, V_SIZE);
-        setOpaque(false);
-        addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseClicked(MouseEvent e) {
-                leeClick();
-            }
-        });
-        JLabel vertexLabel = new JLabel(String.valueOf(ID));
-        vertexLabel.setName("VerticeLabel: " + ID);
-        vertexLabel.setForeground(Color.BLACK);
-        add(vertexLabel);
-        addMouseMotionListener(this);
+    public static boolean contiene(ModeloGrafo modelo, int vertice, int x, int y) {
+        int deltaX = x - modelo.getX(vertice);
+        int deltaY = y - modelo.getY(vertice);
+        int radio = V_SIZE / 2;
+        return deltaX * deltaX + deltaY * deltaY <= radio * radio;
     }
 
     /**
-     * @param arista Añade la arista a la cola de aristas conectadas al vértice.
+     * Calcula el área que ocupa el dibujo del vértice, con margen para el contorno y para un ID más ancho que el
+     * círculo.
+     * @param modelo El modelo del grafo.
+     * @param vertice El índice del vértice.
+     * @param area Recibe el área del vértice.
      */
-    public void conectaArista(Arista arista) {
-        aristasConectadas.add(arista);
+    public static void area(ModeloGrafo modelo, int vertice, Rectangle area) {
+        int margen = 40;
+        area.setBounds(modelo.getX(vertice) - V_SIZE / 2 - margen, modelo.getY(vertice) - V_SIZE / 2 - 1,
+                V_SIZE + 2 * margen + 1, V_SIZE + 2);
     }
 
     /**
-     * @param arista Elimina la arista de la cola de aristas conectadas al vértice.
+     * Dibuja el círculo del vértice con su ID centrado.
+     * @param g El contexto gráfico del lienzo.
+     * @param metricas Las métricas de la fuente con la que se escribe el ID.
+     * @param modelo El modelo del grafo.
+     * @param vertice El índice del vértice.
+     * @param color El color de relleno del vértice.
      */
-    public void desconectaArista(Arista arista) {
-        aristasConectadas.remove(arista);
-    }
-
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        g.setColor(colorDeVertice);
-        g.fillOval(0, 0, V_SIZE, V_SIZE);
+    public static void dibuja(Graphics g, FontMetrics metricas, ModeloGrafo modelo, int vertice, Color color) {
+        int x = modelo.getX(vertice) - V_SIZE / 2;
+        int y = modelo.getY(vertice) - V_SIZE / 2;
+        g.setColor(color);
+        g.fillOval(x, y, V_SIZE, V_SIZE);
         g.setColor(Color.BLACK);
-        g.drawOval(0, 0, V_SIZE, V_SIZE);
-    }
-
-    @Override
-    public void mouseDragged(MouseEvent e) {
-        // Actualiza la posición del vértice al arrastrarlo:
-        Point nuevoPunto = SwingUtilities.convertPoint(e.getComponent(), e.getPoint(), getParent());
-        int x = nuevoPunto.x - V_SIZE / 2;
-        int y = nuevoPunto.y - V_SIZE / 2;
-        setLocation(x, y);
-        repaint();
-
-        // Actualiza las aristas al mover el vértice:
-        for (Arista arista : aristasConectadas) {
-            if (arista.getOrigen().getID().equals(this.ID)) {
-                arista.setOrigenX(getX() + V_SIZE / 2);
-                arista.setOrigenY(getY() + V_SIZE / 2);
-            } else if (arista.getDestino().getID().equals(this.ID)) {
-                arista.setDestX(getX() + V_SIZE / 2);
-                arista.setDestY(getY() + V_SIZE / 2);
-            }
-            arista.repaint();
-        }
-    }
-
-    @Override
-    public void mouseMoved(MouseEvent e) {
-        // No se sobreescribe, pero se implementa por la interfaz MouseMotionListener.
+        g.drawOval(x, y, V_SIZE, V_SIZE);
+        String ID = modelo.getID(vertice);
+        g.drawString(ID, x + (V_SIZE - metricas.stringWidth(ID)) / 2,
+                y + (V_SIZE - metricas.getHeight()) / 2 + metricas.getAscent());
     }
 
     /**
@@ -141,25 +84,31 @@ public class Vertice extends JPanel implements MouseMotionListener {
      * Si está en el modo "Eliminar..." quiere decir que quiere eliminar el vértice.
      * Si está en algún algoritmo, este vértice será el punto de partida.
      * Este método implementa la lógica para los anteriores casos.
+     * @param grafo El grafo al que pertenece el vértice.
+     * @param indice El índice del vértice al que se le dio click.
      */
-    private void leeClick() {
+    public static void leeClick(Grafo grafo, int indice) {
         String modo = MainFrame.getModo();
         JPanel mainPanel = MainFrame.getMainPanel();
-        Grafo grafo = MainFrame.getGrafo();
         switch (modo) {
             case "Agregar Vértice/Arista" -> {
                 grafo.descoloreaGrafo();
+                // El vértice seleccionado pudo haberse eliminado mientras tanto:
+                if (vOrigen != -1 && !grafo.getModelo().existeVertice(vOrigen)) {
+                    vOrigen = -1;
+                }
                 //Si no hay un vértice seleccionado anteriormente, este vértice es el origen de la arista
-                if (vOrigen == null) {
-                    vOrigen = this;
-                    vOrigen.setColorDeVertice(Color.decode("#25AD6B"));
+                if (vOrigen == -1) {
+                    vOrigen = indice;
+                    grafo.setColorVertice(vOrigen, Grafo.COLOR_VISITADO);
                 }
                 /* Si hay un vértice seleccionado previamente y el vértice actual es diferente al seleccionado,
                    entonces este vértice es el destino de la arista
                  */
-                else if (vOrigen != this) {
-                    this.setColorDeVertice(Color.decode("#25AD6B"));
-                    if (grafo.existeArista(vOrigen.getID(), ID)) {
+                else if (vOrigen != indice) {
+                    grafo.setColorVertice(indice, Grafo.COLOR_VISITADO);
+                    String origenID = grafo.getModelo().getID(vOrigen);
+                    if (grafo.existeArista(origenID, grafo.getModelo().getID(indice))) {
                         JOptionPane.showMessageDialog(
                                 mainPanel,
                                 "Ya existe la arista que está intentando agregar",
@@ -195,61 +144,43 @@ public class Vertice extends JPanel implements MouseMotionListener {
                                 );
 
                             } else {
-                                Arista arista = grafo.creaArista(vOrigen.getID(), ID, valor);
-                                if (arista != null) {
-                                    mainPanel.add(arista);
-                                    mainPanel.setComponentZOrder(arista, 0);
-                                    mainPanel.revalidate();
-                                    mainPanel.repaint();
-                                }
+                                grafo.creaArista(origenID, grafo.getModelo().getID(indice), valor);
                             }
                         }
                     }
-                    vOrigen.setColorDeVertice(Color.decode("#ED94FF"));
-                    this.setColorDeVertice(Color.decode("#ED94FF"));
-                    vOrigen = null;
+                    grafo.setColorVertice(vOrigen, Grafo.COLOR_VERTICE);
+                    grafo.setColorVertice(indice, Grafo.COLOR_VERTICE);
+                    vOrigen = -1;
                 } else {
                     /* Si el usuario hace click dos veces en el mismo vértice, vuelve a su color por
                        defecto una especie de "cancelar acción".
                      */
-                    vOrigen.setColorDeVertice(Color.decode("#ED94FF"));
-                    this.setColorDeVertice(Color.decode("#ED94FF"));
-                    vOrigen = null;
+                    grafo.setColorVertice(vOrigen, Grafo.COLOR_VERTICE);
+                    grafo.setColorVertice(indice, Grafo.COLOR_VERTICE);
+                    vOrigen = -1;
                 }
             }
             case "Eliminar Vértice/Arista" -> {
                 grafo.descoloreaGrafo();
-                // Para eliminar el vértice, tenemos que eliminar todas las aristas conectadas a él:
-                while (!aristasConectadas.isEmpty()) {
-                    Arista arista = aristasConectadas.poll();
-                    arista.getOrigen().desconectaArista(arista);
-                    arista.getDestino().desconectaArista(arista);
-                    grafo.eliminaArista(arista);
-                    mainPanel.remove(arista.getPesoLabel());
-                    mainPanel.remove(arista);
-                    mainPanel.revalidate();
-                }
-                grafo.eliminaVertice(Vertice.this);
-                mainPanel.remove(Vertice.this);
-                mainPanel.repaint();
-                mainPanel.revalidate();
+                // El grafo elimina también todas las aristas conectadas al vértice:
+                grafo.eliminaVertice(indice);
             }
             case "Recorrido en Amplitud" -> {
                 grafo.descoloreaGrafo();
-                MainFrame.getInfoLabel().setText(grafo.recorreEnAmplitud(this));
+                grafo.recorreEnAmplitud(indice, MainFrame::muestraResultado);
             }
             case "Recorrido en Profundidad" -> {
                 grafo.descoloreaGrafo();
-                MainFrame.getInfoLabel().setText(grafo.recorreEnProfundidad(this));
+                grafo.recorreEnProfundidad(indice, MainFrame::muestraResultado);
             }
             case "Algoritmo de Dijkstra" -> {
                 grafo.descoloreaGrafo();
-                MainFrame.getInfoLabel().setText(grafo.algoritmoDijkstra(this));
+                grafo.algoritmoDijkstra(indice, MainFrame::muestraResultado);
             }
             case "Árbol de expansión mínima" -> {
                 grafo.descoloreaGrafo();
-                grafo.arbolExpansionMinima(this);
-                MainFrame.getInfoLabel().setText("Click en el panel para borrar aristas grises");
+                grafo.arbolExpansionMinima(() ->
+                        MainFrame.muestraResultado("Click en el panel para borrar aristas grises"));
             }
             default -> {}
         }